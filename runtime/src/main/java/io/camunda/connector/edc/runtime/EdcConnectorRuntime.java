@@ -0,0 +1,224 @@
+package io.camunda.connector.edc.runtime;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.camunda.connector.api.annotation.OutboundConnector;
+import io.camunda.connector.api.outbound.OutboundConnectorFunction;
+import io.camunda.connector.edc.config.EdcConnectorSettings;
+import io.camunda.connector.edc.service.Deadline;
+import io.camunda.connector.edc.service.EdcService;
+import io.camunda.connector.runtime.core.ConnectorsObjectMapperSupplier;
+import io.camunda.connector.runtime.core.outbound.ConnectorJobHandler;
+import io.camunda.connector.runtime.core.secret.SecretProviderAggregator;
+import io.camunda.connector.validation.impl.DefaultValidationProvider;
+import io.camunda.zeebe.client.ZeebeClient;
+import io.camunda.zeebe.client.api.response.ActivatedJob;
+import io.camunda.zeebe.client.api.worker.JobClient;
+import io.camunda.zeebe.client.api.worker.JobHandler;
+import io.camunda.zeebe.client.api.worker.JobWorker;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.ServiceLoader;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Standalone job worker for the EDC connector.
+ *
+ * Connectors are discovered through META-INF/services, like in the Camunda connector runtime,
+ * and executed with the runtime's job handler (secrets, result and error expressions). Every
+ * job runs on its own virtual thread, so the blocking EdcService workflow does not hold a
+ * platform thread while it polls the control plane. At most maxActiveJobs jobs run at once;
+ * while all permits are taken the worker stops handing out jobs and, with a bounded activation
+ * buffer, stops activating new ones.
+ *
+ * Once the job timeout passes Zeebe hands the job to another worker, so the EDC workflow still
+ * running for it is cancelled; the negotiation or transfer it started is terminated. Jobs still
+ * running when the runtime closes are cancelled the same way after the job timeout.
+ */
+public class EdcConnectorRuntime implements AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(EdcConnectorRuntime.class);
+    private static final AtomicBoolean FIRST_JOB_DONE = new AtomicBoolean();
+
+    private final ZeebeClient zeebeClient;
+    private final List<OutboundConnectorFunction> functions;
+    private final int maxActiveJobs;
+    private final int activationBuffer;
+    private final Duration jobTimeout;
+    private final Semaphore activeJobs;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final List<JobWorker> workers = new ArrayList<>();
+    private final Set<Thread> runningJobs = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService jobTimeouts = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "edc-runtime-job-timeout");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public EdcConnectorRuntime(ZeebeClient zeebeClient, List<OutboundConnectorFunction> functions,
+                               int maxActiveJobs, int activationBuffer, Duration jobTimeout) {
+        this.zeebeClient = zeebeClient;
+        this.functions = functions;
+        this.maxActiveJobs = maxActiveJobs;
+        this.activationBuffer = activationBuffer;
+        this.jobTimeout = jobTimeout;
+        this.activeJobs = new Semaphore(maxActiveJobs);
+    }
+
+    /**
+     * Connectors registered in META-INF/services/io.camunda.connector.api.outbound.OutboundConnectorFunction
+     */
+    public static List<OutboundConnectorFunction> discoverConnectors() {
+        List<OutboundConnectorFunction> functions = new ArrayList<>();
+        ServiceLoader.load(OutboundConnectorFunction.class).forEach(functions::add);
+        return functions;
+    }
+
+    public void start() {
+        ObjectMapper objectMapper = ConnectorsObjectMapperSupplier.getCopy();
+        SecretProviderAggregator secretProvider = new SecretProviderAggregator(List.of(new EnvironmentSecretProvider()));
+        if (EdcConnectorSettings.getBoolean("edc.connector.warmup.enabled", false)) {
+            // The connector warms its own mapper; job variables are bound with this one
+            try {
+                EdcService.warmUpBinding(objectMapper);
+            } catch (IOException e) {
+                LOGGER.warn("Warm-up of the job variable binding failed: {}", e.toString());
+            }
+        }
+
+        for (OutboundConnectorFunction function : functions) {
+            OutboundConnector connector = function.getClass().getAnnotation(OutboundConnector.class);
+            if (connector == null) {
+                LOGGER.warn("Skipping {}: missing @OutboundConnector annotation", function.getClass().getName());
+                continue;
+            }
+
+            JobHandler handler = new ConnectorJobHandler(
+                    function, secretProvider, new DefaultValidationProvider(), objectMapper);
+
+            JobWorker worker = zeebeClient.newWorker()
+                    .jobType(connector.type())
+                    .handler((client, job) -> dispatch(handler, client, job))
+                    .name("edc-connector-runtime")
+                    .maxJobsActive(activationBuffer)
+                    .timeout(jobTimeout)
+                    .fetchVariables(connector.inputVariables())
+                    .open();
+            workers.add(worker);
+
+            LOGGER.info("Registered connector '{}' for job type {} (max active jobs: {}, activation buffer: {})",
+                    connector.name(), connector.type(), maxActiveJobs, activationBuffer);
+        }
+    }
+
+    /**
+     * Hand the job to a virtual thread; blocks the worker thread while all permits are taken
+     */
+    private void dispatch(JobHandler handler, JobClient client, ActivatedJob job) throws InterruptedException {
+        activeJobs.acquire();
+        try {
+            executor.execute(() -> run(handler, client, job));
+        } catch (RejectedExecutionException e) {
+            activeJobs.release();
+            throw e;
+        }
+    }
+
+    private void run(JobHandler handler, JobClient client, ActivatedJob job) {
+        Thread thread = Thread.currentThread();
+        runningJobs.add(thread);
+        ScheduledFuture<?> timeout = jobTimeouts.schedule(() -> {
+            if (Deadline.cancel(thread, "job timeout of job " + job.getKey() + " passed")) {
+                LOGGER.warn("Cancelled EDC workflow of job {}, its job timeout passed", job.getKey());
+            }
+        }, Math.max(0, job.getDeadline() - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+        try {
+            handler.handle(client, job);
+            logFirstJob();
+        } catch (Exception e) {
+            LOGGER.error("Unhandled error in job {}", job.getKey(), e);
+            client.newFailCommand(job)
+                    .retries(Math.max(0, job.getRetries() - 1))
+                    .errorMessage(e.getMessage())
+                    .send();
+        } finally {
+            timeout.cancel(false);
+            runningJobs.remove(thread);
+            activeJobs.release();
+        }
+    }
+
+    /**
+     * Log the time from process start to the first handled job, once per process. This is the
+     * figure fast-start packaging (AppCDS, native image) improves.
+     */
+    public static void logFirstJob() {
+        if (FIRST_JOB_DONE.compareAndSet(false, true)) {
+            ProcessHandle.current().info().startInstant().ifPresent(start -> LOGGER.info(
+                    "First job handled {} ms after process start", Duration.between(start, Instant.now()).toMillis()));
+        }
+    }
+
+    public int getActiveJobs() {
+        return maxActiveJobs - activeJobs.availablePermits();
+    }
+
+    @Override
+    public void close() {
+        workers.forEach(JobWorker::close);
+        workers.clear();
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(jobTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                runningJobs.forEach(thread -> Deadline.cancel(thread, "runtime shutting down"));
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            runningJobs.forEach(thread -> Deadline.cancel(thread, "runtime shutting down"));
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        } finally {
+            jobTimeouts.shutdownNow();
+        }
+    }
+
+    /**
+     * Starts the runtime. The Zeebe connection is configured through the standard ZEEBE_*
+     * environment variables (e.g. ZEEBE_GRPC_ADDRESS, ZEEBE_INSECURE_CONNECTION).
+     */
+    public static void main(String[] args) throws InterruptedException {
+        ZeebeClient zeebeClient = ZeebeClient.newClientBuilder().build();
+        EdcConnectorRuntime runtime = new EdcConnectorRuntime(
+                zeebeClient,
+                discoverConnectors(),
+                EdcConnectorSettings.getInt("edc.runtime.max-active-jobs", 1000),
+                EdcConnectorSettings.getInt("edc.runtime.activation-buffer", 32),
+                EdcConnectorSettings.getDuration("edc.runtime.job-timeout", Duration.ofMinutes(5))
+        );
+
+        CountDownLatch stopped = new CountDownLatch(1);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            runtime.close();
+            zeebeClient.close();
+            stopped.countDown();
+        }));
+
+        runtime.start();
+        stopped.await();
+    }
+}
@@ -0,0 +1,14 @@
+package io.camunda.connector.edc.runtime;
+
+import io.camunda.connector.api.secret.SecretProvider;
+
+/**
+ * Resolves {{secrets.NAME}} placeholders from environment variables
+ */
+public class EnvironmentSecretProvider implements SecretProvider {
+
+    @Override
+    public String getSecret(String name) {
+        return System.getenv(name);
+    }
+}
@@ -0,0 +1,172 @@
+package io.camunda.connector.edc.runtime.training;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+
+/**
+ * Minimal in-process stand-in for an EDC control and data plane.
+ *
+ * Implements the Management API calls of the connector workflow: catalog requests, creating
+ * and querying negotiations and transfers, and termination. Negotiations are finalized and
+ * transfers started right away. The data plane serves a payload per asset ID: "json", "csv",
+ * "ndjson" and "text" select the Content-Type.
+ */
+public class EdcStub implements AutoCloseable {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final String MANAGEMENT_PATH = "/api/management";
+    private static final String PUBLIC_PATH = "/public/";
+    private static final List<String> ASSETS = List.of("json", "csv", "ndjson", "text");
+
+    private final HttpServer server;
+    private final Map<String, String> transferAssets = new ConcurrentHashMap<>();
+
+    private EdcStub(HttpServer server) {
+        this.server = server;
+    }
+
+    public static EdcStub start() throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        EdcStub stub = new EdcStub(server);
+        server.createContext(MANAGEMENT_PATH, stub::handleManagement);
+        server.createContext(PUBLIC_PATH, stub::handleData);
+        server.setExecutor(Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "edc-stub");
+            thread.setDaemon(true);
+            return thread;
+        }));
+        server.start();
+        return stub;
+    }
+
+    public String getManagementUrl() {
+        return baseUrl() + MANAGEMENT_PATH;
+    }
+
+    public String getProviderUrl() {
+        return baseUrl();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    private String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    private void handleManagement(HttpExchange exchange) throws IOException {
+        try {
+            String path = exchange.getRequestURI().getPath().substring(MANAGEMENT_PATH.length());
+            JsonNode body = "POST".equals(exchange.getRequestMethod())
+                    ? MAPPER.readTree(exchange.getRequestBody()) : MAPPER.nullNode();
+
+            if (path.equals("/v3/catalog/request")) {
+                // Filtered on one asset ID, on a list of them for batched lookups, or paged over all assets
+                JsonNode assetIds = body.at("/querySpec/filterExpression/operandRight");
+                if (assetIds.isMissingNode()) {
+                    int offset = body.at("/querySpec/offset").asInt(0);
+                    int limit = body.at("/querySpec/limit").asInt(50);
+                    assetIds = MAPPER.createArrayNode();
+                    for (int i = offset; i < Math.min(ASSETS.size(), offset + limit); i++) {
+                        ((ArrayNode) assetIds).add(ASSETS.get(i));
+                    }
+                }
+                StringBuilder datasets = new StringBuilder();
+                for (JsonNode assetId : assetIds.isArray() ? assetIds : MAPPER.createArrayNode().add(assetIds)) {
+                    datasets.append(datasets.length() == 0 ? "" : ",").append(dataset(assetId.asText()));
+                }
+                send(exchange, 200, "application/json", "{\"dcat:dataset\":[" + datasets + "]}");
+            } else if (path.equals("/v3/contractnegotiations")) {
+                send(exchange, 200, "application/json", "{\"@id\":\"negotiation-" + UUID.randomUUID() + "\"}");
+            } else if (path.equals("/v3/transferprocesses")) {
+                String transferId = "transfer-" + UUID.randomUUID();
+                transferAssets.put(transferId, body.path("assetId").asText("json"));
+                send(exchange, 200, "application/json", "{\"@id\":\"" + transferId + "\"}");
+            } else if (path.equals("/v3/contractnegotiations/request")) {
+                send(exchange, 200, "application/json", states(body, this::negotiation));
+            } else if (path.equals("/v3/transferprocesses/request")) {
+                send(exchange, 200, "application/json", states(body, this::transfer));
+            } else if (path.endsWith("/terminate")) {
+                send(exchange, 204, null, null);
+            } else if (path.startsWith("/v3/transferprocesses/")) {
+                send(exchange, 200, "application/json", transfer(path.substring("/v3/transferprocesses/".length())));
+            } else {
+                send(exchange, 404, "application/json", "{}");
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void handleData(HttpExchange exchange) throws IOException {
+        try {
+            String assetId = exchange.getRequestURI().getPath().substring(PUBLIC_PATH.length());
+            switch (assetId) {
+                case "csv" -> send(exchange, 200, "text/csv; charset=utf-8", "id,name\n1,alpha\n2,beta\n");
+                case "ndjson" -> send(exchange, 200, "application/x-ndjson", "{\"id\":1}\n{\"id\":2}\n");
+                case "text" -> send(exchange, 200, "text/plain; charset=utf-8", "training payload");
+                default -> send(exchange, 200, "application/json", "{\"id\":1,\"items\":[{\"name\":\"alpha\"}]}");
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * Answer a /request query filtered on IDs with the state of each ID
+     */
+    private String states(JsonNode querySpec, Function<String, String> state) {
+        StringBuilder result = new StringBuilder("[");
+        for (JsonNode id : querySpec.at("/filterExpression/0/operandRight")) {
+            if (result.length() > 1) {
+                result.append(',');
+            }
+            result.append(state.apply(id.asText()));
+        }
+        return result.append(']').toString();
+    }
+
+    private String dataset(String assetId) {
+        return "{\"@id\":\"" + assetId + "\",\"odrl:hasPolicy\":{\"@id\":\"offer-" + assetId
+                + "\",\"@type\":\"odrl:Offer\"}}";
+    }
+
+    private String negotiation(String id) {
+        return "{\"@id\":\"" + id + "\",\"state\":\"FINALIZED\",\"contractAgreementId\":\"agreement-" + id
+                + "\",\"createdAt\":" + System.currentTimeMillis() + "}";
+    }
+
+    private String transfer(String id) {
+        return "{\"@id\":\"" + id + "\",\"state\":\"STARTED\",\"dataAddress\":{\"endpoint\":\"" + baseUrl()
+                + PUBLIC_PATH + transferAssets.getOrDefault(id, "json") + "\",\"authorization\":\"training\"}}";
+    }
+
+    private static void send(HttpExchange exchange, int status, String contentType, String body) throws IOException {
+        if (body == null) {
+            exchange.sendResponseHeaders(status, -1);
+            return;
+        }
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", contentType);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package io.camunda.connector.edc.runtime.training;
+
+import com.example.connector.EdcConnectorInput;
+import io.camunda.connector.api.annotation.OutboundConnector;
+import io.camunda.connector.edc.EdcConnectorFunction;
+import io.camunda.connector.edc.runtime.EdcConnectorRuntime;
+import io.camunda.connector.runtime.core.ConnectorsObjectMapperSupplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Training workload for the AppCDS archive of the runtime, also used to measure time to first job.
+ *
+ * Runs complete EDC workflows against the embedded {@link EdcStub} as Zeebe jobs: the jobs are
+ * handed to the workers of {@link EdcConnectorRuntime} through a {@link TrainingZeebeClient},
+ * so the connector job handler binds the variables, maps the result and completes the job as
+ * in production. The payloads cover the JSON, CSV, NDJSON and text decoders. The first round
+ * runs a single job so the runtime logs the time to first job; the second runs all payload
+ * types concurrently.
+ */
+public final class TrainingRun {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TrainingRun.class);
+    private static final List<String> ASSETS = List.of("json", "csv", "ndjson", "text");
+    private static final String JOB_TYPE = EdcConnectorFunction.class.getAnnotation(OutboundConnector.class).type();
+    private static final Map<String, String> HEADERS = Map.of("resultVariable", "edcResult");
+    private static final Duration JOB_TIMEOUT = Duration.ofMinutes(1);
+
+    private TrainingRun() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        TrainingZeebeClient zeebe = new TrainingZeebeClient();
+
+        try (EdcStub stub = EdcStub.start();
+             EdcConnectorRuntime runtime = new EdcConnectorRuntime(zeebe.client(),
+                     EdcConnectorRuntime.discoverConnectors(), ASSETS.size(), ASSETS.size(), JOB_TIMEOUT)) {
+            runtime.start();
+
+            long start = System.nanoTime();
+            runJob(zeebe, stub, "json");
+            LOGGER.info("First EDC job took {} ms", Duration.ofNanos(System.nanoTime() - start).toMillis());
+
+            List<CompletableFuture<String>> jobs = new ArrayList<>();
+            for (String assetId : ASSETS) {
+                jobs.add(zeebe.activate(JOB_TYPE, variables(stub, assetId), HEADERS, JOB_TIMEOUT));
+            }
+            for (CompletableFuture<String> job : jobs) {
+                job.get(JOB_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+            }
+
+            // The legacy connector shares the job type, load its bindings as well
+            ConnectorsObjectMapperSupplier.getCopy().readValue(variables(stub, "json"), EdcConnectorInput.class);
+        }
+        LOGGER.info("Training run finished");
+        System.exit(0);
+    }
+
+    private static String runJob(TrainingZeebeClient zeebe, EdcStub stub, String assetId) throws Exception {
+        return zeebe.activate(JOB_TYPE, variables(stub, assetId), HEADERS, JOB_TIMEOUT)
+                .get(JOB_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private static String variables(EdcStub stub, String assetId) {
+        return "{\"edcManagementUrl\":\"" + stub.getManagementUrl() + "\","
+                + "\"providerUrl\":\"" + stub.getProviderUrl() + "\","
+                + "\"providerDid\":\"did:web:training\","
+                + "\"assetId\":\"" + assetId + "\","
+                + "\"authentication\":{\"type\":\"none\"},"
+                + "\"timeout\":30}";
+    }
+}
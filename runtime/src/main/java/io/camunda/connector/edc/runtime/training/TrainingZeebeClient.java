@@ -0,0 +1,186 @@
+package io.camunda.connector.edc.runtime.training;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.camunda.zeebe.client.ZeebeClient;
+import io.camunda.zeebe.client.api.ZeebeFuture;
+import io.camunda.zeebe.client.api.response.ActivatedJob;
+import io.camunda.zeebe.client.api.worker.JobClient;
+import io.camunda.zeebe.client.api.worker.JobHandler;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Zeebe client for the training run that needs no broker.
+ *
+ * Workers opened through it are kept by job type, and {@link #activate} hands a job to the
+ * worker's handler like the job poller of a real client would. The complete, fail and throw
+ * error commands of the job resolve the future returned by {@link #activate}. All other calls
+ * return stubs, so the runtime and the connector job handler run unchanged.
+ */
+final class TrainingZeebeClient {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final Map<String, JobHandler> handlers = new ConcurrentHashMap<>();
+    private final Map<Long, CompletableFuture<String>> outcomes = new ConcurrentHashMap<>();
+    private final AtomicLong jobKeys = new AtomicLong();
+
+    ZeebeClient client() {
+        return stub(ZeebeClient.class, new Chain(null, 0));
+    }
+
+    /**
+     * Activate a job for the worker of the job type; the future completes with the variables
+     * of the complete command, or exceptionally when the job is failed or an error is thrown
+     */
+    CompletableFuture<String> activate(String jobType, String variables, Map<String, String> headers,
+                                       Duration timeout) throws Exception {
+        JobHandler handler = handlers.get(jobType);
+        if (handler == null) {
+            throw new IllegalStateException("No worker opened for job type " + jobType);
+        }
+        long key = jobKeys.incrementAndGet();
+        CompletableFuture<String> outcome = new CompletableFuture<>();
+        outcomes.put(key, outcome);
+        handler.handle(stub(JobClient.class, new Chain(null, 0)), job(key, jobType, variables, headers, timeout));
+        return outcome;
+    }
+
+    private ActivatedJob job(long key, String jobType, String variables, Map<String, String> headers,
+                             Duration timeout) throws Exception {
+        Map<String, Object> variablesMap = MAPPER.readValue(variables, new TypeReference<>() {
+        });
+        long deadline = System.currentTimeMillis() + timeout.toMillis();
+        return stub(ActivatedJob.class, (proxy, method, args) -> switch (method.getName()) {
+            case "getKey", "getElementInstanceKey" -> key;
+            case "getType" -> jobType;
+            case "getBpmnProcessId" -> "edc-training";
+            case "getElementId" -> "edc-task";
+            case "getWorker" -> "edc-connector-runtime";
+            case "getTenantId" -> "<default>";
+            case "getCustomHeaders" -> headers;
+            case "getRetries" -> 1;
+            case "getDeadline" -> deadline;
+            case "getVariables", "toJson" -> variables;
+            case "getVariablesAsMap" -> variablesMap;
+            case "getVariable" -> variablesMap.get((String) args[0]);
+            case "getVariablesAsType" -> MAPPER.readValue(variables, (Class<?>) args[0]);
+            default -> defaultValue(proxy, method, args);
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T stub(Class<T> type, InvocationHandler answer) {
+        return (T) Proxy.newProxyInstance(TrainingZeebeClient.class.getClassLoader(), new Class<?>[]{type}, answer);
+    }
+
+    private static Object defaultValue(Object proxy, Method method, Object[] args) {
+        Class<?> type = method.getReturnType();
+        return switch (method.getName()) {
+            case "equals" -> proxy == args[0];
+            case "hashCode" -> System.identityHashCode(proxy);
+            case "toString" -> proxy.getClass().getInterfaces()[0].getSimpleName() + " stub";
+            default -> type == boolean.class ? false
+                    : type == int.class ? 0
+                    : type == long.class ? 0L
+                    : type == String.class ? ""
+                    : type == Map.class ? Map.of()
+                    : type == List.class ? List.of()
+                    : null;
+        };
+    }
+
+    /**
+     * Answers one builder chain, from newWorker() or a job command to send() or open()
+     */
+    private final class Chain implements InvocationHandler {
+
+        private final String command;
+        private final long jobKey;
+        private final Map<String, Object> arguments = new HashMap<>();
+
+        private Chain(String command, long jobKey) {
+            this.command = command;
+            this.jobKey = jobKey;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) {
+            switch (method.getName()) {
+                case "newWorker":
+                    return stub(method.getReturnType(), new Chain("worker", 0));
+                case "newCompleteCommand":
+                case "newFailCommand":
+                case "newThrowErrorCommand":
+                    long key = args[0] instanceof ActivatedJob job ? job.getKey() : (Long) args[0];
+                    return stub(method.getReturnType(), new Chain(method.getName(), key));
+                case "jobType":
+                case "variables":
+                case "errorMessage":
+                case "errorCode":
+                    arguments.put(method.getName(), args[0]);
+                    break;
+                case "handler":
+                    handlers.put((String) arguments.get("jobType"), (JobHandler) args[0]);
+                    break;
+                case "send":
+                    resolve();
+                    return future();
+                default:
+                    break;
+            }
+            Class<?> type = method.getReturnType();
+            if (type.isInterface() && method.getDeclaringClass() != Object.class) {
+                return stub(type, this);
+            }
+            return defaultValue(proxy, method, args);
+        }
+
+        private void resolve() {
+            CompletableFuture<String> outcome = command == null ? null : outcomes.remove(jobKey);
+            if (outcome == null) {
+                return;
+            }
+            if ("newCompleteCommand".equals(command)) {
+                Object variables = arguments.get("variables");
+                try {
+                    outcome.complete(variables instanceof String json ? json : MAPPER.writeValueAsString(variables));
+                } catch (Exception e) {
+                    outcome.completeExceptionally(e);
+                }
+            } else {
+                outcome.completeExceptionally(new IllegalStateException("Training job " + jobKey + " ended with "
+                        + command + ": " + arguments.getOrDefault("errorMessage", arguments.get("errorCode"))));
+            }
+        }
+
+        /**
+         * Completed ZeebeFuture, backed by a CompletableFuture
+         */
+        private ZeebeFuture<?> future() {
+            CompletableFuture<Object> done = CompletableFuture.completedFuture(null);
+            return stub(ZeebeFuture.class, (proxy, method, args) -> {
+                if (method.getName().equals("join")) {
+                    return done.join();
+                }
+                try {
+                    return CompletableFuture.class.getMethod(method.getName(), method.getParameterTypes())
+                            .invoke(done, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package io.camunda.connector.edc.runtime;
+
+import io.camunda.connector.api.annotation.OutboundConnector;
+import io.camunda.connector.api.outbound.OutboundConnectorContext;
+import io.camunda.connector.api.outbound.OutboundConnectorFunction;
+import io.camunda.zeebe.client.ZeebeClient;
+import io.camunda.zeebe.client.api.response.ProcessInstanceEvent;
+import io.camunda.zeebe.model.bpmn.Bpmn;
+import io.camunda.zeebe.model.bpmn.BpmnModelInstance;
+import io.camunda.zeebe.process.test.api.ZeebeTestEngine;
+import io.camunda.zeebe.process.test.assertions.BpmnAssert;
+import io.camunda.zeebe.process.test.extension.ZeebeProcessTest;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the standalone runtime against the in-memory Zeebe test engine
+ */
+@ZeebeProcessTest
+class EdcConnectorRuntimeTest {
+
+    private static final int INSTANCES = 20;
+    private static final int MAX_ACTIVE_JOBS = 4;
+
+    private ZeebeTestEngine engine;
+    private ZeebeClient client;
+
+    @Test
+    void shouldExecuteJobsOnVirtualThreadsWithBoundedConcurrency() throws Exception {
+        // Given
+        BpmnModelInstance process = Bpmn.createExecutableProcess("edc-runtime-test")
+                .startEvent()
+                .serviceTask("fetch", task -> task
+                        .zeebeJobType(RecordingConnector.TYPE)
+                        .zeebeTaskHeader("resultVariable", "result"))
+                .endEvent()
+                .done();
+        client.newDeployResourceCommand()
+                .addProcessModel(process, "edc-runtime-test.bpmn")
+                .send()
+                .join();
+
+        RecordingConnector connector = new RecordingConnector();
+
+        // When
+        List<ProcessInstanceEvent> instances = new ArrayList<>();
+        try (EdcConnectorRuntime runtime = new EdcConnectorRuntime(
+                client, List.of(connector), MAX_ACTIVE_JOBS, MAX_ACTIVE_JOBS, Duration.ofSeconds(30))) {
+            runtime.start();
+
+            for (int i = 0; i < INSTANCES; i++) {
+                instances.add(client.newCreateInstanceCommand()
+                        .bpmnProcessId("edc-runtime-test")
+                        .latestVersion()
+                        .send()
+                        .join());
+            }
+
+            long deadline = System.currentTimeMillis() + 30_000;
+            while (connector.executions.get() < INSTANCES && System.currentTimeMillis() < deadline) {
+                Thread.sleep(50);
+            }
+            engine.waitForIdleState(Duration.ofSeconds(5));
+        }
+
+        // Then
+        assertThat(connector.executions.get()).isEqualTo(INSTANCES);
+        assertThat(connector.virtualThreads.get()).isEqualTo(INSTANCES);
+        assertThat(connector.maxConcurrent.get()).isLessThanOrEqualTo(MAX_ACTIVE_JOBS);
+        for (ProcessInstanceEvent instance : instances) {
+            BpmnAssert.assertThat(instance).isCompleted().hasVariableWithValue("result", Map.of("done", true));
+        }
+    }
+
+    @OutboundConnector(name = "Recording Connector", inputVariables = {}, type = RecordingConnector.TYPE)
+    static class RecordingConnector implements OutboundConnectorFunction {
+
+        static final String TYPE = "io.camunda:edc-runtime-test:1";
+
+        final AtomicInteger executions = new AtomicInteger();
+        final AtomicInteger virtualThreads = new AtomicInteger();
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger maxConcurrent = new AtomicInteger();
+
+        @Override
+        public Object execute(OutboundConnectorContext context) throws Exception {
+            maxConcurrent.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                if (Thread.currentThread().isVirtual()) {
+                    virtualThreads.incrementAndGet();
+                }
+                Thread.sleep(100); // Blocking wait like an EDC state poll
+                return Map.of("done", true);
+            } finally {
+                running.decrementAndGet();
+                executions.incrementAndGet();
+            }
+        }
+    }
+}
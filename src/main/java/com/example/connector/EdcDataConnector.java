@@ -3,7 +3,13 @@ package com.example.connector;
 import io.camunda.connector.api.annotation.OutboundConnector;
 import io.camunda.connector.api.outbound.OutboundConnectorContext;
 import io.camunda.connector.api.outbound.OutboundConnectorFunction;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.camunda.connector.edc.model.management.CatalogResponse;
+import io.camunda.connector.edc.model.management.ContractNegotiationState;
+import io.camunda.connector.edc.model.management.IdResponse;
+import io.camunda.connector.edc.model.management.ManagementApiJson;
+import io.camunda.connector.edc.model.management.TransferProcessState;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -32,7 +38,7 @@ import java.util.List;
 public class EdcDataConnector implements OutboundConnectorFunction {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(EdcDataConnector.class);
-    private static final ObjectMapper objectMapper = new ObjectMapper();
+    private static final ObjectMapper objectMapper = ManagementApiJson.MAPPER;
     private final HttpClient httpClient;
 
     public EdcDataConnector() {
@@ -55,7 +61,7 @@ public class EdcDataConnector implements OutboundConnectorFunction {
             LOGGER.debug("Catalog response: {}", catalogResponse);
             
             // Step 2: Find the specific dataset in the catalog
-            Map<String, Object> dataset = findDatasetInCatalog(catalogResponse, input.getAssetId());
+            CatalogResponse.Dataset dataset = findDatasetInCatalog(catalogResponse, input.getAssetId());
             if (dataset == null) {
                 throw new RuntimeException("Asset " + input.getAssetId() + " not found in catalog");
             }
@@ -87,6 +93,10 @@ public class EdcDataConnector implements OutboundConnectorFunction {
             return result;
             
         } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                // Keep the interrupt visible to the runtime, polling has already stopped
+                Thread.currentThread().interrupt();
+            }
             LOGGER.error("Error executing EDC connector", e);
             EdcConnectorResult errorResult = new EdcConnectorResult();
             errorResult.setSuccess(false);
@@ -144,18 +154,16 @@ public class EdcDataConnector implements OutboundConnectorFunction {
     /**
      * Find a specific dataset in the catalog response
      */
-    @SuppressWarnings("unchecked")
-    private Map<String, Object> findDatasetInCatalog(String catalogJson, String assetId) throws Exception {
-        Map<String, Object> catalog = objectMapper.readValue(catalogJson, Map.class);
+    private CatalogResponse.Dataset findDatasetInCatalog(String catalogJson, String assetId) throws Exception {
+        CatalogResponse catalog = ManagementApiJson.CATALOG_READER.readValue(catalogJson);
         
-        List<Map<String, Object>> datasets = (List<Map<String, Object>>) catalog.get("dcat:dataset");
+        List<CatalogResponse.Dataset> datasets = catalog.datasets();
         if (datasets == null || datasets.isEmpty()) {
             return null;
         }
         
-        for (Map<String, Object> dataset : datasets) {
-            String datasetId = (String) dataset.get("@id");
-            if (assetId.equals(datasetId)) {
+        for (CatalogResponse.Dataset dataset : datasets) {
+            if (assetId.equals(dataset.id())) {
                 return dataset;
             }
         }
@@ -166,13 +174,12 @@ public class EdcDataConnector implements OutboundConnectorFunction {
     /**
      * Initiate contract negotiation
      */
-    @SuppressWarnings("unchecked")
-    private String initiateContractNegotiation(EdcConnectorInput input, Map<String, Object> dataset) throws Exception {
+    private String initiateContractNegotiation(EdcConnectorInput input, CatalogResponse.Dataset dataset) throws Exception {
         String endpoint = input.getEdcManagementUrl() + "/v3/contractnegotiations";
 
         // Extract offer from dataset
-        Map<String, Object> offer = (Map<String, Object>) dataset.get("odrl:hasPolicy");
-        String offerId = (String) offer.get("@id");
+        JsonNode offer = dataset.policies().get(0);
+        String offerId = offer.path("@id").asText();
 
         // Build counter party address with DSP endpoint
         String counterPartyAddress = input.getProviderUrl();
@@ -207,14 +214,13 @@ public class EdcDataConnector implements OutboundConnectorFunction {
             throw new RuntimeException("Contract negotiation failed: " + response.statusCode() + " - " + response.body());
         }
         
-        Map<String, Object> responseBody = objectMapper.readValue(response.body(), Map.class);
-        return (String) responseBody.get("@id");
+        IdResponse created = ManagementApiJson.ID_READER.readValue(response.body());
+        return created.id();
     }
 
     /**
      * Wait for contract negotiation to complete
      */
-    @SuppressWarnings("unchecked")
     private String waitForNegotiationCompletion(EdcConnectorInput input, String negotiationId) throws Exception {
         String endpoint = input.getEdcManagementUrl() + "/v3/contractnegotiations/" + negotiationId;
         
@@ -228,16 +234,16 @@ public class EdcDataConnector implements OutboundConnectorFunction {
                 .GET()
                 .build();
                 
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
             
             if (response.statusCode() == 200) {
-                Map<String, Object> negotiation = objectMapper.readValue(response.body(), Map.class);
-                String state = (String) negotiation.get("state");
+                ContractNegotiationState negotiation = ManagementApiJson.NEGOTIATION_READER.readValue(response.body());
+                String state = negotiation.state();
                 
                 LOGGER.debug("Negotiation state: {}", state);
                 
                 if ("FINALIZED".equals(state)) {
-                    return (String) negotiation.get("contractAgreementId");
+                    return negotiation.contractAgreementId();
                 } else if ("TERMINATED".equals(state)) {
                     throw new RuntimeException("Contract negotiation terminated");
                 }
@@ -290,14 +296,13 @@ public class EdcDataConnector implements OutboundConnectorFunction {
             throw new RuntimeException("Transfer initiation failed: " + response.statusCode() + " - " + response.body());
         }
         
-        Map<String, Object> responseBody = objectMapper.readValue(response.body(), Map.class);
-        return (String) responseBody.get("@id");
+        IdResponse created = ManagementApiJson.ID_READER.readValue(response.body());
+        return created.id();
     }
 
     /**
      * Wait for transfer to complete and retrieve data
      */
-    @SuppressWarnings("unchecked")
     private String waitForTransferAndGetData(EdcConnectorInput input, String transferProcessId) throws Exception {
         String endpoint = input.getEdcManagementUrl() + "/v3/transferprocesses/" + transferProcessId;
         
@@ -314,20 +319,20 @@ public class EdcDataConnector implements OutboundConnectorFunction {
                 .GET()
                 .build();
                 
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
             
             if (response.statusCode() == 200) {
-                Map<String, Object> transferProcess = objectMapper.readValue(response.body(), Map.class);
-                String state = (String) transferProcess.get("state");
+                TransferProcessState transferProcess = ManagementApiJson.TRANSFER_READER.readValue(response.body());
+                String state = transferProcess.state();
                 
                 LOGGER.debug("Transfer state: {}", state);
                 
                 if ("STARTED".equals(state)) {
                     // Extract data plane URL and auth token
-                    Map<String, Object> dataAddress = (Map<String, Object>) transferProcess.get("dataAddress");
+                    TransferProcessState.DataAddress dataAddress = transferProcess.dataAddress();
                     if (dataAddress != null) {
-                        dataPlaneUrl = (String) dataAddress.get("endpoint");
-                        authToken = (String) dataAddress.get("authorization");
+                        dataPlaneUrl = dataAddress.endpoint();
+                        authToken = dataAddress.authorization();
                     }
                     break;
                 } else if ("TERMINATED".equals(state)) {
@@ -0,0 +1,142 @@
+package io.camunda.connector.edc;
+
+import io.camunda.connector.api.annotation.InboundConnector;
+import io.camunda.connector.api.inbound.CorrelationResult;
+import io.camunda.connector.api.inbound.Health;
+import io.camunda.connector.api.inbound.InboundConnectorContext;
+import io.camunda.connector.api.inbound.InboundConnectorExecutable;
+import io.camunda.connector.edc.config.EdcConnectorSettings;
+import io.camunda.connector.edc.model.CatalogChangeEvent;
+import io.camunda.connector.edc.model.CatalogWatchProperties;
+import io.camunda.connector.edc.model.EdcConnectorRequest;
+import io.camunda.connector.edc.service.CatalogWatcher;
+import io.camunda.connector.edc.service.Deadline;
+import io.camunda.connector.edc.service.EdcService;
+import io.micrometer.core.instrument.Metrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * EDC Catalog Watcher for Camunda 8.8
+ *
+ * Polls a provider's catalog and starts or correlates a process for every dataset that was
+ * added, changed or removed since the previous poll, instead of a timer that runs the whole
+ * outbound workflow just to look at the catalog.
+ */
+@InboundConnector(
+    name = "EDC Catalog Watcher",
+    type = "io.camunda:edc-catalog-watcher:1"
+)
+public class EdcCatalogWatcherConnector implements InboundConnectorExecutable<InboundConnectorContext> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(EdcCatalogWatcherConnector.class);
+    private static final Duration MIN_POLL_TIMEOUT = Duration.ofSeconds(60);
+
+    private final EdcService edcService;
+    private InboundConnectorContext context;
+    private ScheduledExecutorService scheduler;
+
+    public EdcCatalogWatcherConnector() {
+        this(EdcService.shared());
+    }
+
+    // Constructor for testing
+    public EdcCatalogWatcherConnector(EdcService edcService) {
+        this.edcService = edcService;
+    }
+
+    @Override
+    public void activate(InboundConnectorContext context) throws Exception {
+        this.context = context;
+        CatalogWatchProperties properties = context.bindProperties(CatalogWatchProperties.class);
+        LOGGER.info("Activating EDC Catalog Watcher: {}", properties);
+        properties.validate();
+
+        Path snapshotFile = snapshotFile(properties.getSnapshotFile());
+        EdcConnectorRequest request = properties.toRequest();
+        CatalogWatcher watcher = new CatalogWatcher(
+                properties.getProviderDid(),
+                (offset, limit, deadline) -> edcService.openCatalogPage(request, offset, limit, deadline),
+                this::correlate,
+                properties.getPageSize(),
+                properties.getReportExisting(),
+                snapshotFile,
+                Metrics.globalRegistry);
+
+        Duration interval = Duration.ofSeconds(properties.getPollInterval());
+        Duration timeout = interval.compareTo(MIN_POLL_TIMEOUT) > 0 ? interval : MIN_POLL_TIMEOUT;
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "edc-catalog-watcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(() -> poll(watcher, properties.getProviderDid(), timeout),
+                0, interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void deactivate() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+        LOGGER.info("Deactivated EDC Catalog Watcher");
+    }
+
+    private void poll(CatalogWatcher watcher, String providerDid, Duration timeout) {
+        try {
+            CatalogWatcher.PollResult result = watcher.poll(Deadline.after(timeout));
+            LOGGER.info("Catalog of {} has {} dataset(s): {} added, {} changed, {} removed, {} to be retried",
+                    providerDid, result.datasets(), result.added(), result.changed(), result.removed(),
+                    result.undelivered());
+            context.reportHealth(Health.up());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            // The next poll retries, changes not delivered yet are still pending
+            LOGGER.warn("Polling the catalog of {} failed: {}", providerDid, e.toString());
+            context.reportHealth(Health.down(e));
+        }
+    }
+
+    /**
+     * Snapshot file within the payload directory, null to keep the snapshot in memory. Process
+     * models must not make the runtime write elsewhere, so absolute paths and paths leaving the
+     * directory are rejected.
+     */
+    static Path snapshotFile(String name) {
+        if (name == null || name.isBlank()) {
+            return null;
+        }
+        Path directory = EdcConnectorSettings.payloadDirectory().toAbsolutePath().normalize();
+        Path file = directory.resolve(name.trim()).normalize();
+        if (Path.of(name.trim()).isAbsolute() || !file.startsWith(directory) || file.equals(directory)) {
+            throw new IllegalArgumentException(
+                    "Snapshot file must be a file name or relative path within the payload directory. Got: " + name);
+        }
+        return file;
+    }
+
+    /**
+     * Start or correlate a process with the change
+     *
+     * @return false if the change has to be reported again
+     */
+    private boolean correlate(CatalogChangeEvent event) {
+        CorrelationResult result = context.correlateWithResult(event);
+        if (result instanceof CorrelationResult.Failure.ActivationConditionNotMet) {
+            LOGGER.debug("Activation condition not met by {}", event);
+            return true;
+        }
+        if (result instanceof CorrelationResult.Failure failure) {
+            LOGGER.warn("Correlating {} failed: {}", event, failure.message());
+            return false;
+        }
+        return true;
+    }
+}
@@ -1,14 +1,21 @@
 package io.camunda.connector.edc;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.camunda.connector.api.annotation.OutboundConnector;
+import io.camunda.connector.api.error.ConnectorException;
 import io.camunda.connector.api.outbound.OutboundConnectorContext;
 import io.camunda.connector.api.outbound.OutboundConnectorFunction;
+import io.camunda.connector.edc.config.EdcConnectorSettings;
 import io.camunda.connector.edc.model.EdcConnectorRequest;
 import io.camunda.connector.edc.model.EdcConnectorResponse;
+import io.camunda.connector.edc.service.Deadline;
 import io.camunda.connector.edc.service.EdcService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.time.Duration;
+import java.util.Map;
+
 /**
  * EDC Connector for Camunda 8.8
  * 
@@ -20,17 +27,25 @@ import org.slf4j.LoggerFactory;
  */
 @OutboundConnector(
     name = "EDC Connector",
-    inputVariables = {"edcManagementUrl", "assetId", "providerUrl", "providerDid", "authentication"},
+    inputVariables = {"edcManagementUrl", "edcManagementUrls", "assetId", "providerUrl", "providerDid", "authentication",
+        "timeout", "lane", "priority", "transferMode", "jsonHandling", "binaryHandling", "maxRecords", "maxRecordSize", "cacheMaxAge",
+        "diagnostics"},
     type = "io.camunda:edc-connector:1"
 )
 public class EdcConnectorFunction implements OutboundConnectorFunction {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(EdcConnectorFunction.class);
+    private static final ObjectMapper DIAGNOSTICS_MAPPER = new ObjectMapper();
     
     private final EdcService edcService;
 
     public EdcConnectorFunction() {
-        this.edcService = new EdcService();
+        this.edcService = EdcService.shared();
+        if (EdcConnectorSettings.getBoolean("edc.connector.warmup.enabled", false)) {
+            edcService.warmUp(
+                EdcConnectorSettings.getList("edc.connector.warmup.management-urls"),
+                EdcConnectorSettings.getDuration("edc.connector.warmup.timeout", Duration.ofSeconds(10)));
+        }
     }
 
     // Constructor for testing
@@ -51,9 +66,11 @@ public class EdcConnectorFunction implements OutboundConnectorFunction {
         // Validate request
         request.validate();
         
+        // A single budget covers every HTTP call and poll wait of this workflow
+        Deadline deadline = Deadline.after(Duration.ofSeconds(request.getTimeout()));
         try {
             // Execute the EDC workflow
-            EdcConnectorResponse response = edcService.executeEdcWorkflow(request);
+            EdcConnectorResponse response = edcService.executeEdcWorkflow(request, deadline);
             
             LOGGER.info("EDC Connector execution completed successfully. Transfer ID: {}", 
                 response.getTransferId());
@@ -62,7 +79,13 @@ public class EdcConnectorFunction implements OutboundConnectorFunction {
             
         } catch (Exception e) {
             LOGGER.error("Error executing EDC connector", e);
-            throw new RuntimeException("Failed to retrieve data from EDC: " + e.getMessage(), e);
+            String message = "Failed to retrieve data from EDC: " + e.getMessage();
+            if (Boolean.TRUE.equals(request.getDiagnostics())) {
+                // Error expressions read the stages up to the failure as error.variables.diagnostics
+                throw new ConnectorException(null, message, e, Map.of("diagnostics",
+                        DIAGNOSTICS_MAPPER.convertValue(deadline.diagnostics(), Map.class)));
+            }
+            throw new RuntimeException(message, e);
         }
     }
 }
@@ -0,0 +1,91 @@
+package io.camunda.connector.edc.config;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runtime-wide settings for the EDC Connector.
+ *
+ * Settings apply to the whole connector runtime rather than to a single job, so they are
+ * read from JVM system properties (e.g. -Dedc.connector.payload.dir=/data) and fall back to
+ * environment variables (e.g. EDC_CONNECTOR_PAYLOAD_DIR=/data).
+ */
+public final class EdcConnectorSettings {
+
+    private EdcConnectorSettings() {
+    }
+
+    /**
+     * Directory where payloads are written when they are returned as file references
+     */
+    public static Path payloadDirectory() {
+        return Path.of(getString("edc.connector.payload.dir", System.getProperty("java.io.tmpdir")));
+    }
+
+    public static String getString(String key, String defaultValue) {
+        String value = System.getProperty(key);
+        if (value == null || value.isBlank()) {
+            value = System.getenv(toEnvName(key));
+        }
+        return value == null || value.isBlank() ? defaultValue : value.trim();
+    }
+
+    public static int getInt(String key, int defaultValue) {
+        String value = getString(key, null);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Setting " + key + " must be an integer. Got: " + value, e);
+        }
+    }
+
+    public static long getLong(String key, long defaultValue) {
+        String value = getString(key, null);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Setting " + key + " must be a number. Got: " + value, e);
+        }
+    }
+
+    public static boolean getBoolean(String key, boolean defaultValue) {
+        String value = getString(key, null);
+        return value == null ? defaultValue : Boolean.parseBoolean(value);
+    }
+
+    /**
+     * Durations are configured in milliseconds
+     */
+    public static Duration getDuration(String key, Duration defaultValue) {
+        String value = getString(key, null);
+        return value == null ? defaultValue : Duration.ofMillis(getLong(key, defaultValue.toMillis()));
+    }
+
+    /**
+     * Lists are configured as comma separated values
+     */
+    public static List<String> getList(String key) {
+        List<String> values = new ArrayList<>();
+        String value = getString(key, null);
+        if (value != null) {
+            for (String item : value.split(",")) {
+                if (!item.isBlank()) {
+                    values.add(item.trim());
+                }
+            }
+        }
+        return values;
+    }
+
+    static String toEnvName(String key) {
+        return key.toUpperCase().replace('.', '_').replace('-', '_');
+    }
+}
@@ -0,0 +1,33 @@
+package io.camunda.connector.edc.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Catalog request for one asset sent to the consumer control plane
+ */
+@Name("io.camunda.connector.edc.CatalogQuery")
+@Label("EDC Catalog Query")
+@Category({"EDC Connector", "Workflow"})
+@Description("Catalog request of an EDC workflow")
+@StackTrace(false)
+public class CatalogQueryEvent extends Event {
+
+    @Label("Asset ID")
+    public String assetId;
+
+    @Label("Provider")
+    public String provider;
+
+    @Label("HTTP Status")
+    public int httpStatus;
+
+    @Label("Response Size")
+    @DataAmount
+    public long bytes;
+}
@@ -0,0 +1,36 @@
+package io.camunda.connector.edc.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Download and decoding of the payload from the provider data plane
+ */
+@Name("io.camunda.connector.edc.DataFetch")
+@Label("EDC Data Fetch")
+@Category({"EDC Connector", "Workflow"})
+@Description("Payload download from the data plane, including decoding")
+@StackTrace(false)
+public class DataFetchEvent extends Event {
+
+    @Label("Asset ID")
+    public String assetId;
+
+    @Label("Provider")
+    public String provider;
+
+    @Label("HTTP Status")
+    public int httpStatus;
+
+    @Label("Content Type")
+    public String contentType;
+
+    @Label("Payload Size")
+    @DataAmount
+    public long bytes;
+}
@@ -0,0 +1,31 @@
+package io.camunda.connector.edc.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Contract negotiation from its creation until it is finalized or fails
+ */
+@Name("io.camunda.connector.edc.Negotiation")
+@Label("EDC Contract Negotiation")
+@Category({"EDC Connector", "Workflow"})
+@Description("Contract negotiation of an EDC workflow, including the wait for its final state")
+@StackTrace(false)
+public class NegotiationEvent extends Event {
+
+    @Label("Asset ID")
+    public String assetId;
+
+    @Label("Provider")
+    public String provider;
+
+    @Label("Negotiation ID")
+    public String negotiationId;
+
+    @Label("Succeeded")
+    public boolean succeeded;
+}
@@ -0,0 +1,32 @@
+package io.camunda.connector.edc.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One bulk state query of the shared state poller
+ */
+@Name("io.camunda.connector.edc.PollIteration")
+@Label("EDC Poll Iteration")
+@Category({"EDC Connector", "Polling"})
+@Description("Bulk query of negotiation or transfer states for all waiting workflows")
+@StackTrace(false)
+public class PollIterationEvent extends Event {
+
+    @Label("Resource")
+    @Description("negotiation or transfer")
+    public String resource;
+
+    @Label("Polled IDs")
+    public int ids;
+
+    @Label("Settled IDs")
+    public int settled;
+
+    @Label("Succeeded")
+    public boolean succeeded;
+}
@@ -0,0 +1,34 @@
+package io.camunda.connector.edc.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Transfer process from its creation until its data has been received
+ */
+@Name("io.camunda.connector.edc.Transfer")
+@Label("EDC Transfer")
+@Category({"EDC Connector", "Workflow"})
+@Description("Transfer of an EDC workflow, from its creation until the data has been received")
+@StackTrace(false)
+public class TransferEvent extends Event {
+
+    @Label("Asset ID")
+    public String assetId;
+
+    @Label("Provider")
+    public String provider;
+
+    @Label("Transfer ID")
+    public String transferId;
+
+    @Label("Transfer Mode")
+    public String transferMode;
+
+    @Label("Succeeded")
+    public boolean succeeded;
+}
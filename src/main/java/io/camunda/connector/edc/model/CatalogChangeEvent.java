@@ -0,0 +1,110 @@
+package io.camunda.connector.edc.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * A dataset added to, changed in or removed from a provider's catalog, as reported by the
+ * EDC Catalog Watcher
+ */
+public class CatalogChangeEvent {
+
+    public static final String ADDED = "added";
+    public static final String CHANGED = "changed";
+    public static final String REMOVED = "removed";
+
+    @JsonProperty("change")
+    private String change; // added, changed or removed
+
+    @JsonProperty("assetId")
+    private String assetId;
+
+    @JsonProperty("providerDid")
+    private String providerDid;
+
+    @JsonProperty("hash")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String hash; // Hex encoded SHA-256 of the asset ID and its policies, absent when removed
+
+    @JsonProperty("previousHash")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String previousHash; // Absent when added
+
+    @JsonProperty("policies")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private JsonNode policies; // Offers as found in the catalog, absent when removed
+
+    public CatalogChangeEvent() {
+    }
+
+    public CatalogChangeEvent(String change, String assetId, String providerDid, String hash, String previousHash,
+                              JsonNode policies) {
+        this.change = change;
+        this.assetId = assetId;
+        this.providerDid = providerDid;
+        this.hash = hash;
+        this.previousHash = previousHash;
+        this.policies = policies;
+    }
+
+    // Getters and Setters
+    public String getChange() {
+        return change;
+    }
+
+    public void setChange(String change) {
+        this.change = change;
+    }
+
+    public String getAssetId() {
+        return assetId;
+    }
+
+    public void setAssetId(String assetId) {
+        this.assetId = assetId;
+    }
+
+    public String getProviderDid() {
+        return providerDid;
+    }
+
+    public void setProviderDid(String providerDid) {
+        this.providerDid = providerDid;
+    }
+
+    public String getHash() {
+        return hash;
+    }
+
+    public void setHash(String hash) {
+        this.hash = hash;
+    }
+
+    public String getPreviousHash() {
+        return previousHash;
+    }
+
+    public void setPreviousHash(String previousHash) {
+        this.previousHash = previousHash;
+    }
+
+    public JsonNode getPolicies() {
+        return policies;
+    }
+
+    public void setPolicies(JsonNode policies) {
+        this.policies = policies;
+    }
+
+    @Override
+    public String toString() {
+        return "CatalogChangeEvent{" +
+                "change='" + change + '\'' +
+                ", assetId='" + assetId + '\'' +
+                ", providerDid='" + providerDid + '\'' +
+                ", hash='" + hash + '\'' +
+                ", previousHash='" + previousHash + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,168 @@
+package io.camunda.connector.edc.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Properties of the EDC Catalog Watcher inbound connector
+ */
+public class CatalogWatchProperties {
+
+    @JsonProperty("edcManagementUrl")
+    private String edcManagementUrl;
+
+    @JsonProperty("providerUrl")
+    private String providerUrl;
+
+    @JsonProperty("providerDid")
+    private String providerDid;
+
+    @JsonProperty("authentication")
+    private EdcConnectorRequest.Authentication authentication;
+
+    @JsonProperty("pollInterval")
+    private Integer pollInterval = 300; // Seconds between two catalog fetches
+
+    @JsonProperty("pageSize")
+    private Integer pageSize = 200; // Datasets requested per catalog page
+
+    @JsonProperty("reportExisting")
+    private Boolean reportExisting = false; // Report the datasets found by the first fetch as added
+
+    @JsonProperty("snapshotFile")
+    private String snapshotFile; // Keeps the dataset hashes across restarts, in memory only if empty
+
+    public void validate() {
+        if (edcManagementUrl == null || edcManagementUrl.trim().isEmpty()) {
+            throw new IllegalArgumentException("EDC Management URL is required");
+        }
+        if (!edcManagementUrl.startsWith("http://") && !edcManagementUrl.startsWith("https://")) {
+            throw new IllegalArgumentException(
+                "EDC Management URL must start with http:// or https://. Got: " + edcManagementUrl
+            );
+        }
+        if (!edcManagementUrl.contains("/management")) {
+            throw new IllegalArgumentException(
+                "EDC Management URL should include /management path. " +
+                "Example: http://localhost:9193/management. Got: " + edcManagementUrl
+            );
+        }
+
+        if (providerDid == null || providerDid.trim().isEmpty()) {
+            throw new IllegalArgumentException("Provider DID is required for authentication");
+        }
+
+        boolean resolveProvider = providerUrl == null || providerUrl.trim().isEmpty();
+        if (resolveProvider && !providerDid.startsWith("did:web:")) {
+            throw new IllegalArgumentException(
+                "Provider URL is required unless the Provider DID is a did:web DID to resolve it from"
+            );
+        }
+        if (!resolveProvider && !providerUrl.startsWith("http://") && !providerUrl.startsWith("https://")) {
+            throw new IllegalArgumentException(
+                "Provider URL must start with http:// or https://. Got: " + providerUrl
+            );
+        }
+
+        if (pollInterval == null || pollInterval <= 0) {
+            throw new IllegalArgumentException("Poll interval must be a positive number of seconds");
+        }
+
+        if (pageSize == null || pageSize <= 0) {
+            throw new IllegalArgumentException("Page size must be a positive number");
+        }
+
+        if (authentication != null) {
+            authentication.validate();
+        }
+    }
+
+    /**
+     * Request carrying the management API, provider and credentials of the catalog requests
+     */
+    public EdcConnectorRequest toRequest() {
+        EdcConnectorRequest request = new EdcConnectorRequest();
+        request.setEdcManagementUrl(edcManagementUrl);
+        request.setProviderUrl(providerUrl);
+        request.setProviderDid(providerDid);
+        request.setAuthentication(authentication);
+        return request;
+    }
+
+    // Getters and Setters
+    public String getEdcManagementUrl() {
+        return edcManagementUrl;
+    }
+
+    public void setEdcManagementUrl(String edcManagementUrl) {
+        this.edcManagementUrl = edcManagementUrl;
+    }
+
+    public String getProviderUrl() {
+        return providerUrl;
+    }
+
+    public void setProviderUrl(String providerUrl) {
+        this.providerUrl = providerUrl;
+    }
+
+    public String getProviderDid() {
+        return providerDid;
+    }
+
+    public void setProviderDid(String providerDid) {
+        this.providerDid = providerDid;
+    }
+
+    public EdcConnectorRequest.Authentication getAuthentication() {
+        return authentication;
+    }
+
+    public void setAuthentication(EdcConnectorRequest.Authentication authentication) {
+        this.authentication = authentication;
+    }
+
+    public Integer getPollInterval() {
+        return pollInterval;
+    }
+
+    public void setPollInterval(Integer pollInterval) {
+        this.pollInterval = pollInterval;
+    }
+
+    public Integer getPageSize() {
+        return pageSize;
+    }
+
+    public void setPageSize(Integer pageSize) {
+        this.pageSize = pageSize;
+    }
+
+    public Boolean getReportExisting() {
+        return reportExisting;
+    }
+
+    public void setReportExisting(Boolean reportExisting) {
+        this.reportExisting = reportExisting;
+    }
+
+    public String getSnapshotFile() {
+        return snapshotFile;
+    }
+
+    public void setSnapshotFile(String snapshotFile) {
+        this.snapshotFile = snapshotFile;
+    }
+
+    @Override
+    public String toString() {
+        return "CatalogWatchProperties{" +
+                "edcManagementUrl='" + edcManagementUrl + '\'' +
+                ", providerUrl='" + providerUrl + '\'' +
+                ", providerDid='" + providerDid + '\'' +
+                ", pollInterval=" + pollInterval +
+                ", pageSize=" + pageSize +
+                ", reportExisting=" + reportExisting +
+                ", snapshotFile='" + snapshotFile + '\'' +
+                '}';
+    }
+}
@@ -1,7 +1,16 @@
 package io.camunda.connector.edc.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
 import java.util.Objects;
 
 /**
@@ -12,6 +21,9 @@ public class EdcConnectorRequest {
     @JsonProperty("edcManagementUrl")
     private String edcManagementUrl;
 
+    @JsonProperty("edcManagementUrls")
+    private List<String> edcManagementUrls; // Management URLs of further control-plane replicas
+
     @JsonProperty("providerUrl")
     private String providerUrl;
 
@@ -25,38 +37,74 @@ public class EdcConnectorRequest {
     private Authentication authentication;
 
     @JsonProperty("timeout")
-    private Integer timeout = 60; // Default timeout in seconds
+    private Integer timeout = 60; // End-to-end budget for the whole workflow in seconds
+
+    @JsonProperty("lane")
+    private String lane = "default"; // Admission queue, e.g. one per tenant or process
+
+    @JsonProperty("priority")
+    private Integer priority = 0; // Higher priorities are admitted first within the lane
 
     @JsonProperty("counterPartyAddress")
     private String counterPartyAddress;
 
+    @JsonProperty("transferMode")
+    private String transferMode = "pull"; // pull (HttpData-PULL via EDR) or push (HttpData-PUSH into the local sink)
+
+    @JsonProperty("jsonHandling")
+    private String jsonHandling = "parse"; // parse (JSON tree) or raw (passed through without parsing)
+
+    @JsonProperty("binaryHandling")
+    private String binaryHandling = "base64"; // base64 or file
+
+    @JsonProperty("maxRecords")
+    private Integer maxRecords = 100000; // Maximum number of CSV/NDJSON records
+
+    @JsonProperty("maxRecordSize")
+    private Integer maxRecordSize = 1048576; // Maximum characters per CSV/NDJSON record
+
+    @JsonProperty("cacheMaxAge")
+    private Integer cacheMaxAge = 0; // Seconds a cached payload is served without any EDC call
+
+    @JsonProperty("diagnostics")
+    private Boolean diagnostics = false; // Add per-stage timings and statistics to the response
+
+    @JsonIgnore
+    private String resolvedDspAddress; // DSP endpoint resolved from the provider DID, never bound from variables
+
     public void validate() {
-        if (edcManagementUrl == null || edcManagementUrl.trim().isEmpty()) {
+        List<String> managementUrls = getManagementUrls();
+        if (managementUrls.isEmpty()) {
             throw new IllegalArgumentException("EDC Management URL is required");
         }
 
-        // Validate EDC Management URL format
-        if (!edcManagementUrl.startsWith("http://") && !edcManagementUrl.startsWith("https://")) {
-            throw new IllegalArgumentException(
-                "EDC Management URL must start with http:// or https://. Got: " + edcManagementUrl
-            );
-        }
+        for (String managementUrl : managementUrls) {
+            // Validate EDC Management URL format
+            if (!managementUrl.startsWith("http://") && !managementUrl.startsWith("https://")) {
+                throw new IllegalArgumentException(
+                    "EDC Management URL must start with http:// or https://. Got: " + managementUrl
+                );
+            }
 
-        // Check if management URL includes the /management path
-        if (!edcManagementUrl.contains("/management")) {
-            throw new IllegalArgumentException(
-                "EDC Management URL should include /management path. " +
-                "Example: http://localhost:9193/management. Got: " + edcManagementUrl +
-                "\nSee TROUBLESHOOTING.md for configuration details."
-            );
+            // Check if management URL includes the /management path
+            if (!managementUrl.contains("/management")) {
+                throw new IllegalArgumentException(
+                    "EDC Management URL should include /management path. " +
+                    "Example: http://localhost:9193/management. Got: " + managementUrl +
+                    "\nSee TROUBLESHOOTING.md for configuration details."
+                );
+            }
         }
 
         if (assetId == null || assetId.trim().isEmpty()) {
             throw new IllegalArgumentException("Asset ID is required");
         }
 
-        if (providerUrl == null || providerUrl.trim().isEmpty()) {
-            throw new IllegalArgumentException("Provider URL is required");
+        boolean resolveProvider = providerUrl == null || providerUrl.trim().isEmpty();
+        if (resolveProvider && (providerDid == null || !providerDid.startsWith("did:web:"))) {
+            throw new IllegalArgumentException(
+                "Provider URL is required unless the Provider DID is a did:web DID to resolve it from"
+            );
         }
 
         if (providerDid == null || providerDid.trim().isEmpty()) {
@@ -64,14 +112,14 @@ public class EdcConnectorRequest {
         }
 
         // Validate Provider URL format
-        if (!providerUrl.startsWith("http://") && !providerUrl.startsWith("https://")) {
+        if (!resolveProvider && !providerUrl.startsWith("http://") && !providerUrl.startsWith("https://")) {
             throw new IllegalArgumentException(
                 "Provider URL must start with http:// or https://. Got: " + providerUrl
             );
         }
 
         // Warn if provider URL includes /api/dsp (common mistake)
-        if (providerUrl.contains("/api/dsp")) {
+        if (!resolveProvider && providerUrl.contains("/api/dsp")) {
             throw new IllegalArgumentException(
                 "Provider URL should be the base URL only, without /api/dsp. " +
                 "The connector will append /api/dsp automatically. " +
@@ -81,6 +129,42 @@ public class EdcConnectorRequest {
             );
         }
 
+        if (timeout == null || timeout <= 0) {
+            throw new IllegalArgumentException("Timeout must be a positive number of seconds");
+        }
+
+        if (lane == null || lane.trim().isEmpty()) {
+            throw new IllegalArgumentException("Lane must not be empty");
+        }
+
+        if (priority == null) {
+            throw new IllegalArgumentException("Priority must be a number");
+        }
+
+        if (!"pull".equals(transferMode) && !"push".equals(transferMode)) {
+            throw new IllegalArgumentException("Transfer mode must be 'pull' or 'push'. Got: " + transferMode);
+        }
+
+        if (!"parse".equals(jsonHandling) && !"raw".equals(jsonHandling)) {
+            throw new IllegalArgumentException("JSON handling must be 'parse' or 'raw'. Got: " + jsonHandling);
+        }
+
+        if (!"base64".equals(binaryHandling) && !"file".equals(binaryHandling)) {
+            throw new IllegalArgumentException("Binary handling must be 'base64' or 'file'. Got: " + binaryHandling);
+        }
+
+        if (maxRecords == null || maxRecords <= 0) {
+            throw new IllegalArgumentException("Max records must be a positive number");
+        }
+
+        if (maxRecordSize == null || maxRecordSize <= 0) {
+            throw new IllegalArgumentException("Max record size must be a positive number");
+        }
+
+        if (cacheMaxAge == null || cacheMaxAge < 0) {
+            throw new IllegalArgumentException("Cache max age must be zero or a positive number of seconds");
+        }
+
         if (authentication != null) {
             authentication.validate();
         }
@@ -95,6 +179,33 @@ public class EdcConnectorRequest {
         this.edcManagementUrl = edcManagementUrl;
     }
 
+    public List<String> getEdcManagementUrls() {
+        return edcManagementUrls;
+    }
+
+    public void setEdcManagementUrls(List<String> edcManagementUrls) {
+        this.edcManagementUrls = edcManagementUrls;
+    }
+
+    /**
+     * All configured management URLs without duplicates, the single management URL first
+     */
+    @JsonIgnore
+    public List<String> getManagementUrls() {
+        List<String> urls = new ArrayList<>();
+        if (edcManagementUrl != null && !edcManagementUrl.trim().isEmpty()) {
+            urls.add(edcManagementUrl.trim());
+        }
+        if (edcManagementUrls != null) {
+            for (String url : edcManagementUrls) {
+                if (url != null && !url.trim().isEmpty() && !urls.contains(url.trim())) {
+                    urls.add(url.trim());
+                }
+            }
+        }
+        return urls;
+    }
+
     public String getProviderUrl() {
         return providerUrl;
     }
@@ -135,6 +246,43 @@ public class EdcConnectorRequest {
         this.timeout = timeout;
     }
 
+    public String getLane() {
+        return lane;
+    }
+
+    public void setLane(String lane) {
+        this.lane = lane;
+    }
+
+    public Integer getPriority() {
+        return priority;
+    }
+
+    public void setPriority(Integer priority) {
+        this.priority = priority;
+    }
+
+    /**
+     * DSP endpoint of the provider: the one resolved from its DID, else the provider URL with /api/dsp
+     */
+    @JsonIgnore
+    public String getDspAddress() {
+        if (resolvedDspAddress != null) {
+            return resolvedDspAddress;
+        }
+        return providerUrl + "/api/dsp";
+    }
+
+    @JsonIgnore
+    public String getResolvedDspAddress() {
+        return resolvedDspAddress;
+    }
+
+    @JsonIgnore
+    public void setResolvedDspAddress(String resolvedDspAddress) {
+        this.resolvedDspAddress = resolvedDspAddress;
+    }
+
     public String getCounterPartyAddress() {
         return counterPartyAddress;
     }
@@ -143,6 +291,62 @@ public class EdcConnectorRequest {
         this.counterPartyAddress = counterPartyAddress;
     }
 
+    public String getTransferMode() {
+        return transferMode;
+    }
+
+    public void setTransferMode(String transferMode) {
+        this.transferMode = transferMode;
+    }
+
+    public String getJsonHandling() {
+        return jsonHandling;
+    }
+
+    public void setJsonHandling(String jsonHandling) {
+        this.jsonHandling = jsonHandling;
+    }
+
+    public String getBinaryHandling() {
+        return binaryHandling;
+    }
+
+    public void setBinaryHandling(String binaryHandling) {
+        this.binaryHandling = binaryHandling;
+    }
+
+    public Integer getMaxRecords() {
+        return maxRecords;
+    }
+
+    public void setMaxRecords(Integer maxRecords) {
+        this.maxRecords = maxRecords;
+    }
+
+    public Integer getMaxRecordSize() {
+        return maxRecordSize;
+    }
+
+    public void setMaxRecordSize(Integer maxRecordSize) {
+        this.maxRecordSize = maxRecordSize;
+    }
+
+    public Integer getCacheMaxAge() {
+        return cacheMaxAge;
+    }
+
+    public void setCacheMaxAge(Integer cacheMaxAge) {
+        this.cacheMaxAge = cacheMaxAge;
+    }
+
+    public Boolean getDiagnostics() {
+        return diagnostics;
+    }
+
+    public void setDiagnostics(Boolean diagnostics) {
+        this.diagnostics = diagnostics;
+    }
+
     @Override
     public String toString() {
         return "EdcConnectorRequest{" +
@@ -159,7 +363,7 @@ public class EdcConnectorRequest {
      */
     public static class Authentication {
         @JsonProperty("type")
-        private String type = "api-key"; // api-key or basic
+        private String type = "api-key"; // api-key, basic or oauth2
 
         @JsonProperty("apiKey")
         // @Secret annotation removed - add back if using Camunda runtime with secret support
@@ -172,6 +376,19 @@ public class EdcConnectorRequest {
         // @Secret annotation removed - add back if using Camunda runtime with secret support
         private String password;
 
+        @JsonProperty("tokenUrl")
+        private String tokenUrl;
+
+        @JsonProperty("clientId")
+        private String clientId;
+
+        @JsonProperty("clientSecret")
+        // @Secret annotation removed - add back if using Camunda runtime with secret support
+        private String clientSecret;
+
+        @JsonProperty("scope")
+        private String scope;
+
         public void validate() {
             if ("api-key".equals(type) && (apiKey == null || apiKey.trim().isEmpty())) {
                 throw new IllegalArgumentException("API Key is required for api-key authentication");
@@ -184,6 +401,19 @@ public class EdcConnectorRequest {
                     throw new IllegalArgumentException("Password is required for basic authentication");
                 }
             }
+            if ("oauth2".equals(type)) {
+                if (tokenUrl == null || !(tokenUrl.startsWith("http://") || tokenUrl.startsWith("https://"))) {
+                    throw new IllegalArgumentException(
+                        "Token URL with http:// or https:// is required for oauth2 authentication. Got: " + tokenUrl
+                    );
+                }
+                if (clientId == null || clientId.trim().isEmpty()) {
+                    throw new IllegalArgumentException("Client ID is required for oauth2 authentication");
+                }
+                if (clientSecret == null || clientSecret.trim().isEmpty()) {
+                    throw new IllegalArgumentException("Client secret is required for oauth2 authentication");
+                }
+            }
         }
 
         public String getType() {
@@ -217,5 +447,74 @@ public class EdcConnectorRequest {
         public void setPassword(String password) {
             this.password = password;
         }
+
+        public String getTokenUrl() {
+            return tokenUrl;
+        }
+
+        public void setTokenUrl(String tokenUrl) {
+            this.tokenUrl = tokenUrl;
+        }
+
+        public String getClientId() {
+            return clientId;
+        }
+
+        public void setClientId(String clientId) {
+            this.clientId = clientId;
+        }
+
+        public String getClientSecret() {
+            return clientSecret;
+        }
+
+        public void setClientSecret(String clientSecret) {
+            this.clientSecret = clientSecret;
+        }
+
+        public String getScope() {
+            return scope;
+        }
+
+        public void setScope(String scope) {
+            this.scope = scope;
+        }
+
+        /**
+         * Copy that components sharing a Management API client can keep, unaffected by later
+         * changes to the job's request
+         */
+        public Authentication copy() {
+            Authentication copy = new Authentication();
+            copy.type = type;
+            copy.apiKey = apiKey;
+            copy.username = username;
+            copy.password = password;
+            copy.tokenUrl = tokenUrl;
+            copy.clientId = clientId;
+            copy.clientSecret = clientSecret;
+            copy.scope = scope;
+            return copy;
+        }
+
+        /**
+         * Hex encoded SHA-256 over all fields. Equal for equal credentials, so it identifies the
+         * consumer in cache and registry keys without keeping the secrets in them.
+         */
+        public String identity() {
+            try {
+                MessageDigest digest = MessageDigest.getInstance("SHA-256");
+                for (String field : Arrays.asList(type, apiKey, username, password, tokenUrl, clientId,
+                        clientSecret, scope)) {
+                    // Length prefixed, so that field boundaries cannot shift; -1 marks null
+                    byte[] bytes = field == null ? new byte[0] : field.getBytes(StandardCharsets.UTF_8);
+                    digest.update(ByteBuffer.allocate(4).putInt(field == null ? -1 : bytes.length).array());
+                    digest.update(bytes);
+                }
+                return HexFormat.of().formatHex(digest.digest());
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 is not available", e);
+            }
+        }
     }
 }
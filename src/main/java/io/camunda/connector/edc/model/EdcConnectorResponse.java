@@ -1,7 +1,10 @@
 package io.camunda.connector.edc.model;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
+import java.util.List;
+
 /**
  * Response model for the EDC Connector
  */
@@ -19,12 +22,20 @@ public class EdcConnectorResponse {
     @JsonProperty("data")
     private Object data;
 
+    @JsonProperty("sha256")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String sha256; // Hex encoded digest of the payload as received
+
     @JsonProperty("status")
     private String status;
 
     @JsonProperty("message")
     private String message;
 
+    @JsonProperty("diagnostics")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Diagnostics diagnostics; // Only when requested
+
     public EdcConnectorResponse() {
     }
 
@@ -77,6 +88,14 @@ public class EdcConnectorResponse {
         this.status = status;
     }
 
+    public String getSha256() {
+        return sha256;
+    }
+
+    public void setSha256(String sha256) {
+        this.sha256 = sha256;
+    }
+
     public String getMessage() {
         return message;
     }
@@ -85,14 +104,123 @@ public class EdcConnectorResponse {
         this.message = message;
     }
 
+    public Diagnostics getDiagnostics() {
+        return diagnostics;
+    }
+
+    public void setDiagnostics(Diagnostics diagnostics) {
+        this.diagnostics = diagnostics;
+    }
+
     @Override
     public String toString() {
         return "EdcConnectorResponse{" +
                 "assetId='" + assetId + '\'' +
                 ", contractAgreementId='" + contractAgreementId + '\'' +
                 ", transferId='" + transferId + '\'' +
+                ", sha256='" + sha256 + '\'' +
                 ", status='" + status + '\'' +
                 ", message='" + message + '\'' +
                 '}';
     }
+
+    /**
+     * Where the time of the workflow went, stage by stage, measured with the monotonic clock
+     */
+    public static class Diagnostics {
+
+        @JsonProperty("totalMillis")
+        private long totalMillis;
+
+        @JsonProperty("stages")
+        private List<StageDiagnostics> stages;
+
+        public long getTotalMillis() {
+            return totalMillis;
+        }
+
+        public void setTotalMillis(long totalMillis) {
+            this.totalMillis = totalMillis;
+        }
+
+        public List<StageDiagnostics> getStages() {
+            return stages;
+        }
+
+        public void setStages(List<StageDiagnostics> stages) {
+            this.stages = stages;
+        }
+    }
+
+    /**
+     * Statistics of one workflow stage such as catalog, negotiation, transfer or data
+     */
+    public static class StageDiagnostics {
+
+        @JsonProperty("stage")
+        private String stage;
+
+        @JsonProperty("millis")
+        private long millis;
+
+        @JsonProperty("httpStatuses")
+        private List<Integer> httpStatuses; // Every response including retries, 0 for connection errors
+
+        @JsonProperty("pollAttempts")
+        private int pollAttempts;
+
+        @JsonProperty("bytes")
+        private long bytes;
+
+        @JsonProperty("cacheHits")
+        private int cacheHits;
+
+        public String getStage() {
+            return stage;
+        }
+
+        public void setStage(String stage) {
+            this.stage = stage;
+        }
+
+        public long getMillis() {
+            return millis;
+        }
+
+        public void setMillis(long millis) {
+            this.millis = millis;
+        }
+
+        public List<Integer> getHttpStatuses() {
+            return httpStatuses;
+        }
+
+        public void setHttpStatuses(List<Integer> httpStatuses) {
+            this.httpStatuses = httpStatuses;
+        }
+
+        public int getPollAttempts() {
+            return pollAttempts;
+        }
+
+        public void setPollAttempts(int pollAttempts) {
+            this.pollAttempts = pollAttempts;
+        }
+
+        public long getBytes() {
+            return bytes;
+        }
+
+        public void setBytes(long bytes) {
+            this.bytes = bytes;
+        }
+
+        public int getCacheHits() {
+            return cacheHits;
+        }
+
+        public void setCacheHits(int cacheHits) {
+            this.cacheHits = cacheHits;
+        }
+    }
 }
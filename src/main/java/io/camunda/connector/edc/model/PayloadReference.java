@@ -0,0 +1,72 @@
+package io.camunda.connector.edc.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Reference to a payload that was written to disk instead of being returned inline
+ */
+public class PayloadReference {
+
+    @JsonProperty("type")
+    private String type = "file";
+
+    @JsonProperty("path")
+    private String path;
+
+    @JsonProperty("size")
+    private long size;
+
+    @JsonProperty("contentType")
+    private String contentType;
+
+    public PayloadReference() {
+    }
+
+    public PayloadReference(String path, long size, String contentType) {
+        this.path = path;
+        this.size = size;
+        this.contentType = contentType;
+    }
+
+    // Getters and Setters
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public void setPath(String path) {
+        this.path = path;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public void setSize(long size) {
+        this.size = size;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public void setContentType(String contentType) {
+        this.contentType = contentType;
+    }
+
+    @Override
+    public String toString() {
+        return "PayloadReference{" +
+                "path='" + path + '\'' +
+                ", size=" + size +
+                ", contentType='" + contentType + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,32 @@
+package io.camunda.connector.edc.model.management;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.List;
+
+/**
+ * Catalog returned by the Management API catalog request.
+ *
+ * JSON-LD compaction turns single element arrays into plain objects, so datasets and policies
+ * are accepted in both forms. Policies stay generic trees because they are sent back verbatim
+ * in the contract request.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record CatalogResponse(
+        @JsonProperty("dcat:dataset")
+        @JsonFormat(with = JsonFormat.Feature.ACCEPT_SINGLE_VALUE_AS_ARRAY)
+        List<Dataset> datasets
+) {
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record Dataset(
+            @JsonProperty("@id") String id,
+            @JsonProperty("odrl:hasPolicy")
+            @JsonFormat(with = JsonFormat.Feature.ACCEPT_SINGLE_VALUE_AS_ARRAY)
+            List<JsonNode> policies
+    ) {
+    }
+}
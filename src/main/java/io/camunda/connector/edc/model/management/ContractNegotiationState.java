@@ -0,0 +1,17 @@
+package io.camunda.connector.edc.model.management;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Contract negotiation as returned by the Management API, reduced to the fields the connector uses
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record ContractNegotiationState(
+        @JsonProperty("@id") String id,
+        @JsonProperty("state") String state,
+        @JsonProperty("correlationId") String correlationId,
+        @JsonProperty("contractAgreementId") String contractAgreementId,
+        @JsonProperty("createdAt") long createdAt
+) {
+}
@@ -0,0 +1,13 @@
+package io.camunda.connector.edc.model.management;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Response of Management API create calls
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record IdResponse(
+        @JsonProperty("@id") String id
+) {
+}
@@ -0,0 +1,40 @@
+package io.camunda.connector.edc.model.management;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+
+/**
+ * Shared JSON mapper and pre-built readers for Management API responses.
+ *
+ * Readers are immutable and thread safe; building them once avoids the per-call lookup of
+ * deserializers, and the Blackbird module replaces reflective property access with generated
+ * lambdas. A native image cannot define classes at runtime, so there the registered
+ * reflection metadata is used instead.
+ */
+public final class ManagementApiJson {
+
+    public static final ObjectMapper MAPPER = createMapper();
+
+    public static final ObjectReader CATALOG_READER = MAPPER.readerFor(CatalogResponse.class);
+    public static final ObjectReader ID_READER = MAPPER.readerFor(IdResponse.class);
+    public static final ObjectReader NEGOTIATION_READER = MAPPER.readerFor(ContractNegotiationState.class);
+    public static final ObjectReader NEGOTIATION_LIST_READER = MAPPER.readerForListOf(ContractNegotiationState.class);
+    public static final ObjectReader TRANSFER_READER = MAPPER.readerFor(TransferProcessState.class);
+    public static final ObjectReader TRANSFER_LIST_READER = MAPPER.readerForListOf(TransferProcessState.class);
+
+    private ManagementApiJson() {
+    }
+
+    private static ObjectMapper createMapper() {
+        JsonMapper.Builder builder = JsonMapper.builder()
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        // Set by GraalVM while building and running a native image
+        if (System.getProperty("org.graalvm.nativeimage.imagecode") == null) {
+            builder.addModule(new BlackbirdModule());
+        }
+        return builder.build();
+    }
+}
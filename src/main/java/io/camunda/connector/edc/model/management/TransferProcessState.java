@@ -0,0 +1,27 @@
+package io.camunda.connector.edc.model.management;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Transfer process as returned by the Management API, reduced to the fields the connector uses
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record TransferProcessState(
+        @JsonProperty("@id") String id,
+        @JsonProperty("state") String state,
+        @JsonProperty("correlationId") String correlationId,
+        @JsonProperty("dataAddress") DataAddress dataAddress,
+        @JsonProperty("createdAt") long createdAt
+) {
+
+    /**
+     * Endpoint Data Reference of a started HTTP pull transfer
+     */
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record DataAddress(
+            @JsonProperty("endpoint") String endpoint,
+            @JsonProperty("authorization") String authorization
+    ) {
+    }
+}
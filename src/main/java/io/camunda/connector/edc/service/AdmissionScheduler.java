@@ -0,0 +1,238 @@
+package io.camunda.connector.edc.service;
+
+import io.camunda.connector.edc.config.EdcConnectorSettings;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Admission control in front of the EDC workflow.
+ *
+ * At most a fixed number of workflows run at the same time. Workflows beyond that wait in the
+ * queue of their lane. Lanes are served by weighted fair queuing: each lane advances a virtual
+ * pass by 1/weight whenever one of its workflows is admitted, and the non-empty lane with the
+ * lowest pass goes next. A lane with weight 8 therefore gets eight admissions for every one of
+ * a lane with weight 1 while both are busy. Within a lane, higher priorities go first and equal
+ * priorities in arrival order.
+ *
+ * Only the lanes with a configured weight exist besides the default lane. Workflows naming
+ * another lane share the default lane, so lane names taken from process variables cannot grow
+ * the lanes and their meters without bound.
+ */
+public class AdmissionScheduler {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AdmissionScheduler.class);
+    private static final Permit NO_OP = () -> { };
+    static final String DEFAULT_LANE = "default";
+
+    private final int maxConcurrency;
+    private final Map<String, Double> weights;
+    private final MeterRegistry registry;
+    private final Map<String, Lane> lanes = new HashMap<>();
+    private int running;
+    private long sequence;
+    private double virtualTime;
+
+    /**
+     * @param maxConcurrency workflows running at the same time, 0 to admit every workflow immediately
+     * @param weights weight per lane name; the default lane gets 1 unless given, other lanes are
+     *                mapped to the default lane
+     */
+    public AdmissionScheduler(int maxConcurrency, Map<String, Double> weights, MeterRegistry registry) {
+        this.maxConcurrency = maxConcurrency;
+        this.weights = weights;
+        this.registry = registry;
+        Gauge.builder("edc.connector.admission.running", this, AdmissionScheduler::getRunning)
+                .description("EDC workflows admitted and running")
+                .register(registry);
+    }
+
+    public static AdmissionScheduler fromSettings() {
+        return new AdmissionScheduler(
+                EdcConnectorSettings.getInt("edc.connector.admission.max-concurrency", 0),
+                parseWeights(EdcConnectorSettings.getList("edc.connector.admission.weights")),
+                Metrics.globalRegistry
+        );
+    }
+
+    /**
+     * Parse weights given as "lane=weight" entries
+     */
+    static Map<String, Double> parseWeights(List<String> entries) {
+        Map<String, Double> weights = new HashMap<>();
+        for (String entry : entries) {
+            String[] pair = entry.split("=", 2);
+            double weight;
+            try {
+                weight = pair.length == 2 ? Double.parseDouble(pair[1].trim()) : Double.NaN;
+            } catch (NumberFormatException e) {
+                weight = Double.NaN;
+            }
+            if (!(weight > 0)) {
+                throw new IllegalArgumentException("Admission weight must be given as lane=positive number. Got: "
+                        + entry);
+            }
+            weights.put(pair[0].trim(), weight);
+        }
+        return weights;
+    }
+
+    /**
+     * Wait until the workflow may run. The permit must be closed when the workflow ends.
+     *
+     * @throws DeadlineExceededException if the deadline passes while waiting
+     */
+    public Permit admit(String requestedLane, int priority, Deadline deadline) throws InterruptedException {
+        if (maxConcurrency <= 0) {
+            return NO_OP;
+        }
+        String laneName = laneOf(requestedLane);
+
+        Waiter waiter;
+        synchronized (this) {
+            Lane lane = lanes.computeIfAbsent(laneName, this::createLane);
+            if (running < maxConcurrency && isIdle()) {
+                running++;
+                lane.waitTimer.record(0, TimeUnit.NANOSECONDS);
+                return this::release;
+            }
+            waiter = new Waiter(priority, sequence++, System.nanoTime());
+            if (lane.queue.isEmpty()) {
+                // An idle lane must not bank the turns it did not use
+                lane.pass = Math.max(lane.pass, virtualTime);
+            }
+            lane.queue.add(waiter);
+        }
+
+        try {
+            waiter.admitted.get(deadline.remaining().toNanos(), TimeUnit.NANOSECONDS);
+            return this::release;
+        } catch (TimeoutException | InterruptedException e) {
+            abandon(laneName, waiter);
+            if (e instanceof InterruptedException) {
+                throw (InterruptedException) e;
+            }
+            throw deadline.exceeded("waiting for admission in lane " + laneName);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Admission failed", e);
+        }
+    }
+
+    public synchronized int getRunning() {
+        return running;
+    }
+
+    /**
+     * Workflows waiting in the lane
+     */
+    public synchronized int getQueued(String laneName) {
+        Lane lane = lanes.get(laneOf(laneName));
+        return lane != null ? lane.queue.size() : 0;
+    }
+
+    /**
+     * The configured lane of the given name, or the default lane
+     */
+    String laneOf(String laneName) {
+        return weights.containsKey(laneName) ? laneName : DEFAULT_LANE;
+    }
+
+    private synchronized void release() {
+        running--;
+        dispatch();
+    }
+
+    /**
+     * Give up waiting; a permit granted in the meantime is passed on
+     */
+    private synchronized void abandon(String laneName, Waiter waiter) {
+        if (!lanes.get(laneName).queue.remove(waiter)) {
+            running--;
+            dispatch();
+        }
+    }
+
+    private void dispatch() {
+        while (running < maxConcurrency) {
+            Lane next = null;
+            for (Lane lane : lanes.values()) {
+                if (!lane.queue.isEmpty() && (next == null || lane.pass < next.pass)) {
+                    next = lane;
+                }
+            }
+            if (next == null) {
+                return;
+            }
+            Waiter waiter = next.queue.poll();
+            virtualTime = next.pass;
+            next.pass += 1 / next.weight;
+            running++;
+            next.waitTimer.record(System.nanoTime() - waiter.enqueuedNanos, TimeUnit.NANOSECONDS);
+            waiter.admitted.complete(null);
+        }
+    }
+
+    private boolean isIdle() {
+        for (Lane lane : lanes.values()) {
+            if (!lane.queue.isEmpty()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Lane createLane(String name) {
+        double weight = weights.getOrDefault(name, 1.0);
+        Lane lane = new Lane(weight, Timer.builder("edc.connector.admission.wait")
+                .description("Time EDC workflows waited for admission")
+                .tag("lane", name)
+                .register(registry));
+        Gauge.builder("edc.connector.admission.queued", this, scheduler -> scheduler.getQueued(name))
+                .description("EDC workflows waiting for admission")
+                .tag("lane", name)
+                .register(registry);
+        LOGGER.info("Admission lane '{}' created with weight {}", name, weight);
+        return lane;
+    }
+
+    /**
+     * Admission of one workflow, held while it runs
+     */
+    @FunctionalInterface
+    public interface Permit extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    private static final class Lane {
+        private final double weight;
+        private final Timer waitTimer;
+        private final PriorityQueue<Waiter> queue = new PriorityQueue<>(
+                Comparator.comparingInt(Waiter::priority).reversed().thenComparingLong(Waiter::sequence));
+        private double pass;
+
+        private Lane(double weight, Timer waitTimer) {
+            this.weight = weight;
+            this.waitTimer = waitTimer;
+        }
+    }
+
+    private record Waiter(int priority, long sequence, long enqueuedNanos, CompletableFuture<Void> admitted) {
+        private Waiter(int priority, long sequence, long enqueuedNanos) {
+            this(priority, sequence, enqueuedNanos, new CompletableFuture<>());
+        }
+    }
+}
@@ -0,0 +1,385 @@
+package io.camunda.connector.edc.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.camunda.connector.edc.config.EdcConnectorSettings;
+import io.camunda.connector.edc.model.EdcConnectorRequest;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Reuses contract agreements across jobs and renews them before their policy expires.
+ *
+ * An agreement is reused until shortly before the earliest time bound found in its policy:
+ * an ODRL dateTime or EDC inForceDate constraint (absolute, or relative such as
+ * "contractAgreement+30d"), or an ODRL elapsedTime duration. Agreements without a bound are
+ * treated as expiring after the configured max age. Agreements other jobs reused since they
+ * were concluded are renegotiated in the background ahead of expiry, a bounded number at a time,
+ * and the new agreement replaces the old one atomically once it is finalized. Unused
+ * agreements are dropped instead.
+ *
+ * No credentials are kept with an agreement: the first job that looks it up once it is due for
+ * renewal hands over a copy of its request, which is only held while the renegotiation runs.
+ */
+public class AgreementRenewer {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AgreementRenewer.class);
+    // Agreements this close to expiry are no longer handed out, the transfer might start too late
+    private static final Duration EXPIRY_MARGIN = Duration.ofSeconds(30);
+    private static final Duration RETRY_DELAY = Duration.ofSeconds(30);
+    private static final Pattern RELATIVE_BOUND = Pattern.compile("contractAgreement\\s*\\+\\s*(\\d+)\\s*([smhd])");
+
+    /**
+     * Runs catalog request and negotiation for the asset of a request
+     */
+    @FunctionalInterface
+    public interface Negotiator {
+        Negotiated negotiate(EdcConnectorRequest request, Deadline deadline) throws Exception;
+    }
+
+    /**
+     * A finalized agreement with the offer policy it was negotiated for
+     *
+     * @param negotiatedFrom time the negotiation started, the earliest possible signing time
+     */
+    public record Negotiated(String agreementId, JsonNode policy, Instant negotiatedFrom) {
+    }
+
+    private final Negotiator negotiator;
+    private final Duration maxAge;
+    private final Duration renewAhead;
+    private final Duration renewalTimeout;
+    private final Map<Key, Agreement> agreements = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService renewer;
+    private final Counter reused;
+    private final Counter renewed;
+    private final Counter failed;
+    private final Counter dropped;
+
+    /**
+     * @param concurrency renegotiations running at the same time
+     */
+    public AgreementRenewer(Negotiator negotiator, Duration maxAge, Duration renewAhead, Duration renewalTimeout,
+                            int concurrency, MeterRegistry registry) {
+        this.negotiator = negotiator;
+        this.maxAge = maxAge;
+        this.renewAhead = renewAhead;
+        this.renewalTimeout = renewalTimeout;
+        this.renewer = Executors.newScheduledThreadPool(Math.max(1, concurrency), runnable -> {
+            Thread thread = new Thread(runnable, "edc-agreement-renewer");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.reused = Counter.builder("edc.connector.agreements.reused")
+                .description("Jobs that reused a contract agreement instead of negotiating")
+                .register(registry);
+        this.renewed = renewalCounter(registry, "renewed");
+        this.failed = renewalCounter(registry, "failed");
+        this.dropped = renewalCounter(registry, "dropped");
+        Gauge.builder("edc.connector.agreements.cached", agreements, Map::size)
+                .description("Contract agreements available for reuse")
+                .register(registry);
+    }
+
+    public static AgreementRenewer fromSettings(Negotiator negotiator) {
+        return new AgreementRenewer(
+                negotiator,
+                EdcConnectorSettings.getDuration("edc.connector.agreements.max-age", Duration.ofHours(24)),
+                EdcConnectorSettings.getDuration("edc.connector.agreements.renew-ahead", Duration.ofMinutes(5)),
+                EdcConnectorSettings.getDuration("edc.connector.agreements.renewal-timeout", Duration.ofSeconds(60)),
+                EdcConnectorSettings.getInt("edc.connector.agreements.renewal-concurrency", 2),
+                Metrics.globalRegistry
+        );
+    }
+
+    /**
+     * Agreement for the request's asset that is valid for a while yet, null if a job has to negotiate.
+     * If the agreement is due for renewal, it is renegotiated in the background with the request
+     * the supplier returns, a copy the job does not change afterwards.
+     */
+    public String lookup(Key key, Supplier<EdcConnectorRequest> renewalRequest) {
+        Agreement agreement = agreements.get(key);
+        if (agreement == null || !agreement.isUsable()) {
+            return null;
+        }
+        agreement.used = true;
+        reused.increment();
+        if (agreement.isDue() && agreement.renewing.compareAndSet(false, true)) {
+            EdcConnectorRequest request = renewalRequest.get();
+            renewer.execute(() -> renew(key, agreement, request));
+        }
+        return agreement.id;
+    }
+
+    /**
+     * Offer a newly negotiated agreement for reuse
+     */
+    public void register(Key key, Negotiated negotiated) {
+        Agreement agreement = new Agreement(negotiated.agreementId(),
+                expiresAt(negotiated.policy(), negotiated.negotiatedFrom(), maxAge));
+        if (!agreement.isUsable()) {
+            LOGGER.info("Contract agreement {} for asset {} expires at {}, not reused",
+                    agreement.id, key.assetId(), agreement.expiresAt);
+            return;
+        }
+        // Only jobs looking it up count as use, the job that negotiated it has its own agreement
+        agreements.put(key, agreement);
+        scheduleRenewal(key, agreement);
+        LOGGER.info("Contract agreement {} for asset {} reusable until {}",
+                agreement.id, key.assetId(), agreement.expiresAt);
+    }
+
+    /**
+     * Stop reusing an agreement the provider no longer honors, unless it was already replaced
+     */
+    public void invalidate(Key key, String agreementId) {
+        agreements.computeIfPresent(key, (k, agreement) -> agreement.id.equals(agreementId) ? null : agreement);
+    }
+
+    public void close() {
+        renewer.shutdownNow();
+    }
+
+    /**
+     * Renew ahead of the end of reuse, but not before half of the time left so that short-lived
+     * agreements are not renegotiated back to back. Agreements no job used by then are dropped,
+     * the others are renewed by the next job and removed once they expire.
+     */
+    private void scheduleRenewal(Key key, Agreement agreement) {
+        Duration usable = Duration.between(Instant.now(), agreement.expiresAt.minus(EXPIRY_MARGIN));
+        Duration delay = usable.minus(renewAhead);
+        if (delay.compareTo(usable.dividedBy(2)) < 0) {
+            delay = usable.dividedBy(2);
+        }
+        agreement.renewFrom = Instant.now().plus(delay);
+        renewer.schedule(() -> {
+            if (!agreement.used && agreements.remove(key, agreement)) {
+                // Stop renewing agreements no job uses anymore
+                dropped.increment();
+            }
+        }, Math.max(0, delay.toMillis()), TimeUnit.MILLISECONDS);
+        renewer.schedule(() -> agreements.remove(key, agreement),
+                Math.max(0, usable.toMillis()), TimeUnit.MILLISECONDS);
+    }
+
+    private void renew(Key key, Agreement agreement, EdcConnectorRequest request) {
+        if (agreements.get(key) != agreement) {
+            return; // Replaced or invalidated in the meantime
+        }
+
+        LOGGER.info("Renewing contract agreement {} for asset {} expiring at {}",
+                agreement.id, key.assetId(), agreement.expiresAt);
+        try {
+            Negotiated negotiated = negotiator.negotiate(request, Deadline.after(renewalTimeout));
+            Agreement renewal = new Agreement(negotiated.agreementId(),
+                    expiresAt(negotiated.policy(), negotiated.negotiatedFrom(), maxAge));
+            if (!renewal.isUsable()) {
+                // The provider offers no agreement that outlives the margin, jobs negotiate their own
+                agreements.remove(key, agreement);
+                failed.increment();
+                LOGGER.warn("Renewed contract agreement {} for asset {} expires at {}, not reused",
+                        renewal.id, key.assetId(), renewal.expiresAt);
+            } else if (agreements.replace(key, agreement, renewal)) {
+                renewed.increment();
+                scheduleRenewal(key, renewal);
+                LOGGER.info("Contract agreement {} for asset {} replaced by {} valid until {}",
+                        agreement.id, key.assetId(), renewal.id, renewal.expiresAt);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            failed.increment();
+            LOGGER.warn("Renewing contract agreement {} for asset {} failed: {}",
+                    agreement.id, key.assetId(), e.toString());
+            // A job retries while the old agreement is still valid; once it expires jobs negotiate again
+            agreement.renewFrom = Instant.now().plus(RETRY_DELAY);
+            agreement.renewing.set(false);
+        }
+    }
+
+    /**
+     * Earliest time bound of the policy, at the latest the max age after the agreement
+     */
+    static Instant expiresAt(JsonNode policy, Instant agreedAt, Duration maxAge) {
+        Instant[] expiry = {agreedAt.plus(maxAge)};
+        forEachConstraint(policy, (leftOperand, operator, rightOperand) -> {
+            Instant bound = bound(leftOperand, operator, rightOperand, agreedAt);
+            if (bound != null && bound.isBefore(expiry[0])) {
+                expiry[0] = bound;
+            }
+        });
+        return expiry[0];
+    }
+
+    /**
+     * Upper time bound of a single constraint, null if it does not limit the agreement in time
+     */
+    private static Instant bound(String leftOperand, String operator, String rightOperand, Instant agreedAt) {
+        if (!"lt".equals(operator) && !"lteq".equals(operator) || rightOperand == null) {
+            return null;
+        }
+        try {
+            switch (leftOperand) {
+                case "dateTime", "inForceDate" -> {
+                    Matcher relative = RELATIVE_BOUND.matcher(rightOperand.trim());
+                    if (relative.matches()) {
+                        long amount = Long.parseLong(relative.group(1));
+                        return agreedAt.plus(switch (relative.group(2)) {
+                            case "s" -> Duration.ofSeconds(amount);
+                            case "m" -> Duration.ofMinutes(amount);
+                            case "h" -> Duration.ofHours(amount);
+                            default -> Duration.ofDays(amount);
+                        });
+                    }
+                    return parseInstant(rightOperand.trim());
+                }
+                case "elapsedTime" -> {
+                    return agreedAt.plus(Duration.parse(rightOperand.trim()));
+                }
+                default -> {
+                    return null;
+                }
+            }
+        } catch (DateTimeParseException | ArithmeticException e) {
+            LOGGER.debug("Ignoring unparseable {} bound '{}'", leftOperand, rightOperand);
+            return null;
+        }
+    }
+
+    /**
+     * ISO date or date-time; values without offset are taken as UTC
+     */
+    private static Instant parseInstant(String value) {
+        if (!value.contains("T")) {
+            return LocalDate.parse(value).atStartOfDay(ZoneOffset.UTC).toInstant();
+        }
+        try {
+            return OffsetDateTime.parse(value).toInstant();
+        } catch (DateTimeParseException e) {
+            return LocalDateTime.parse(value).toInstant(ZoneOffset.UTC);
+        }
+    }
+
+    /**
+     * Visit every constraint of the policy, including those nested in logical constraints.
+     * Prefixed and expanded JSON-LD names are both accepted.
+     */
+    private static void forEachConstraint(JsonNode node, ConstraintVisitor visitor) {
+        if (node == null) {
+            return;
+        }
+        if (node.isArray()) {
+            node.forEach(element -> forEachConstraint(element, visitor));
+            return;
+        }
+        if (!node.isObject()) {
+            return;
+        }
+        String leftOperand = null;
+        String operator = null;
+        String rightOperand = null;
+        for (Iterator<Map.Entry<String, JsonNode>> fields = node.fields(); fields.hasNext(); ) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            switch (localName(field.getKey())) {
+                case "leftOperand" -> leftOperand = localName(text(field.getValue()));
+                case "operator" -> operator = localName(text(field.getValue()));
+                case "rightOperand" -> rightOperand = text(field.getValue());
+                default -> forEachConstraint(field.getValue(), visitor);
+            }
+        }
+        if (leftOperand != null && operator != null) {
+            visitor.visit(leftOperand, operator, rightOperand);
+        }
+    }
+
+    /**
+     * Text of a JSON-LD value: plain, {"@value": ...}, {"@id": ...} or the first of a list
+     */
+    private static String text(JsonNode value) {
+        if (value.isArray()) {
+            return value.isEmpty() ? null : text(value.get(0));
+        }
+        if (value.isObject()) {
+            JsonNode inner = value.has("@value") ? value.get("@value") : value.get("@id");
+            return inner != null ? inner.asText() : null;
+        }
+        return value.isValueNode() ? value.asText() : null;
+    }
+
+    private static String localName(String name) {
+        if (name == null) {
+            return "";
+        }
+        int separator = Math.max(name.lastIndexOf(':'), Math.max(name.lastIndexOf('/'), name.lastIndexOf('#')));
+        return name.substring(separator + 1);
+    }
+
+    private static Counter renewalCounter(MeterRegistry registry, String outcome) {
+        return Counter.builder("edc.connector.agreements.renewals")
+                .description("Background renewals of contract agreements by outcome")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    @FunctionalInterface
+    private interface ConstraintVisitor {
+        void visit(String leftOperand, String operator, String rightOperand);
+    }
+
+    /**
+     * Agreements are shared by jobs of the same consumer connector, provider and asset
+     */
+    public record Key(List<String> managementUrls, String providerAddress, String providerDid, String assetId) {
+
+        public static Key of(EdcConnectorRequest request) {
+            // Sorted, the URL leased to the job comes first in the request
+            return new Key(request.getManagementUrls().stream().sorted().toList(), request.getDspAddress(),
+                    request.getProviderDid(), request.getAssetId());
+        }
+    }
+
+    private static final class Agreement {
+        private final String id;
+        private final Instant expiresAt;
+        private final AtomicBoolean renewing = new AtomicBoolean();
+        private volatile Instant renewFrom;
+        private volatile boolean used;
+
+        private Agreement(String id, Instant expiresAt) {
+            this.id = id;
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean isUsable() {
+            return Instant.now().isBefore(expiresAt.minus(EXPIRY_MARGIN));
+        }
+
+        private boolean isDue() {
+            Instant from = renewFrom;
+            return from != null && !Instant.now().isBefore(from);
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package io.camunda.connector.edc.service;
+
+import io.camunda.connector.edc.model.management.CatalogResponse;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Merges catalog lookups of concurrent workflows for the same provider into one catalog request.
+ *
+ * The first lookup opens a batch that collects the assets requested within a short window.
+ * The batch is then sent as one catalog request filtered on all of its assets, or earlier once
+ * it reaches the maximum size, and every workflow of the batch receives the datasets returned.
+ * A batcher nobody queried for a while can be closed; lookups then have to use a new one.
+ */
+public class CatalogBatcher {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CatalogBatcher.class);
+
+    /**
+     * Requests the catalog filtered to the given assets
+     */
+    @FunctionalInterface
+    public interface BatchQuery {
+        List<CatalogResponse.Dataset> query(List<String> assetIds) throws Exception;
+    }
+
+    private final BatchQuery batchQuery;
+    private final Duration window;
+    private final int maxBatchSize;
+    private final ScheduledExecutorService scheduler;
+    private final Executor executor;
+    private final DistributionSummary batchSizes;
+    private Batch open;
+    private boolean closed;
+    private long lastUsedNanos = System.nanoTime();
+
+    /**
+     * @param scheduler closes batches once their window has passed
+     * @param executor runs the catalog requests
+     */
+    public CatalogBatcher(BatchQuery batchQuery, Duration window, int maxBatchSize,
+                          ScheduledExecutorService scheduler, Executor executor, MeterRegistry registry) {
+        this.batchQuery = batchQuery;
+        this.window = window;
+        this.maxBatchSize = maxBatchSize;
+        this.scheduler = scheduler;
+        this.executor = executor;
+        this.batchSizes = DistributionSummary.builder("edc.connector.catalog.batch.size")
+                .description("Assets requested per catalog request")
+                .register(registry);
+    }
+
+    /**
+     * Datasets of the batch the asset was added to. The asset's dataset is among them unless
+     * the provider does not offer it.
+     *
+     * @return null if the batcher was closed
+     */
+    public List<CatalogResponse.Dataset> query(String assetId, Deadline deadline) throws Exception {
+        CompletableFuture<List<CatalogResponse.Dataset>> result;
+        synchronized (this) {
+            if (closed) {
+                return null;
+            }
+            lastUsedNanos = System.nanoTime();
+            if (open == null) {
+                Batch batch = new Batch();
+                open = batch;
+                scheduler.schedule(() -> send(batch), window.toNanos(), TimeUnit.NANOSECONDS);
+            }
+            Batch batch = open;
+            batch.assetIds.add(assetId);
+            result = batch.result;
+            if (batch.assetIds.size() >= maxBatchSize) {
+                send(batch);
+            }
+        }
+
+        try {
+            return result.get(deadline.remaining().toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            throw deadline.exceeded("waiting for catalog of asset " + assetId);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception) {
+                throw (Exception) e.getCause();
+            }
+            throw new IllegalStateException("Catalog request failed", e.getCause());
+        }
+    }
+
+    /**
+     * Close the batcher if no batch is open and nobody queried it for the idle timeout
+     *
+     * @return true if the batcher is closed
+     */
+    public synchronized boolean closeIfIdle(Duration idleTimeout) {
+        if (!closed && open == null && System.nanoTime() - lastUsedNanos >= idleTimeout.toNanos()) {
+            closed = true;
+        }
+        return closed;
+    }
+
+    /**
+     * Close the batch and send its catalog request, unless that already happened
+     */
+    private synchronized void send(Batch batch) {
+        if (open != batch) {
+            return;
+        }
+        open = null;
+        List<String> assetIds = List.copyOf(batch.assetIds);
+        batchSizes.record(assetIds.size());
+        LOGGER.debug("Requesting catalog for a batch of {} asset(s)", assetIds.size());
+        executor.execute(() -> {
+            try {
+                batch.result.complete(batchQuery.query(assetIds));
+            } catch (Exception e) {
+                batch.result.completeExceptionally(e);
+            }
+        });
+    }
+
+    private static final class Batch {
+        private final Set<String> assetIds = new LinkedHashSet<>();
+        private final CompletableFuture<List<CatalogResponse.Dataset>> result = new CompletableFuture<>();
+    }
+}
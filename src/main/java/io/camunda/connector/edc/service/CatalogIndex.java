@@ -0,0 +1,328 @@
+package io.camunda.connector.edc.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.camunda.connector.edc.config.EdcConnectorSettings;
+import io.camunda.connector.edc.model.EdcConnectorRequest;
+import io.camunda.connector.edc.model.management.CatalogResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Complete catalogs of configured providers, indexed by provider and asset ID.
+ *
+ * Catalogs are fetched page by page at startup and refreshed on a jittered schedule, so jobs
+ * for these providers find their dataset without a catalog request. Each provider is refreshed
+ * on its own, so a slow or unreachable provider does not hold up the others. A failed refresh keeps the
+ * previous catalog until it is too old to be served. Datasets of one provider mostly carry the
+ * same permissions and constraints, so equal policy subtrees are held once; the shared trees
+ * must not be modified.
+ */
+public class CatalogIndex {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CatalogIndex.class);
+    private static final double JITTER = 0.1;
+    private static final Duration RETRY_DELAY = Duration.ofSeconds(30);
+    private static final int MAX_CONCURRENT_REFRESHES = 4;
+
+    /**
+     * Requests one page of a provider's catalog
+     */
+    @FunctionalInterface
+    public interface CatalogPage {
+        /**
+         * @param managementUrl management API to request the catalog through
+         * @param dspAddress DSP endpoint of the provider, null to resolve it from its did:web document
+         */
+        List<CatalogResponse.Dataset> fetch(String managementUrl, String providerDid, String dspAddress, int offset,
+                                            int limit, Deadline deadline) throws Exception;
+    }
+
+    /**
+     * A provider whose catalog is indexed. Without a DSP address, its endpoint is resolved
+     * from its did:web document.
+     */
+    public record Provider(String did, String dspAddress) {
+
+        /**
+         * The provider a job asks for: jobs without a provider URL resolve the endpoint from the
+         * DID document, like an indexed did:web provider, others name their DSP address
+         */
+        static Provider of(EdcConnectorRequest request) {
+            boolean resolved = request.getProviderUrl() == null || request.getProviderUrl().trim().isEmpty();
+            return new Provider(request.getProviderDid(), resolved ? null : request.getDspAddress());
+        }
+
+        /**
+         * Parse "did=dspAddress", or a did:web DID alone
+         */
+        static Provider parse(String entry) {
+            String[] pair = entry.split("=", 2);
+            String did = pair[0].trim();
+            String dspAddress = pair.length == 2 ? pair[1].trim() : null;
+            if (did.isEmpty() || (dspAddress == null && !DidWebResolver.isDidWeb(did))
+                    || (dspAddress != null && dspAddress.isEmpty())) {
+                throw new IllegalArgumentException(
+                        "Indexed provider must be given as did=dspAddress or as did:web DID. Got: " + entry);
+            }
+            return new Provider(did, dspAddress);
+        }
+
+        /**
+         * Meter tags; one DID may be indexed under several DSP addresses
+         */
+        private Tags tags() {
+            return Tags.of("provider", did, "address", dspAddress != null ? dspAddress : "did-document");
+        }
+    }
+
+    private final String managementUrl;
+    private final CatalogPage catalogPage;
+    private final Duration refreshInterval;
+    private final Duration maxAge;
+    private final int pageSize;
+    private final int maxDatasets;
+    private final MeterRegistry registry;
+    private final Map<Provider, Snapshot> snapshots = new ConcurrentHashMap<>();
+    private final Counter hits;
+    private final Counter misses;
+    private final Timer refreshSucceeded;
+    private final Timer refreshFailed;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "edc-catalog-index");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final ThreadPoolExecutor refresher;
+
+    /**
+     * @param managementUrl management API of the consumer connector the catalogs are requested through
+     * @param maxAge age after which a catalog that could not be refreshed is no longer served
+     */
+    public CatalogIndex(String managementUrl, CatalogPage catalogPage, Duration refreshInterval, Duration maxAge,
+                        int pageSize, int maxDatasets, MeterRegistry registry) {
+        this.managementUrl = managementUrl;
+        this.catalogPage = catalogPage;
+        this.refreshInterval = refreshInterval;
+        this.maxAge = maxAge;
+        this.pageSize = pageSize;
+        this.maxDatasets = maxDatasets;
+        this.registry = registry;
+        this.hits = lookupCounter("hit");
+        this.misses = lookupCounter("miss");
+        this.refreshSucceeded = refreshTimer("success");
+        this.refreshFailed = refreshTimer("failure");
+        ThreadPoolExecutor refresher = new ThreadPoolExecutor(MAX_CONCURRENT_REFRESHES, MAX_CONCURRENT_REFRESHES,
+                30, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "edc-catalog-index-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        refresher.allowCoreThreadTimeOut(true);
+        this.refresher = refresher;
+    }
+
+    /**
+     * Index from the settings, null if no providers are configured
+     */
+    public static CatalogIndex fromSettings(CatalogPage catalogPage) {
+        List<String> entries = EdcConnectorSettings.getList("edc.connector.catalog.index.providers");
+        if (entries.isEmpty()) {
+            return null;
+        }
+        String managementUrl = EdcConnectorSettings.getString("edc.connector.catalog.index.management-url", null);
+        if (managementUrl == null || managementUrl.isBlank()) {
+            throw new IllegalArgumentException(
+                    "edc.connector.catalog.index.management-url is required to index provider catalogs");
+        }
+        Duration refreshInterval = EdcConnectorSettings.getDuration(
+                "edc.connector.catalog.index.refresh-interval", Duration.ofMinutes(5));
+        CatalogIndex index = new CatalogIndex(
+                managementUrl.trim(),
+                catalogPage,
+                refreshInterval,
+                EdcConnectorSettings.getDuration("edc.connector.catalog.index.max-age", refreshInterval.multipliedBy(3)),
+                EdcConnectorSettings.getInt("edc.connector.catalog.index.page-size", 200),
+                EdcConnectorSettings.getInt("edc.connector.catalog.index.max-datasets", 100_000),
+                Metrics.globalRegistry
+        );
+        for (String entry : entries) {
+            index.start(Provider.parse(entry));
+        }
+        return index;
+    }
+
+    public String getManagementUrl() {
+        return managementUrl;
+    }
+
+    /**
+     * Fetch the provider's catalog now and keep refreshing it
+     */
+    public void start(Provider provider) {
+        Gauge.builder("edc.connector.catalog.index.size", this, index -> index.getSize(provider))
+                .description("Datasets in the indexed catalog")
+                .tags(provider.tags())
+                .register(registry);
+        Gauge.builder("edc.connector.catalog.index.age", this, index -> index.getAgeSeconds(provider))
+                .description("Time since the indexed catalog was last refreshed")
+                .tags(provider.tags())
+                .baseUnit("seconds")
+                .register(registry);
+        refresher.execute(() -> refresh(provider));
+    }
+
+    /**
+     * Dataset of the asset from the provider's indexed catalog, or null if it has to be queried
+     */
+    public CatalogResponse.Dataset lookup(Provider provider, String assetId) {
+        Snapshot snapshot = snapshots.get(provider);
+        if (snapshot == null) {
+            return null; // Not indexed, or not fetched yet
+        }
+        CatalogResponse.Dataset dataset = snapshot.isOlderThan(maxAge) ? null : snapshot.datasets.get(assetId);
+        (dataset != null ? hits : misses).increment();
+        return dataset;
+    }
+
+    /**
+     * Stop serving the asset until the next refresh, e.g. because its offer was rejected
+     */
+    public void invalidate(Provider provider, String assetId) {
+        Snapshot snapshot = snapshots.get(provider);
+        if (snapshot != null && snapshot.datasets.remove(assetId) != null) {
+            LOGGER.info("Removed asset {} of {} from the catalog index until the next refresh", assetId, provider.did());
+        }
+    }
+
+    public int getSize(Provider provider) {
+        Snapshot snapshot = snapshots.get(provider);
+        return snapshot != null ? snapshot.datasets.size() : 0;
+    }
+
+    public double getAgeSeconds(Provider provider) {
+        Snapshot snapshot = snapshots.get(provider);
+        return snapshot != null ? (System.nanoTime() - snapshot.refreshedAtNanos) / 1e9 : Double.NaN;
+    }
+
+    private void refresh(Provider provider) {
+        long start = System.nanoTime();
+        Duration next = refreshInterval;
+        try {
+            Map<String, CatalogResponse.Dataset> datasets = fetchAll(provider);
+            snapshots.put(provider, new Snapshot(datasets, System.nanoTime()));
+            refreshSucceeded.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            LOGGER.info("Indexed {} dataset(s) of {} in {} ms", datasets.size(), provider.did(),
+                    Duration.ofNanos(System.nanoTime() - start).toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } catch (Exception e) {
+            refreshFailed.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            LOGGER.warn("Refreshing the catalog index of {} failed: {}", provider.did(), e.toString());
+            next = RETRY_DELAY.compareTo(refreshInterval) < 0 ? RETRY_DELAY : refreshInterval;
+        }
+        // Jitter keeps the refreshes of several providers and replicas from lining up
+        long delayNanos = (long) (next.toNanos() * (1 + ThreadLocalRandom.current().nextDouble(-JITTER, JITTER)));
+        if (!scheduler.isShutdown()) {
+            scheduler.schedule(() -> refresher.execute(() -> refresh(provider)), delayNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Map<String, CatalogResponse.Dataset> fetchAll(Provider provider) throws Exception {
+        Map<JsonNode, JsonNode> interned = new HashMap<>();
+        Map<String, CatalogResponse.Dataset> datasets = new ConcurrentHashMap<>();
+        for (int offset = 0; offset < maxDatasets; offset += pageSize) {
+            int limit = Math.min(pageSize, maxDatasets - offset);
+            List<CatalogResponse.Dataset> page = catalogPage.fetch(managementUrl, provider.did(), provider.dspAddress(),
+                    offset, limit, Deadline.after(refreshInterval));
+            for (CatalogResponse.Dataset dataset : page) {
+                if (dataset.id() != null) {
+                    datasets.put(dataset.id(), intern(dataset, interned));
+                }
+            }
+            if (page.size() < limit) {
+                return datasets;
+            }
+        }
+        LOGGER.warn("Catalog of {} has more than {} datasets, the rest is queried per job", provider.did(),
+                maxDatasets);
+        return datasets;
+    }
+
+    private static CatalogResponse.Dataset intern(CatalogResponse.Dataset dataset, Map<JsonNode, JsonNode> interned) {
+        if (dataset.policies() == null) {
+            return dataset;
+        }
+        List<JsonNode> policies = new ArrayList<>(dataset.policies().size());
+        for (JsonNode policy : dataset.policies()) {
+            policies.add(intern(policy, interned));
+        }
+        return new CatalogResponse.Dataset(dataset.id(), List.copyOf(policies));
+    }
+
+    /**
+     * Replace equal subtrees by the instance seen first, bottom-up
+     */
+    static JsonNode intern(JsonNode node, Map<JsonNode, JsonNode> interned) {
+        if (node instanceof ObjectNode object) {
+            for (Iterator<Map.Entry<String, JsonNode>> fields = object.fields(); fields.hasNext(); ) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                field.setValue(intern(field.getValue(), interned));
+            }
+        } else if (node instanceof ArrayNode array) {
+            for (int i = 0; i < array.size(); i++) {
+                array.set(i, intern(array.get(i), interned));
+            }
+        }
+        JsonNode existing = interned.putIfAbsent(node, node);
+        return existing != null ? existing : node;
+    }
+
+    public void close() {
+        scheduler.shutdownNow();
+        refresher.shutdownNow();
+    }
+
+    private Counter lookupCounter(String result) {
+        return Counter.builder("edc.connector.catalog.index.lookups")
+                .description("Catalog lookups by index outcome")
+                .tag("result", result)
+                .register(registry);
+    }
+
+    private Timer refreshTimer(String outcome) {
+        return Timer.builder("edc.connector.catalog.index.refresh")
+                .description("Duration of full catalog refreshes")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    private record Snapshot(Map<String, CatalogResponse.Dataset> datasets, long refreshedAtNanos) {
+
+        private boolean isOlderThan(Duration age) {
+            return System.nanoTime() - refreshedAtNanos > age.toNanos();
+        }
+    }
+}
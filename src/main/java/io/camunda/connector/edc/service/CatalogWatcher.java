@@ -0,0 +1,357 @@
+package io.camunda.connector.edc.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.TextNode;
+import io.camunda.connector.edc.model.CatalogChangeEvent;
+import io.camunda.connector.edc.model.management.ManagementApiJson;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Detects datasets added to, changed in or removed from a provider's catalog.
+ *
+ * Every poll reads the catalog page by page as a token stream and holds only the dataset being
+ * read, so the memory needed does not grow with the catalog beyond one hash per asset. A dataset
+ * is hashed over its asset ID and its policies with object keys sorted and the offer IDs left
+ * out, because providers generate a new offer ID for every catalog request. The hashes of the
+ * last poll are the snapshot the next poll is diffed against; it survives restarts if a file is
+ * given. A change is only recorded in the snapshot once it was delivered, so a failed delivery
+ * is reported again by the next poll.
+ *
+ * Pages are requested by offset, so datasets added or removed while a poll runs shift the later
+ * pages and a dataset may be missed by one poll. A removal is therefore only reported once two
+ * consecutive polls did not see the dataset; a removal may so be reported one poll late.
+ */
+public class CatalogWatcher {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CatalogWatcher.class);
+    private static final ObjectMapper objectMapper = ManagementApiJson.MAPPER;
+    private static final TypeReference<HashMap<String, String>> SNAPSHOT_TYPE = new TypeReference<>() { };
+    // Only fires the watchdogs that abort page reads at the poll deadline, shared by all watchers
+    private static final ScheduledExecutorService WATCHDOG_TIMER = Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+                Thread thread = new Thread(runnable, "edc-catalog-watch-deadline");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    /**
+     * Opens the response body of one page of the provider's catalog
+     */
+    @FunctionalInterface
+    public interface CatalogSource {
+        InputStream openPage(int offset, int limit, Deadline deadline) throws Exception;
+    }
+
+    /**
+     * Delivers a change, e.g. by correlating it with a process
+     */
+    @FunctionalInterface
+    public interface ChangeListener {
+        /**
+         * @return false to report the change again with the next poll
+         */
+        boolean onChange(CatalogChangeEvent event) throws Exception;
+    }
+
+    /**
+     * Outcome of one poll
+     */
+    public record PollResult(int datasets, int added, int changed, int removed, int undelivered) {
+    }
+
+    private final String providerDid;
+    private final CatalogSource source;
+    private final ChangeListener listener;
+    private final int pageSize;
+    private final boolean reportExisting;
+    private final Path snapshotFile;
+    private final Map<String, String> snapshot;
+    private Set<String> missing = new HashSet<>();
+    private final Timer pollSucceeded;
+    private final Timer pollFailed;
+    private final MeterRegistry registry;
+    private boolean baselined;
+
+    /**
+     * @param reportExisting report the datasets found by the first poll without a stored snapshot as added
+     * @param snapshotFile file the snapshot is kept in across restarts, null to keep it in memory only
+     */
+    public CatalogWatcher(String providerDid, CatalogSource source, ChangeListener listener, int pageSize,
+                          boolean reportExisting, Path snapshotFile, MeterRegistry registry) throws IOException {
+        this.providerDid = providerDid;
+        this.source = source;
+        this.listener = listener;
+        this.pageSize = pageSize;
+        this.reportExisting = reportExisting;
+        this.snapshotFile = snapshotFile;
+        this.registry = registry;
+        this.pollSucceeded = pollTimer("success");
+        this.pollFailed = pollTimer("failure");
+        if (snapshotFile != null && Files.exists(snapshotFile)) {
+            this.snapshot = objectMapper.readValue(snapshotFile.toFile(), SNAPSHOT_TYPE);
+            this.baselined = true;
+            LOGGER.info("Loaded catalog snapshot of {} with {} dataset(s) from {}", providerDid, snapshot.size(),
+                    snapshotFile);
+        } else {
+            this.snapshot = new HashMap<>();
+        }
+    }
+
+    /**
+     * Fetch the whole catalog and report every difference to the snapshot
+     */
+    public synchronized PollResult poll(Deadline deadline) throws Exception {
+        long start = System.nanoTime();
+        try {
+            PollResult result = diff(deadline);
+            pollSucceeded.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return result;
+        } catch (Exception e) {
+            pollFailed.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+    }
+
+    public synchronized int getSize() {
+        return snapshot.size();
+    }
+
+    private PollResult diff(Deadline deadline) throws Exception {
+        boolean report = baselined || reportExisting;
+        Set<String> seen = new HashSet<>();
+        int[] counts = new int[4]; // added, changed, removed, undelivered
+
+        try {
+            readCatalog(deadline, report, seen, counts);
+            // Removals are only known once the whole catalog was read, and only certain if the previous poll agrees
+            Set<String> missingNow = new HashSet<>();
+            for (Iterator<Map.Entry<String, String>> entries = snapshot.entrySet().iterator(); entries.hasNext(); ) {
+                Map.Entry<String, String> entry = entries.next();
+                if (seen.contains(entry.getKey())) {
+                    continue;
+                }
+                if (report && !missing.contains(entry.getKey())) {
+                    missingNow.add(entry.getKey());
+                } else if (!report || deliver(new CatalogChangeEvent(
+                        CatalogChangeEvent.REMOVED, entry.getKey(), providerDid, null, entry.getValue(), null),
+                        counts)) {
+                    entries.remove();
+                } else {
+                    missingNow.add(entry.getKey());
+                }
+            }
+            missing = missingNow;
+            baselined = true;
+        } finally {
+            // Changes delivered before a failure must not be reported again after a restart
+            if (snapshotFile != null && baselined) {
+                saveSnapshot();
+            }
+        }
+        return new PollResult(seen.size(), counts[0], counts[1], counts[2], counts[3]);
+    }
+
+    private void readCatalog(Deadline deadline, boolean report, Set<String> seen, int[] counts) throws Exception {
+        for (int offset = 0; ; offset += pageSize) {
+            int read = -1;
+            try (InputStream page = source.openPage(offset, pageSize, deadline)) {
+                // The deadline only bounds the response headers, a provider stalling in the body is cut off here
+                Deadline.Watchdog watchdog = deadline.watch(WATCHDOG_TIMER);
+                try {
+                    read = readDatasets(page, dataset -> {
+                        String assetId = dataset.path("@id").asText(null);
+                        // Pages of a catalog that changed in between may overlap
+                        if (assetId == null || !seen.add(assetId)) {
+                            return;
+                        }
+                        JsonNode policies = dataset.get("odrl:hasPolicy");
+                        String hash = hash(assetId, policies);
+                        String previous = snapshot.get(assetId);
+                        if (hash.equals(previous)) {
+                            return;
+                        }
+                        String change = previous == null ? CatalogChangeEvent.ADDED : CatalogChangeEvent.CHANGED;
+                        if (!report || deliver(new CatalogChangeEvent(change, assetId, providerDid, hash, previous,
+                                policies), counts)) {
+                            snapshot.put(assetId, hash);
+                        }
+                    });
+                } catch (IOException e) {
+                    if (!watchdog.hasFired()) {
+                        throw e;
+                    }
+                } finally {
+                    watchdog.close();
+                }
+                if (watchdog.hasFired()) {
+                    throw deadline.exceeded("reading the catalog page at offset " + offset);
+                }
+            }
+            if (read < pageSize) {
+                return;
+            }
+        }
+    }
+
+    private boolean deliver(CatalogChangeEvent event, int[] counts) throws Exception {
+        if (!listener.onChange(event)) {
+            counts[3]++;
+            return false;
+        }
+        switch (event.getChange()) {
+            case CatalogChangeEvent.ADDED -> counts[0]++;
+            case CatalogChangeEvent.CHANGED -> counts[1]++;
+            default -> counts[2]++;
+        }
+        Counter.builder("edc.connector.catalog.watch.changes")
+                .description("Catalog changes delivered by the catalog watcher")
+                .tag("change", event.getChange())
+                .register(registry)
+                .increment();
+        return true;
+    }
+
+    private void saveSnapshot() throws IOException {
+        Path parent = snapshotFile.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temp = Files.createTempFile(parent, "catalog-snapshot-", ".tmp");
+        try {
+            objectMapper.writeValue(temp.toFile(), snapshot);
+            Files.move(temp, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Visits one dataset of a catalog page
+     */
+    @FunctionalInterface
+    interface DatasetVisitor {
+        void visit(JsonNode dataset) throws Exception;
+    }
+
+    /**
+     * Read the datasets of a catalog response one at a time
+     *
+     * @return number of datasets read
+     */
+    static int readDatasets(InputStream catalog, DatasetVisitor visitor) throws Exception {
+        int count = 0;
+        try (JsonParser parser = objectMapper.createParser(catalog)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Catalog response is not a JSON object");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if (!"dcat:dataset".equals(field)) {
+                    parser.skipChildren();
+                } else if (value == JsonToken.START_ARRAY) {
+                    while (parser.nextToken() == JsonToken.START_OBJECT) {
+                        visitor.visit(objectMapper.readTree(parser));
+                        count++;
+                    }
+                } else if (value == JsonToken.START_OBJECT) {
+                    // JSON-LD compaction turns a single dataset into a plain object
+                    visitor.visit(objectMapper.readTree(parser));
+                    count++;
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Hex encoded SHA-256 of the asset ID and its policies, independent of key order, policy
+     * order and offer IDs
+     */
+    static String hash(String assetId, JsonNode policies) {
+        List<String> canonical = new ArrayList<>();
+        if (policies != null && policies.isArray()) {
+            for (JsonNode policy : policies) {
+                canonical.add(canonical(policy, new StringBuilder(), true).toString());
+            }
+        } else if (policies != null && !policies.isNull()) {
+            canonical.add(canonical(policies, new StringBuilder(), true).toString());
+        }
+        Collections.sort(canonical);
+
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+        digest.update(assetId.getBytes(StandardCharsets.UTF_8));
+        for (String policy : canonical) {
+            digest.update((byte) 0);
+            digest.update(policy.getBytes(StandardCharsets.UTF_8));
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static StringBuilder canonical(JsonNode node, StringBuilder out, boolean offer) {
+        if (node.isObject()) {
+            List<String> names = new ArrayList<>();
+            node.fieldNames().forEachRemaining(names::add);
+            Collections.sort(names);
+            out.append('{');
+            for (String name : names) {
+                if (offer && "@id".equals(name)) {
+                    continue;
+                }
+                out.append(TextNode.valueOf(name)).append(':');
+                canonical(node.get(name), out, false).append(',');
+            }
+            out.append('}');
+        } else if (node.isArray()) {
+            out.append('[');
+            for (JsonNode element : node) {
+                canonical(element, out, false).append(',');
+            }
+            out.append(']');
+        } else {
+            out.append(node);
+        }
+        return out;
+    }
+
+    private Timer pollTimer(String outcome) {
+        return Timer.builder("edc.connector.catalog.watch.poll")
+                .description("Duration of catalog watcher polls")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+}
@@ -0,0 +1,330 @@
+package io.camunda.connector.edc.service;
+
+import io.camunda.connector.edc.model.EdcConnectorResponse;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end time budget for one EDC workflow execution.
+ *
+ * The deadline is fixed when the workflow starts; HTTP timeouts and poll waits are derived from
+ * the remaining budget. Time spent per stage is recorded with the monotonic clock so a timeout
+ * can report where the budget went. HTTP statuses, poll attempts, bytes received and cache hits
+ * are counted per stage as well and can be returned as diagnostics of the workflow.
+ *
+ * A deadline can also be cancelled from another thread. The thread running the workflow is
+ * interrupted, which aborts pending HTTP calls and waits, and no further call is started.
+ * Job workers that only know the thread running a job, such as the standalone runtime when
+ * Zeebe's job timeout passes, cancel through {@link #cancel(Thread, String)}.
+ */
+public class Deadline {
+
+    private final long startNanos;
+    private final long deadlineNanos;
+    private static final int MAX_STATUSES_PER_STAGE = 100;
+    private static final Duration MIN_REQUEST_TIMEOUT = Duration.ofMillis(1);
+    // Deadlines by the thread their workflow runs on, between bindToCurrentThread and release
+    private static final Map<Thread, Deadline> BOUND = new ConcurrentHashMap<>();
+
+    private final Map<String, Stage> stages = new LinkedHashMap<>();
+    private String currentStage;
+    private long currentStageStart;
+    private Thread owner;
+    private volatile String cancelReason;
+
+    private Deadline(long startNanos, long budgetNanos) {
+        this.startNanos = startNanos;
+        this.deadlineNanos = startNanos + budgetNanos;
+    }
+
+    public static Deadline after(Duration budget) {
+        return new Deadline(System.nanoTime(), budget.toNanos());
+    }
+
+    /**
+     * Start a new stage, ending the current one
+     */
+    public synchronized void startStage(String stage) {
+        endStage();
+        currentStage = stage;
+        currentStageStart = System.nanoTime();
+    }
+
+    public synchronized void endStage() {
+        if (currentStage != null) {
+            stage(currentStage).nanos += System.nanoTime() - currentStageStart;
+            currentStage = null;
+        }
+    }
+
+    /**
+     * Status of an HTTP response received in the current stage, 0 if no response arrived
+     */
+    public synchronized void recordHttpStatus(int status) {
+        List<Integer> statuses = stage(currentStageOrOther()).statuses;
+        if (statuses.size() < MAX_STATUSES_PER_STAGE) {
+            statuses.add(status);
+        }
+    }
+
+    public synchronized void recordPolls(int polls) {
+        stage(currentStageOrOther()).polls += polls;
+    }
+
+    public synchronized void recordBytes(long bytes) {
+        stage(currentStageOrOther()).bytes += bytes;
+    }
+
+    /**
+     * A result of the current stage came from a cache instead of the EDC
+     */
+    public synchronized void recordCacheHit() {
+        stage(currentStageOrOther()).cacheHits++;
+    }
+
+    /**
+     * Per-stage statistics recorded so far; a running stage is included with its time up to now
+     */
+    public synchronized EdcConnectorResponse.Diagnostics diagnostics() {
+        List<EdcConnectorResponse.StageDiagnostics> result = new ArrayList<>();
+        for (Map.Entry<String, Stage> entry : stages.entrySet()) {
+            Stage stage = entry.getValue();
+            long nanos = stage.nanos;
+            if (entry.getKey().equals(currentStage)) {
+                nanos += System.nanoTime() - currentStageStart;
+            }
+            EdcConnectorResponse.StageDiagnostics stageDiagnostics = new EdcConnectorResponse.StageDiagnostics();
+            stageDiagnostics.setStage(entry.getKey());
+            stageDiagnostics.setMillis(Duration.ofNanos(nanos).toMillis());
+            stageDiagnostics.setHttpStatuses(List.copyOf(stage.statuses));
+            stageDiagnostics.setPollAttempts(stage.polls);
+            stageDiagnostics.setBytes(stage.bytes);
+            stageDiagnostics.setCacheHits(stage.cacheHits);
+            result.add(stageDiagnostics);
+        }
+        EdcConnectorResponse.Diagnostics diagnostics = new EdcConnectorResponse.Diagnostics();
+        diagnostics.setTotalMillis(elapsed().toMillis());
+        diagnostics.setStages(result);
+        return diagnostics;
+    }
+
+    public Duration remaining() {
+        return Duration.ofNanos(Math.max(0, deadlineNanos - System.nanoTime()));
+    }
+
+    public Duration elapsed() {
+        return Duration.ofNanos(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Let {@link #cancel(String)} interrupt the current thread until {@link #release()}
+     */
+    public synchronized void bindToCurrentThread() {
+        owner = Thread.currentThread();
+        BOUND.put(owner, this);
+        if (cancelReason != null) {
+            owner.interrupt();
+        }
+    }
+
+    /**
+     * Stop interrupting the bound thread. Must be called by that thread once the workflow ended;
+     * an interrupt caused by a late cancellation is cleared.
+     */
+    public synchronized void release() {
+        if (owner != null) {
+            BOUND.remove(owner, this);
+        }
+        owner = null;
+        if (cancelReason != null) {
+            Thread.interrupted();
+        }
+    }
+
+    /**
+     * Cancel the workflow and interrupt the thread running it
+     *
+     * @return false if the deadline was already cancelled
+     */
+    public synchronized boolean cancel(String reason) {
+        if (cancelReason != null) {
+            return false;
+        }
+        cancelReason = reason;
+        if (owner != null) {
+            owner.interrupt();
+        }
+        return true;
+    }
+
+    /**
+     * Cancel the workflow running on the given thread
+     *
+     * @return false if no workflow runs on the thread or it was already cancelled
+     */
+    public static boolean cancel(Thread thread, String reason) {
+        Deadline deadline = BOUND.get(thread);
+        return deadline != null && deadline.cancel(reason);
+    }
+
+    public boolean isCancelled() {
+        return cancelReason != null;
+    }
+
+    public boolean isExpired() {
+        return deadlineNanos - System.nanoTime() <= 0;
+    }
+
+    /**
+     * Timeout for a single HTTP request: the remaining budget, capped at the given maximum
+     *
+     * @throws DeadlineExceededException if no budget is left
+     */
+    public Duration requestTimeout(Duration max) {
+        if (isCancelled()) {
+            throw cancelled();
+        }
+        Duration remaining = remaining();
+        if (remaining.isZero()) {
+            throw exceeded(null);
+        }
+        Duration timeout = remaining.compareTo(max) < 0 ? remaining : max;
+        // HttpRequest rejects a zero timeout, a budget just running out must still end as a timeout
+        return timeout.compareTo(MIN_REQUEST_TIMEOUT) < 0 ? MIN_REQUEST_TIMEOUT : timeout;
+    }
+
+    /**
+     * Interrupt the current thread once the deadline passes, for blocking reads such as a
+     * response body that no HTTP timeout covers. Must be closed by the same thread when the read
+     * is over; an interrupt caused by the watchdog is cleared then.
+     */
+    public Watchdog watch(ScheduledExecutorService scheduler) {
+        Watchdog watchdog = new Watchdog(Thread.currentThread());
+        watchdog.timer = scheduler.schedule(watchdog::expire, remaining().toNanos(), TimeUnit.NANOSECONDS);
+        return watchdog;
+    }
+
+    /**
+     * Sleep for the given interval or until the deadline, whichever comes first
+     */
+    public void sleep(Duration interval) throws InterruptedException {
+        Duration remaining = remaining();
+        Duration wait = remaining.compareTo(interval) < 0 ? remaining : interval;
+        if (!wait.isZero()) {
+            Thread.sleep(wait.toMillis(), wait.toNanosPart() % 1_000_000);
+        }
+    }
+
+    public void checkNotExpired() {
+        if (isCancelled()) {
+            throw cancelled();
+        }
+        if (isExpired()) {
+            throw exceeded(null);
+        }
+    }
+
+    /**
+     * Exception describing an exhausted budget, including the per-stage breakdown
+     */
+    public DeadlineExceededException exceeded(String detail) {
+        String message = "EDC workflow timeout after " + elapsed().toMillis() + " ms";
+        if (detail != null) {
+            message += " while " + detail;
+        }
+        return new DeadlineExceededException(message + ". Stage breakdown: " + breakdown());
+    }
+
+    /**
+     * Exception describing the cancellation, including the per-stage breakdown
+     */
+    public WorkflowCancelledException cancelled() {
+        return new WorkflowCancelledException("EDC workflow cancelled after " + elapsed().toMillis() + " ms: "
+                + cancelReason + ". Stage breakdown: " + breakdown());
+    }
+
+    /**
+     * Time spent per stage, e.g. "catalog=120ms, negotiation=59880ms (running)"
+     */
+    public synchronized String breakdown() {
+        StringBuilder builder = new StringBuilder();
+        for (Map.Entry<String, Stage> stage : stages.entrySet()) {
+            if (stage.getValue().nanos > 0 || !stage.getKey().equals(currentStage)) {
+                appendStage(builder, stage.getKey(), stage.getValue().nanos, false);
+            }
+        }
+        if (currentStage != null) {
+            appendStage(builder, currentStage, System.nanoTime() - currentStageStart, true);
+        }
+        return builder.length() == 0 ? "none" : builder.toString();
+    }
+
+    private Stage stage(String name) {
+        return stages.computeIfAbsent(name, key -> new Stage());
+    }
+
+    private String currentStageOrOther() {
+        return currentStage != null ? currentStage : "other";
+    }
+
+    private static void appendStage(StringBuilder builder, String stage, long nanos, boolean running) {
+        if (builder.length() > 0) {
+            builder.append(", ");
+        }
+        builder.append(stage).append('=').append(Duration.ofNanos(nanos).toMillis()).append("ms");
+        if (running) {
+            builder.append(" (running)");
+        }
+    }
+
+    /**
+     * Interrupts a blocked reader at the deadline
+     */
+    public static final class Watchdog implements AutoCloseable {
+
+        private final Thread reader;
+        private ScheduledFuture<?> timer;
+        private boolean fired;
+        private boolean closed;
+
+        private Watchdog(Thread reader) {
+            this.reader = reader;
+        }
+
+        private synchronized void expire() {
+            if (!closed) {
+                fired = true;
+                reader.interrupt();
+            }
+        }
+
+        public synchronized boolean hasFired() {
+            return fired;
+        }
+
+        @Override
+        public synchronized void close() {
+            closed = true;
+            timer.cancel(false);
+            if (fired) {
+                Thread.interrupted();
+            }
+        }
+    }
+
+    private static final class Stage {
+        private final List<Integer> statuses = new ArrayList<>();
+        private long nanos;
+        private int polls;
+        private long bytes;
+        private int cacheHits;
+    }
+}
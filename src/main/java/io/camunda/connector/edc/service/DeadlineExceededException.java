@@ -0,0 +1,11 @@
+package io.camunda.connector.edc.service;
+
+/**
+ * Thrown when an EDC workflow runs out of its end-to-end time budget
+ */
+public class DeadlineExceededException extends RuntimeException {
+
+    public DeadlineExceededException(String message) {
+        super(message);
+    }
+}
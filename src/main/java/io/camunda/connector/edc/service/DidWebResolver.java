@@ -0,0 +1,317 @@
+package io.camunda.connector.edc.service;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectReader;
+import io.camunda.connector.edc.config.EdcConnectorSettings;
+import io.camunda.connector.edc.model.management.ManagementApiJson;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Resolves did:web provider DIDs to the DSP endpoint announced in their DID document.
+ *
+ * Endpoints are cached for a fixed time, and failed resolutions for a shorter one so that a
+ * missing document is not fetched by every job. Concurrent lookups of the same DID share one
+ * fetch, and endpoints that were used since they were resolved are refreshed in the background
+ * before they expire. A failed refresh keeps the previous endpoint until it expires. Documents
+ * are fetched on a small pool of their own, so a slow DID host does not hold up the refresh
+ * timers of other DIDs.
+ */
+public class DidWebResolver {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DidWebResolver.class);
+    private static final ObjectReader DOCUMENT_READER = ManagementApiJson.MAPPER.readerFor(DidDocument.class);
+    private static final String DID_WEB_PREFIX = "did:web:";
+    private static final double REFRESH_RATIO = 0.8;
+    private static final int MAX_CONCURRENT_FETCHES = 4;
+
+    private final HttpClient httpClient;
+    private final String scheme;
+    private final Set<String> serviceTypes;
+    private final Duration ttl;
+    private final Duration negativeTtl;
+    private final Duration requestTimeout;
+    private final Set<String> pinned = ConcurrentHashMap.newKeySet();
+    private final Map<String, Resolution> resolutions = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<Resolution>> inFlight = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "edc-did-resolver");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final ExecutorService fetcher;
+
+    /**
+     * @param scheme scheme of DID document URLs, "https" as the did:web method requires or "http" for local setups
+     * @param serviceTypes DID document service types announcing the DSP endpoint
+     */
+    public DidWebResolver(HttpClient httpClient, String scheme, Set<String> serviceTypes, Duration ttl,
+                          Duration negativeTtl, Duration requestTimeout) {
+        this.httpClient = httpClient;
+        this.scheme = scheme;
+        this.serviceTypes = serviceTypes;
+        this.ttl = ttl;
+        this.negativeTtl = negativeTtl;
+        this.requestTimeout = requestTimeout;
+
+        ThreadPoolExecutor fetcher = new ThreadPoolExecutor(MAX_CONCURRENT_FETCHES, MAX_CONCURRENT_FETCHES,
+                30, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "edc-did-fetch");
+            thread.setDaemon(true);
+            return thread;
+        });
+        fetcher.allowCoreThreadTimeOut(true);
+        this.fetcher = fetcher;
+    }
+
+    public static DidWebResolver fromSettings(HttpClient httpClient, Duration requestTimeout) {
+        List<String> serviceTypes = EdcConnectorSettings.getList("edc.connector.did.service-types");
+        DidWebResolver resolver = new DidWebResolver(
+                httpClient,
+                EdcConnectorSettings.getString("edc.connector.did.scheme", "https"),
+                Set.copyOf(serviceTypes.isEmpty() ? List.of("ProtocolEndpoint", "DataService", "DSPMessaging")
+                        : serviceTypes),
+                EdcConnectorSettings.getDuration("edc.connector.did.ttl", Duration.ofMinutes(5)),
+                EdcConnectorSettings.getDuration("edc.connector.did.negative-ttl", Duration.ofSeconds(30)),
+                requestTimeout
+        );
+        resolver.prefetch(EdcConnectorSettings.getList("edc.connector.did.prefetch"));
+        return resolver;
+    }
+
+    public static boolean isDidWeb(String did) {
+        return did != null && did.startsWith(DID_WEB_PREFIX);
+    }
+
+    /**
+     * URL of the DID document of a did:web DID: did:web:host serves /.well-known/did.json,
+     * did:web:host:path:to serves /path/to/did.json. A port is given as %3A in the host.
+     */
+    public static URI documentUrl(String did, String scheme) {
+        if (!isDidWeb(did) || did.length() == DID_WEB_PREFIX.length()) {
+            throw new IllegalArgumentException("Not a did:web DID: " + did);
+        }
+        String[] parts = did.substring(DID_WEB_PREFIX.length()).split(":");
+        StringBuilder url = new StringBuilder(scheme).append("://")
+                .append(URLDecoder.decode(parts[0], StandardCharsets.UTF_8));
+        if (parts.length == 1) {
+            url.append("/.well-known");
+        }
+        for (int i = 1; i < parts.length; i++) {
+            if (parts[i].isEmpty()) {
+                throw new IllegalArgumentException("Empty path segment in DID: " + did);
+            }
+            url.append('/').append(parts[i]);
+        }
+        return URI.create(url.append("/did.json").toString());
+    }
+
+    /**
+     * Resolve DIDs in the background and keep them refreshed whether or not jobs use them
+     */
+    public void prefetch(List<String> dids) {
+        for (String did : dids) {
+            pinned.add(did);
+            fetch(did, true).thenAccept(resolution -> {
+                if (resolution.endpoint == null) {
+                    LOGGER.warn("Prefetching DID document of {} failed: {}", did, resolution.failure);
+                }
+            });
+        }
+    }
+
+    /**
+     * Return the DSP endpoint of the DID, resolving its DID document if nothing is cached
+     */
+    public String resolveDspEndpoint(String did, Deadline deadline) throws IOException, InterruptedException {
+        Resolution cached = resolutions.get(did);
+        if (cached == null || cached.isExpired()) {
+            cached = await(fetch(did, true), did, deadline);
+        }
+        cached.used = true;
+        if (cached.endpoint == null) {
+            throw new IOException(cached.failure);
+        }
+        return cached.endpoint;
+    }
+
+    /**
+     * Start resolving the DID or join the resolution already running. On-demand failures are
+     * cached as negative results; failed background refreshes leave the cached endpoint in place.
+     */
+    private CompletableFuture<Resolution> fetch(String did, boolean onDemand) {
+        CompletableFuture<Resolution> created = new CompletableFuture<>();
+        CompletableFuture<Resolution> existing = inFlight.putIfAbsent(did, created);
+        if (existing != null) {
+            return existing;
+        }
+
+        CompletableFuture.runAsync(() -> {
+            long resolvedAt = System.nanoTime();
+            Resolution resolution;
+            try {
+                resolution = new Resolution(requestEndpoint(did), null, resolvedAt, resolvedAt + ttl.toNanos());
+                resolutions.put(did, resolution);
+                scheduleRefresh(did, resolution);
+            } catch (Exception e) {
+                if (!onDemand) {
+                    inFlight.remove(did, created);
+                    created.completeExceptionally(e);
+                    return;
+                }
+                String message = e.getMessage() != null && e.getMessage().contains(did)
+                        ? e.getMessage() : "Failed to resolve DID " + did + ": " + e;
+                resolution = new Resolution(null, message, resolvedAt, resolvedAt + negativeTtl.toNanos());
+                resolutions.put(did, resolution);
+            }
+            // Leave the in-flight map first so that a lookup after completion starts a new fetch
+            inFlight.remove(did, created);
+            created.complete(resolution);
+        }, fetcher);
+        return created;
+    }
+
+    private void scheduleRefresh(String did, Resolution resolution) {
+        long delayNanos = (long) ((resolution.expiresAtNanos - resolution.resolvedAtNanos) * REFRESH_RATIO);
+        refresher.schedule(() -> {
+            if (resolutions.get(did) != resolution) {
+                return; // Replaced in the meantime
+            }
+            if (!resolution.used && !pinned.contains(did)) {
+                // Stop refreshing providers nobody calls anymore
+                resolutions.remove(did, resolution);
+                return;
+            }
+            LOGGER.debug("Refreshing DID document of {} before expiry", did);
+            fetch(did, false).exceptionally(e -> {
+                LOGGER.warn("Background refresh of DID document of {} failed: {}", did, e.toString());
+                return null;
+            });
+        }, delayNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private String requestEndpoint(String did) throws IOException, InterruptedException {
+        URI documentUrl = documentUrl(did, scheme);
+        HttpRequest httpRequest = HttpRequest.newBuilder()
+                .uri(documentUrl)
+                .header("Accept", "application/did+json, application/json")
+                .timeout(requestTimeout)
+                .GET()
+                .build();
+
+        HttpResponse<byte[]> response = httpClient.send(httpRequest, HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != 200) {
+            throw new IOException("Failed to resolve DID " + did + " from " + documentUrl + ". Status: "
+                    + response.statusCode());
+        }
+
+        DidDocument document = DOCUMENT_READER.readValue(response.body());
+        if (!did.equals(document.id())) {
+            throw new IOException("DID document at " + documentUrl + " belongs to " + document.id() + ", not " + did);
+        }
+        String endpoint = document.findEndpoint(serviceTypes);
+        if (endpoint == null) {
+            throw new IOException("DID document of " + did + " announces no service of type " + serviceTypes);
+        }
+        LOGGER.info("Resolved DSP endpoint of {} to {}", did, endpoint);
+        return endpoint;
+    }
+
+    private static Resolution await(CompletableFuture<Resolution> future, String did, Deadline deadline)
+            throws IOException, InterruptedException {
+        try {
+            return future.get(deadline.remaining().toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            throw deadline.exceeded("resolving DID " + did);
+        } catch (ExecutionException e) {
+            throw new IOException("Failed to resolve DID " + did, e.getCause());
+        }
+    }
+
+    public void close() {
+        refresher.shutdownNow();
+        fetcher.shutdownNow();
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    record DidDocument(
+            @JsonProperty("id") String id,
+            @JsonProperty("service") List<Service> service
+    ) {
+
+        /**
+         * Endpoint of the first service of one of the types. Endpoints given as a list use the first URL.
+         */
+        String findEndpoint(Set<String> types) {
+            if (service == null) {
+                return null;
+            }
+            for (Service candidate : service) {
+                if (candidate.type() == null || candidate.type().stream().noneMatch(types::contains)) {
+                    continue;
+                }
+                JsonNode endpoint = candidate.serviceEndpoint();
+                if (endpoint != null && endpoint.isArray()) {
+                    endpoint = endpoint.path(0);
+                }
+                if (endpoint != null && endpoint.isTextual() && !endpoint.asText().isBlank()) {
+                    String url = endpoint.asText().trim();
+                    return url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+                }
+            }
+            return null;
+        }
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    record Service(
+            @JsonProperty("id") String id,
+            @JsonProperty("type") @JsonFormat(with = JsonFormat.Feature.ACCEPT_SINGLE_VALUE_AS_ARRAY) List<String> type,
+            @JsonProperty("serviceEndpoint") JsonNode serviceEndpoint
+    ) {
+    }
+
+    private static final class Resolution {
+        private final String endpoint;
+        private final String failure;
+        private final long resolvedAtNanos;
+        private final long expiresAtNanos;
+        private volatile boolean used;
+
+        private Resolution(String endpoint, String failure, long resolvedAtNanos, long expiresAtNanos) {
+            this.endpoint = endpoint;
+            this.failure = failure;
+            this.resolvedAtNanos = resolvedAtNanos;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+
+        private boolean isExpired() {
+            return expiresAtNanos - System.nanoTime() <= 0;
+        }
+    }
+}
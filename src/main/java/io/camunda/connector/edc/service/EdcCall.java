@@ -0,0 +1,27 @@
+package io.camunda.connector.edc.service;
+
+/**
+ * Management API and data plane calls made by the connector, with their retry semantics
+ */
+public enum EdcCall {
+    CATALOG_QUERY(true),
+    RESOURCE_QUERY(true),
+    NEGOTIATION_CREATE(false),
+    NEGOTIATION_STATE(true),
+    TRANSFER_CREATE(false),
+    TRANSFER_STATE(true),
+    DATA_FETCH(true);
+
+    private final boolean idempotent;
+
+    EdcCall(boolean idempotent) {
+        this.idempotent = idempotent;
+    }
+
+    /**
+     * Idempotent calls can be reissued blindly; the others create resources on the control plane
+     */
+    public boolean isIdempotent() {
+        return idempotent;
+    }
+}
@@ -0,0 +1,121 @@
+package io.camunda.connector.edc.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.ConnectException;
+import java.net.http.HttpClient;
+import java.net.http.HttpConnectTimeoutException;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+
+/**
+ * HTTP client wrapper that applies the retry policy per EDC call type.
+ *
+ * Idempotent calls are retried on transient statuses and I/O errors. Non-idempotent calls are
+ * only retried when the failure proves the request was not processed (connection refused,
+ * 429, 503); any other failure is reported as {@link UncertainOutcomeException} so the caller
+ * can look for the created resource first.
+ */
+public class EdcHttpClient {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(EdcHttpClient.class);
+
+    private final HttpClient httpClient;
+    private final RetryPolicy retryPolicy;
+
+    public EdcHttpClient(HttpClient httpClient, RetryPolicy retryPolicy) {
+        this.httpClient = httpClient;
+        this.retryPolicy = retryPolicy;
+    }
+
+    public HttpClient getHttpClient() {
+        return httpClient;
+    }
+
+    public RetryPolicy getRetryPolicy() {
+        return retryPolicy;
+    }
+
+    /**
+     * Send a request, retrying transient failures within the deadline.
+     * A response with a non-retryable or finally failing status is returned to the caller.
+     */
+    public <T> HttpResponse<T> send(EdcCall call, HttpRequest httpRequest, HttpResponse.BodyHandler<T> bodyHandler,
+                                    Deadline deadline) throws IOException, InterruptedException {
+        retryPolicy.recordAttempt();
+        int attempts = 0;
+
+        while (true) {
+            attempts++;
+            HttpResponse<T> response;
+            try {
+                response = sendOnce(httpRequest, bodyHandler, deadline);
+            } catch (IOException e) {
+                deadline.recordHttpStatus(0);
+                boolean unprocessed = e instanceof ConnectException || e instanceof HttpConnectTimeoutException;
+                if (!call.isIdempotent() && !unprocessed) {
+                    throw new UncertainOutcomeException(call, e.toString(), e, null);
+                }
+                Duration delay = retryPolicy.nextDelay(call, attempts, null, deadline);
+                if (delay == null) {
+                    throw e;
+                }
+                LOGGER.warn("{} {} failed: {}", httpRequest.method(), httpRequest.uri(), e.toString());
+                deadline.sleep(delay);
+                continue;
+            }
+
+            int status = response.statusCode();
+            deadline.recordHttpStatus(status);
+            if (!retryPolicy.isRetryableStatus(status)) {
+                return response;
+            }
+
+            Duration retryAfter = RetryPolicy.parseRetryAfter(response.headers().firstValue("Retry-After"));
+            if (!call.isIdempotent() && !retryPolicy.isUnprocessedStatus(status)) {
+                discard(response);
+                throw new UncertainOutcomeException(call, "status " + status, null, retryAfter);
+            }
+            Duration delay = retryPolicy.nextDelay(call, attempts, retryAfter, deadline);
+            if (delay == null) {
+                return response;
+            }
+            LOGGER.warn("{} {} returned status {}", httpRequest.method(), httpRequest.uri(), status);
+            discard(response);
+            deadline.sleep(delay);
+        }
+    }
+
+    private <T> HttpResponse<T> sendOnce(HttpRequest httpRequest, HttpResponse.BodyHandler<T> bodyHandler,
+                                         Deadline deadline) throws IOException, InterruptedException {
+        // Retries happen later than the request was built, so never wait beyond the deadline
+        Duration remaining = deadline.remaining();
+        if (httpRequest.timeout().map(timeout -> timeout.compareTo(remaining) > 0).orElse(true)) {
+            httpRequest = HttpRequest.newBuilder(httpRequest, (name, value) -> true)
+                    .timeout(deadline.requestTimeout(remaining))
+                    .build();
+        }
+        try {
+            return httpClient.send(httpRequest, bodyHandler);
+        } catch (HttpTimeoutException e) {
+            if (deadline.isExpired()) {
+                throw deadline.exceeded(httpRequest.method() + " " + httpRequest.uri());
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Release the connection of a response that will not be read
+     */
+    private static void discard(HttpResponse<?> response) throws IOException {
+        if (response.body() instanceof InputStream) {
+            ((InputStream) response.body()).close();
+        }
+    }
+}
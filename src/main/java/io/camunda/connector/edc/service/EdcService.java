@@ -2,24 +2,62 @@ package io.camunda.connector.edc.service;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.camunda.connector.edc.config.EdcConnectorSettings;
+import io.camunda.connector.edc.jfr.CatalogQueryEvent;
+import io.camunda.connector.edc.jfr.DataFetchEvent;
+import io.camunda.connector.edc.jfr.NegotiationEvent;
+import io.camunda.connector.edc.jfr.TransferEvent;
 import io.camunda.connector.edc.model.EdcConnectorRequest;
 import io.camunda.connector.edc.model.EdcConnectorResponse;
+import io.camunda.connector.edc.model.management.CatalogResponse;
+import io.camunda.connector.edc.model.management.ContractNegotiationState;
+import io.camunda.connector.edc.model.management.IdResponse;
+import io.camunda.connector.edc.model.management.ManagementApiJson;
+import io.camunda.connector.edc.model.management.TransferProcessState;
+import io.camunda.connector.edc.service.cache.CachedPayload;
+import io.camunda.connector.edc.service.cache.ResultCache;
+import io.camunda.connector.edc.service.payload.CountingInputStream;
+import io.camunda.connector.edc.service.payload.DigestingInputStream;
+import io.camunda.connector.edc.service.payload.PayloadDecoder;
+import io.camunda.connector.edc.service.payload.PayloadType;
+import io.camunda.connector.edc.service.push.PushSink;
+import io.micrometer.core.instrument.Metrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Base64;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
 
 /**
  * Service class that handles EDC operations
@@ -27,13 +65,90 @@ import java.util.Map;
 public class EdcService {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(EdcService.class);
-    private static final ObjectMapper objectMapper = new ObjectMapper();
-    private final HttpClient httpClient;
+    private static final ObjectMapper objectMapper = ManagementApiJson.MAPPER;
+    private static final int MAX_ERROR_BODY_BYTES = 4096;
+    private static final Duration MAX_REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    private static final Duration POLL_INTERVAL = Duration.ofSeconds(1);
+    private static final Duration PUSH_STATE_CHECK_INTERVAL = Duration.ofSeconds(5);
+    private static final Duration LOOKUP_CLOCK_SKEW = Duration.ofSeconds(30);
+    private static final Duration POLLER_IDLE_TIMEOUT = Duration.ofMinutes(5);
+    private static final Set<String> NEGOTIATION_SETTLED_STATES = Set.of("FINALIZED", "TERMINATED", "ERROR");
+    private static final Set<String> TRANSFER_SETTLED_STATES = Set.of("STARTED", "COMPLETED", "TERMINATED", "ERROR");
+    private final EdcHttpClient edcHttpClient;
+    private final PayloadDecoder payloadDecoder;
+    private final OAuth2TokenProvider tokenProvider;
+    private final DidWebResolver didResolver;
+    private final ManagementEndpoints managementEndpoints;
+    private final AdmissionScheduler admissionScheduler;
+    private final PayloadBudget payloadBudget;
+    private final AgreementRenewer agreementRenewer;
+    private final PushSink pushSink;
+    private final TransferCleaner transferCleaner;
+    private final boolean terminateConsumed;
+    private final boolean terminateCancelled;
+    private final ResultCache resultCache;
+    private final Duration catalogBatchWindow;
+    private final int catalogBatchMaxSize;
+    private final ExecutorService catalogExecutor;
+    private final CatalogIndex catalogIndex;
+    private final Map<CatalogKey, CatalogBatcher> catalogBatchers = new ConcurrentHashMap<>();
+    private final Map<PollerKey, StatePoller<ContractNegotiationState>> negotiationPollers = new ConcurrentHashMap<>();
+    private final Map<PollerKey, StatePoller<TransferProcessState>> transferPollers = new ConcurrentHashMap<>();
+    // Timers only; the state queries of the pollers run on pollExecutor
+    private final ScheduledExecutorService pollScheduler = Executors.newScheduledThreadPool(2, runnable -> {
+        Thread thread = new Thread(runnable, "edc-state-poller");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final ExecutorService pollExecutor = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "edc-state-query");
+        thread.setDaemon(true);
+        return thread;
+    });
 
     public EdcService() {
-        this.httpClient = HttpClient.newBuilder()
+        HttpClient httpClient = HttpClient.newBuilder()
                 .connectTimeout(Duration.ofSeconds(30))
                 .build();
+        this.edcHttpClient = new EdcHttpClient(httpClient, RetryPolicy.fromSettings());
+        this.payloadDecoder = new PayloadDecoder(objectMapper);
+        this.tokenProvider = new OAuth2TokenProvider(httpClient, 0.8, MAX_REQUEST_TIMEOUT);
+        this.didResolver = DidWebResolver.fromSettings(httpClient, MAX_REQUEST_TIMEOUT);
+        this.managementEndpoints = ManagementEndpoints.fromSettings(httpClient);
+        this.admissionScheduler = AdmissionScheduler.fromSettings();
+        this.payloadBudget = PayloadBudget.fromSettings();
+        this.agreementRenewer = EdcConnectorSettings.getBoolean("edc.connector.agreements.reuse", false)
+                ? AgreementRenewer.fromSettings(this::renegotiate)
+                : null;
+        this.pushSink = PushSink.fromSettings();
+        this.terminateConsumed = EdcConnectorSettings.getBoolean("edc.connector.cleanup.enabled", true);
+        this.terminateCancelled = EdcConnectorSettings.getBoolean("edc.connector.cancel.terminate", true);
+        this.transferCleaner = terminateConsumed || terminateCancelled
+                ? TransferCleaner.fromSettings(httpClient, (url, body, auth) ->
+                        buildRequest(url, "POST", body, auth, Deadline.after(MAX_REQUEST_TIMEOUT)))
+                : null;
+        this.resultCache = EdcConnectorSettings.getBoolean("edc.connector.cache.enabled", false)
+                ? ResultCache.fromSettings()
+                : null;
+        this.catalogBatchWindow = EdcConnectorSettings.getDuration("edc.connector.catalog.batch-window", Duration.ZERO);
+        this.catalogBatchMaxSize = EdcConnectorSettings.getInt("edc.connector.catalog.batch-max-size", 50);
+        this.catalogExecutor = catalogBatchWindow.isZero() ? null : Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "edc-catalog-batch");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.catalogIndex = CatalogIndex.fromSettings(this::requestCatalogPage);
+        pollScheduler.scheduleWithFixedDelay(this::evictIdle,
+                POLLER_IDLE_TIMEOUT.toMillis(), POLLER_IDLE_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Service shared by the outbound and inbound connectors of a runtime, so that they share its
+     * clients, token cache, DID resolution, catalog index and background workers instead of
+     * running them, and prefetching indexed catalogs, once per connector
+     */
+    public static EdcService shared() {
+        return Shared.INSTANCE;
     }
 
     /**
@@ -44,74 +159,393 @@ public class EdcService {
      * 4. Retrieve data
      */
     public EdcConnectorResponse executeEdcWorkflow(EdcConnectorRequest request) throws Exception {
+        // A single budget covers every HTTP call and poll wait of this workflow
+        return executeEdcWorkflow(request, Deadline.after(Duration.ofSeconds(request.getTimeout())));
+    }
+
+    /**
+     * Execute the workflow within the given deadline, once admitted in the request's lane.
+     * Cancelling the deadline from another thread, or interrupting the calling thread, aborts
+     * pending calls and waits; negotiations and transfers already started are terminated in the
+     * background.
+     */
+    public EdcConnectorResponse executeEdcWorkflow(EdcConnectorRequest request, Deadline deadline) throws Exception {
         LOGGER.info("Starting EDC workflow for asset: {}", request.getAssetId());
 
-        // Step 1: Query catalog to find the asset and get offer
-        LOGGER.info("Step 1: Querying catalog...");
-        JsonNode catalogEntry = queryCatalog(request);
-        
-        // Step 2: Negotiate contract
-        LOGGER.info("Step 2: Negotiating contract...");
-        String contractAgreementId = negotiateContract(request, catalogEntry);
-        
-        // Step 3: Initiate data transfer
-        LOGGER.info("Step 3: Initiating data transfer...");
-        String transferId = initiateTransfer(request, contractAgreementId);
-        
-        // Step 4: Wait for transfer completion and retrieve data
-        LOGGER.info("Step 4: Waiting for transfer completion...");
-        Object data = retrieveTransferData(request, transferId);
-
-        // Build response
-        EdcConnectorResponse response = new EdcConnectorResponse(
-                request.getAssetId(),
-                contractAgreementId,
-                transferId,
-                data
-        );
+        deadline.bindToCurrentThread();
+        deadline.startStage("admission");
+        // Bulk lanes cannot starve others, and all calls of the workflow go to the same control-plane replica
+        try (AdmissionScheduler.Permit permit = admissionScheduler.admit(
+                     request.getLane(), request.getPriority(), deadline);
+             ManagementEndpoints.Lease endpoint = managementEndpoints.select(request.getManagementUrls())) {
+            request.setEdcManagementUrl(endpoint.getUrl());
+            EdcConnectorResponse response = runWorkflow(request, deadline);
+            if (Boolean.TRUE.equals(request.getDiagnostics())) {
+                response.setDiagnostics(deadline.diagnostics());
+            }
+            return response;
+        } catch (InterruptedException e) {
+            if (deadline.isCancelled()) {
+                throw deadline.cancelled();
+            }
+            Thread.currentThread().interrupt();
+            throw e;
+        } finally {
+            deadline.release();
+        }
+    }
+
+    private EdcConnectorResponse runWorkflow(EdcConnectorRequest request, Deadline deadline) throws Exception {
+        LOGGER.info("Using EDC Management URL: {}", request.getEdcManagementUrl());
+
+        // Without a provider URL the DSP endpoint comes from the provider's did:web document
+        if (request.getProviderUrl() == null || request.getProviderUrl().trim().isEmpty()) {
+            deadline.startStage("did");
+            request.setResolvedDspAddress(didResolver.resolveDspEndpoint(request.getProviderDid(), deadline));
+        }
+
+        // A payload younger than the requested max age is served without contacting the EDC
+        if (resultCache != null && request.getCacheMaxAge() > 0 && "pull".equals(request.getTransferMode())) {
+            deadline.startStage("cache");
+            CachedPayload cached = resultCache.getFresh(cacheKey(request), Duration.ofSeconds(request.getCacheMaxAge()));
+            if (cached != null) {
+                deadline.recordCacheHit();
+                try (FetchedData data = decodeCached(cached, request, deadline)) {
+                    EdcConnectorResponse response = new EdcConnectorResponse(
+                            request.getAssetId(), null, null, data.data());
+                    response.setSha256(data.sha256());
+                    response.setMessage("Served from result cache, validated " + cached.getAge().toSeconds() + " s ago");
+                    LOGGER.info("Served asset {} from result cache", request.getAssetId());
+                    return response;
+                } finally {
+                    resultCache.release(cached);
+                }
+            }
+        }
+
+        // Steps 1 and 2: Reuse a valid agreement for the asset, or query the catalog and negotiate one
+        AgreementRenewer.Key agreementKey = agreementRenewer != null ? AgreementRenewer.Key.of(request) : null;
+        String contractAgreementId = agreementKey != null
+                ? agreementRenewer.lookup(agreementKey, () -> renewalRequest(request)) : null;
+        boolean agreementReused = contractAgreementId != null;
+        if (agreementReused) {
+            LOGGER.info("Steps 1-2: Reusing contract agreement {}", contractAgreementId);
+            deadline.startStage("negotiation");
+            deadline.recordCacheHit();
+        } else {
+            AgreementRenewer.Negotiated negotiated = negotiateAgreement(request, deadline);
+            contractAgreementId = negotiated.agreementId();
+            if (agreementKey != null) {
+                agreementRenewer.register(agreementKey, negotiated);
+            }
+        }
         
-        LOGGER.info("EDC workflow completed successfully");
-        return response;
+        String transferId = null;
+        FetchedData data;
+        TransferEvent transferEvent = new TransferEvent();
+        transferEvent.begin();
+        transferEvent.assetId = request.getAssetId();
+        transferEvent.provider = request.getDspAddress();
+        transferEvent.transferMode = request.getTransferMode();
+        try {
+            if ("push".equals(request.getTransferMode())) {
+                try (PushSink.Delivery delivery = pushSink.expect()) {
+                    // Step 3: Initiate a transfer pushing into the local sink
+                    LOGGER.info("Step 3: Initiating push transfer to {}...", delivery.getUrl());
+                    deadline.startStage("transfer");
+                    transferId = initiateTransfer(request, contractAgreementId, delivery, deadline);
+                    transferEvent.transferId = transferId;
+
+                    // Step 4: Wait until the provider data plane has pushed the data
+                    LOGGER.info("Step 4: Waiting for pushed data...");
+                    deadline.startStage("data");
+                    data = awaitPushedData(request, transferId, delivery, deadline);
+                }
+            } else {
+                // Step 3: Initiate data transfer
+                LOGGER.info("Step 3: Initiating data transfer...");
+                deadline.startStage("transfer");
+                transferId = initiateTransfer(request, contractAgreementId, null, deadline);
+                transferEvent.transferId = transferId;
+
+                // Step 4: Wait for transfer completion and retrieve data
+                LOGGER.info("Step 4: Waiting for transfer completion...");
+                deadline.startStage("data");
+                data = retrieveTransferData(request, transferId, deadline);
+            }
+            transferEvent.succeeded = true;
+        } catch (InterruptedException | WorkflowCancelledException e) {
+            if (transferId != null) {
+                terminateAbandoned(request, TransferCleaner.Resource.TRANSFER, transferId);
+            }
+            throw e;
+        } catch (ProviderRejectedException e) {
+            if (agreementReused) {
+                // The provider no longer honors the agreement, the next job negotiates a new one
+                agreementRenewer.invalidate(agreementKey, contractAgreementId);
+            }
+            throw e;
+        } finally {
+            transferEvent.commit();
+        }
+        deadline.endStage();
+
+        // The payload budget stays reserved until the decoded data is handed back
+        try (FetchedData fetched = data) {
+            // The data is consumed, the transfer is terminated in the background
+            if (terminateConsumed) {
+                transferCleaner.enqueue(request.getEdcManagementUrl(), transferId, request.getAuthentication());
+            }
+
+            // Build response
+            EdcConnectorResponse response = new EdcConnectorResponse(
+                    request.getAssetId(),
+                    contractAgreementId,
+                    transferId,
+                    fetched.data()
+            );
+            response.setSha256(fetched.sha256());
+
+            LOGGER.info("EDC workflow completed successfully in {} ms ({})", deadline.elapsed().toMillis(), deadline.breakdown());
+            return response;
+        }
+    }
+
+    /**
+     * Round-trip a request and a response through the given mapper, so that the first job does
+     * not pay for introspecting the connector's models. Meant for the mapper a connector runtime
+     * binds job variables and serializes results with.
+     */
+    public static void warmUpBinding(ObjectMapper bindingMapper) throws IOException {
+        bindingMapper.readValue(bindingMapper.writeValueAsBytes(warmUpRequest()), EdcConnectorRequest.class);
+        bindingMapper.readValue(bindingMapper.writeValueAsBytes(
+                new EdcConnectorResponse("warm-up", "agreement", "transfer", Map.of())), EdcConnectorResponse.class);
+    }
+
+    private static EdcConnectorRequest warmUpRequest() {
+        EdcConnectorRequest sample = new EdcConnectorRequest();
+        sample.setEdcManagementUrl("http://localhost/api/management");
+        sample.setProviderUrl("http://localhost");
+        sample.setProviderDid("did:web:localhost");
+        sample.setAssetId("warm-up");
+        EdcConnectorRequest.Authentication none = new EdcConnectorRequest.Authentication();
+        none.setType("none");
+        sample.setAuthentication(none);
+        return sample;
+    }
+
+    /**
+     * Prepare this instance for its first jobs: initialize the Jackson readers and writers,
+     * exercise request building and open connections to the given management URLs.
+     * Failures are logged and never fail the warm-up.
+     *
+     * Job variables are bound by the connector runtime with its own ObjectMapper, which this
+     * warm-up cannot reach; runtimes warm that one with {@link #warmUpBinding(ObjectMapper)}.
+     *
+     * @return how long the warm-up took
+     */
+    public Duration warmUp(List<String> managementUrls, Duration timeout) {
+        Deadline deadline = Deadline.after(timeout);
+        try {
+            deadline.startStage("jackson");
+            EdcConnectorRequest sample = warmUpRequest();
+            EdcConnectorRequest.Authentication none = sample.getAuthentication();
+            warmUpBinding(objectMapper);
+            ManagementApiJson.CATALOG_READER.readValue(
+                    "{\"dcat:dataset\":{\"@id\":\"warm-up\",\"odrl:hasPolicy\":{\"@id\":\"offer\"}}}");
+            ManagementApiJson.ID_READER.readValue("{\"@id\":\"warm-up\"}");
+            ManagementApiJson.NEGOTIATION_LIST_READER.readValue(
+                    "[{\"@id\":\"warm-up\",\"state\":\"FINALIZED\",\"contractAgreementId\":\"a\",\"createdAt\":0}]");
+            ManagementApiJson.TRANSFER_LIST_READER.readValue(
+                    "[{\"@id\":\"warm-up\",\"state\":\"STARTED\",\"dataAddress\":{\"endpoint\":\"e\",\"authorization\":\"a\"}}]");
+
+            deadline.startStage("requests");
+            buildRequest(sample.getEdcManagementUrl() + "/v3/catalog/request", "POST",
+                    catalogRequestBody(sample, List.of(sample.getAssetId())), none, deadline);
+            buildRequest(sample.getEdcManagementUrl() + "/v3/transferprocesses/warm-up", "GET",
+                    null, none, deadline);
+
+            deadline.startStage("connections");
+            List<CompletableFuture<Void>> connections = new ArrayList<>();
+            for (String url : managementUrls) {
+                // Any response keeps the connection pooled, so status and authentication do not matter
+                HttpRequest httpRequest = buildRequest(url, "GET", null, none, deadline);
+                connections.add(edcHttpClient.getHttpClient()
+                        .sendAsync(httpRequest, HttpResponse.BodyHandlers.discarding())
+                        .handle((response, error) -> {
+                            if (error != null) {
+                                LOGGER.warn("Warm-up connection to {} failed: {}", url, error.toString());
+                            }
+                            return null;
+                        }));
+            }
+            CompletableFuture.allOf(connections.toArray(new CompletableFuture[0]))
+                    .get(deadline.remaining().toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            LOGGER.warn("EDC Connector warm-up incomplete: {}", e.toString());
+        }
+        deadline.endStage();
+
+        Duration elapsed = deadline.elapsed();
+        LOGGER.info("EDC Connector warm-up finished in {} ms for {} management URL(s) ({})",
+                elapsed.toMillis(), managementUrls.size(), deadline.breakdown());
+        return elapsed;
     }
 
     /**
      * Query the EDC catalog for a specific asset
      */
-    private JsonNode queryCatalog(EdcConnectorRequest request) throws Exception {
+    private CatalogResponse.Dataset queryCatalog(EdcConnectorRequest request, Deadline deadline) throws Exception {
+        // Assets of indexed providers are found without a catalog request
+        if (catalogIndex != null && request.getManagementUrls().contains(catalogIndex.getManagementUrl())) {
+            CatalogResponse.Dataset indexed = catalogIndex.lookup(CatalogIndex.Provider.of(request), request.getAssetId());
+            if (indexed != null) {
+                deadline.recordCacheHit();
+                LOGGER.info("Found asset {} in the catalog index", request.getAssetId());
+                return indexed;
+            }
+        }
+
+        // Lookups of concurrent workflows for the same provider share one catalog request
+        List<CatalogResponse.Dataset> datasets;
+        if (catalogBatchWindow.isZero()) {
+            datasets = requestCatalog(request, List.of(request.getAssetId()), deadline);
+        } else {
+            CatalogTarget target = CatalogTarget.of(request);
+            do {
+                // A batcher evicted in the meantime is replaced by a new one
+                datasets = catalogBatcher(target).query(request.getAssetId(), deadline);
+            } while (datasets == null);
+        }
+
+        // Find the specific asset
+        for (CatalogResponse.Dataset dataset : datasets) {
+            LOGGER.debug("Checking dataset with @id: {}", dataset.id());
+
+            if (request.getAssetId().equals(dataset.id())) {
+                LOGGER.info("Found matching asset in catalog: {}", request.getAssetId());
+                return dataset;
+            }
+        }
+
+        LOGGER.error("Asset '{}' not found in catalog. Available assets:", request.getAssetId());
+        for (CatalogResponse.Dataset dataset : datasets) {
+            if (dataset.id() != null) {
+                LOGGER.error("  - {}", dataset.id());
+            }
+        }
+
+        throw new RuntimeException("Asset not found in catalog: " + request.getAssetId());
+    }
+
+    private CatalogBatcher catalogBatcher(CatalogTarget target) {
+        return catalogBatchers.computeIfAbsent(target.key(), key -> new CatalogBatcher(
+                assetIds -> requestCatalog(target.toRequest(), assetIds, Deadline.after(MAX_REQUEST_TIMEOUT)),
+                catalogBatchWindow,
+                catalogBatchMaxSize,
+                pollScheduler,
+                catalogExecutor,
+                Metrics.globalRegistry));
+    }
+
+    /**
+     * Request the provider's catalog filtered to the given assets
+     */
+    private List<CatalogResponse.Dataset> requestCatalog(EdcConnectorRequest request, List<String> assetIds,
+                                                         Deadline deadline) throws Exception {
+        return requestCatalog(request, catalogRequestBody(request, assetIds), String.join(",", assetIds), deadline);
+    }
+
+    /**
+     * Request one page of a provider's full catalog for the catalog index
+     */
+    private List<CatalogResponse.Dataset> requestCatalogPage(String managementUrl, String providerDid,
+                                                             String dspAddress, int offset, int limit,
+                                                             Deadline deadline) throws Exception {
+        EdcConnectorRequest request = new EdcConnectorRequest();
+        request.setEdcManagementUrl(managementUrl);
+        request.setProviderDid(providerDid);
+        request.setResolvedDspAddress(dspAddress != null ? dspAddress
+                : didResolver.resolveDspEndpoint(providerDid, deadline));
+        EdcConnectorRequest.Authentication authentication = new EdcConnectorRequest.Authentication();
+        String apiKey = EdcConnectorSettings.getString("edc.connector.catalog.index.api-key", null);
+        authentication.setType(apiKey != null ? "api-key" : "none");
+        authentication.setApiKey(apiKey);
+        request.setAuthentication(authentication);
+
+        return requestCatalog(request, catalogRequestBody(request, Map.of("offset", offset, "limit", limit)), "*",
+                deadline);
+    }
+
+    /**
+     * Request one page of the provider's full catalog and return the response body unread, so
+     * that it can be parsed as a stream. The caller must close it.
+     */
+    public InputStream openCatalogPage(EdcConnectorRequest request, int offset, int limit, Deadline deadline)
+            throws Exception {
+        if (request.getProviderUrl() == null || request.getProviderUrl().trim().isEmpty()) {
+            request.setResolvedDspAddress(didResolver.resolveDspEndpoint(request.getProviderDid(), deadline));
+        }
+        HttpRequest httpRequest = buildRequest(
+                request.getEdcManagementUrl() + "/v3/catalog/request",
+                "POST",
+                catalogRequestBody(request, Map.of("offset", offset, "limit", limit)),
+                request.getAuthentication(),
+                deadline
+        );
+
+        CatalogQueryEvent event = new CatalogQueryEvent();
+        event.begin();
+        try {
+            HttpResponse<InputStream> response = send(EdcCall.CATALOG_QUERY, httpRequest,
+                    HttpResponse.BodyHandlers.ofInputStream(), request.getAuthentication(), deadline);
+            event.httpStatus = response.statusCode();
+            if (response.statusCode() != 200) {
+                throw new RuntimeException("Failed to query catalog of " + request.getProviderDid() + ". Status: "
+                        + response.statusCode() + ", Body: " + readErrorBody(response.body()));
+            }
+            return response.body();
+        } finally {
+            event.assetId = "*";
+            event.provider = request.getDspAddress();
+            event.commit();
+        }
+    }
+
+    private List<CatalogResponse.Dataset> requestCatalog(EdcConnectorRequest request, String requestBody,
+                                                         String queriedAssets, Deadline deadline) throws Exception {
         String catalogUrl = request.getEdcManagementUrl() + "/v3/catalog/request";
-        String counterPartyAddress = request.getProviderUrl() + "/api/dsp";
+        String counterPartyAddress = request.getDspAddress();
         String counterPartyId = request.getProviderDid();
 
         LOGGER.info("Querying catalog at: {}", catalogUrl);
         LOGGER.info("Provider DSP endpoint (counterPartyAddress): {}", counterPartyAddress);
         LOGGER.info("Provider DID (counterPartyId): {}", counterPartyId);
 
-        // Build catalog request body
-        Map<String, Object> catalogRequest = new HashMap<>();
-        catalogRequest.put("@context", Map.of("@vocab", "https://w3id.org/edc/v0.0.1/ns/"));
-        catalogRequest.put("counterPartyAddress", counterPartyAddress);
-        catalogRequest.put("counterPartyId", counterPartyId);
-        catalogRequest.put("protocol", "dataspace-protocol-http");
-        
-        // Add query filter for specific asset if needed
-        Map<String, Object> querySpec = new HashMap<>();
-        querySpec.put("filterExpression", Map.of(
-            "operandLeft", "https://w3id.org/edc/v0.0.1/ns/id",
-            "operator", "=",
-            "operandRight", request.getAssetId()
-        ));
-        catalogRequest.put("querySpec", querySpec);
-
-        String requestBody = objectMapper.writeValueAsString(catalogRequest);
-        
         HttpRequest httpRequest = buildRequest(
                 catalogUrl,
                 "POST",
                 requestBody,
-                request.getAuthentication()
+                request.getAuthentication(),
+                deadline
         );
 
-        HttpResponse<String> response = httpClient.send(httpRequest, HttpResponse.BodyHandlers.ofString());
+        CatalogQueryEvent event = new CatalogQueryEvent();
+        event.begin();
+        HttpResponse<byte[]> response;
+        try {
+            response = send(EdcCall.CATALOG_QUERY, httpRequest,
+                    HttpResponse.BodyHandlers.ofByteArray(), request.getAuthentication(), deadline);
+            event.httpStatus = response.statusCode();
+            event.bytes = response.body().length;
+            deadline.recordBytes(response.body().length);
+        } finally {
+            event.assetId = queriedAssets;
+            event.provider = request.getDspAddress();
+            event.commit();
+        }
 
         if (response.statusCode() != 200) {
             String errorMsg = String.format(
@@ -126,7 +560,7 @@ public class EdcService {
                 "  3. EDC connector version is 0.5.0 or higher with DSP support%n" +
                 "See TROUBLESHOOTING.md for more details.",
                 response.statusCode(),
-                response.body(),
+                new String(response.body(), StandardCharsets.UTF_8),
                 request.getEdcManagementUrl(),
                 catalogUrl,
                 counterPartyAddress
@@ -134,81 +568,118 @@ public class EdcService {
             throw new RuntimeException(errorMsg);
         }
 
-        JsonNode catalogResponse = objectMapper.readTree(response.body());
+        CatalogResponse catalogResponse = ManagementApiJson.CATALOG_READER.readValue(response.body());
 
         LOGGER.info("Catalog response received. Parsing datasets...");
 
-        // Extract the datasets - can be either an array or a single object
-        JsonNode datasetsNode = catalogResponse.get("dcat:dataset");
-        if (datasetsNode == null) {
-            LOGGER.error("No datasets found in catalog response. Full response: {}", response.body());
-            throw new RuntimeException("Asset not found in catalog: " + request.getAssetId());
-        }
-
-        // Handle both single dataset (object) and multiple datasets (array)
-        List<JsonNode> datasets = new ArrayList<>();
-        if (datasetsNode.isArray()) {
-            // Multiple datasets
-            datasetsNode.forEach(datasets::add);
-        } else if (datasetsNode.isObject()) {
-            // Single dataset
-            datasets.add(datasetsNode);
-        } else {
-            LOGGER.error("Unexpected dataset format in catalog response. Full response: {}", response.body());
-            throw new RuntimeException("Asset not found in catalog: " + request.getAssetId());
+        // Single datasets (object) and multiple datasets (array) are both mapped to a list
+        List<CatalogResponse.Dataset> datasets = catalogResponse.datasets();
+        if (datasets == null) {
+            LOGGER.error("No datasets found in catalog response. Full response: {}",
+                    new String(response.body(), StandardCharsets.UTF_8));
+            return List.of();
         }
 
         LOGGER.info("Found {} dataset(s) in catalog", datasets.size());
+        return datasets;
+    }
 
-        // Find the specific asset
-        for (JsonNode dataset : datasets) {
-            JsonNode id = dataset.get("@id");
-            String datasetId = id != null ? id.asText() : null;
-            LOGGER.debug("Checking dataset with @id: {}", datasetId);
-
-            if (datasetId != null && datasetId.equals(request.getAssetId())) {
-                LOGGER.info("Found matching asset in catalog: {}", request.getAssetId());
-                return dataset;
-            }
+    /**
+     * Build the catalog request body, filtered to the requested assets
+     */
+    private String catalogRequestBody(EdcConnectorRequest request, List<String> assetIds) throws IOException {
+        // Add query filter for specific asset if needed
+        Map<String, Object> querySpec = new HashMap<>();
+        if (assetIds.size() == 1) {
+            querySpec.put("filterExpression", Map.of(
+                "operandLeft", "https://w3id.org/edc/v0.0.1/ns/id",
+                "operator", "=",
+                "operandRight", assetIds.get(0)
+            ));
+        } else {
+            querySpec.put("filterExpression", Map.of(
+                "operandLeft", "https://w3id.org/edc/v0.0.1/ns/id",
+                "operator", "in",
+                "operandRight", assetIds
+            ));
+            querySpec.put("limit", assetIds.size());
         }
+        return catalogRequestBody(request, querySpec);
+    }
 
-        LOGGER.error("Asset '{}' not found in catalog. Available assets:", request.getAssetId());
-        for (JsonNode dataset : datasets) {
-            JsonNode id = dataset.get("@id");
-            if (id != null) {
-                LOGGER.error("  - {}", id.asText());
-            }
-        }
+    private String catalogRequestBody(EdcConnectorRequest request, Map<String, Object> querySpec) throws IOException {
+        Map<String, Object> catalogRequest = new HashMap<>();
+        catalogRequest.put("@context", Map.of("@vocab", "https://w3id.org/edc/v0.0.1/ns/"));
+        catalogRequest.put("counterPartyAddress", request.getDspAddress());
+        catalogRequest.put("counterPartyId", request.getProviderDid());
+        catalogRequest.put("protocol", "dataspace-protocol-http");
+        catalogRequest.put("querySpec", querySpec);
 
-        throw new RuntimeException("Asset not found in catalog: " + request.getAssetId());
+        return objectMapper.writeValueAsString(catalogRequest);
     }
 
     /**
-     * Negotiate a contract for the asset
+     * Query the catalog for the asset and negotiate a contract for its offer
      */
-    private String negotiateContract(EdcConnectorRequest request, JsonNode catalogEntry) throws Exception {
-        String negotiationUrl = request.getEdcManagementUrl() + "/v3/contractnegotiations";
+    private AgreementRenewer.Negotiated negotiateAgreement(EdcConnectorRequest request, Deadline deadline)
+            throws Exception {
+        Instant negotiatedFrom = Instant.now();
+
+        // Step 1: Query catalog to find the asset and get offer
+        LOGGER.info("Step 1: Querying catalog...");
+        deadline.startStage("catalog");
+        CatalogResponse.Dataset catalogEntry = queryCatalog(request, deadline);
+
+        // Step 2: Negotiate contract
+        LOGGER.info("Step 2: Negotiating contract...");
+        deadline.startStage("negotiation");
+        JsonNode offer = selectOffer(request, catalogEntry);
+        return new AgreementRenewer.Negotiated(negotiateContract(request, offer, deadline), offer, negotiatedFrom);
+    }
+
+    /**
+     * Copy of a job's request for renewing its agreement; the job's request is changed per attempt
+     */
+    private EdcConnectorRequest renewalRequest(EdcConnectorRequest request) {
+        EdcConnectorRequest copy = objectMapper.convertValue(request, EdcConnectorRequest.class);
+        copy.setResolvedDspAddress(request.getResolvedDspAddress());
+        return copy;
+    }
 
-        // Extract offer from catalog entry - can be either an array or a single object
-        JsonNode offersNode = catalogEntry.get("odrl:hasPolicy");
-        if (offersNode == null) {
+    /**
+     * Renew an agreement in the background, on the best of the request's management URLs
+     */
+    private AgreementRenewer.Negotiated renegotiate(EdcConnectorRequest request, Deadline deadline) throws Exception {
+        try (ManagementEndpoints.Lease endpoint = managementEndpoints.select(request.getManagementUrls())) {
+            request.setEdcManagementUrl(endpoint.getUrl());
+            return negotiateAgreement(request, deadline);
+        }
+    }
+
+    /**
+     * Offer of the catalog entry to negotiate
+     */
+    private JsonNode selectOffer(EdcConnectorRequest request, CatalogResponse.Dataset catalogEntry) {
+        // Extract offer from catalog entry - single offers are mapped to a list as well
+        List<JsonNode> offers = catalogEntry.policies();
+        if (offers == null || offers.isEmpty()) {
             throw new RuntimeException("No offers found for asset: " + request.getAssetId());
         }
 
-        // Handle both single offer (object) and multiple offers (array)
-        JsonNode offer;
-        if (offersNode.isArray()) {
-            // Multiple offers - take the first one
-            if (offersNode.isEmpty()) {
-                throw new RuntimeException("No offers found for asset: " + request.getAssetId());
-            }
-            offer = offersNode.get(0);
-        } else if (offersNode.isObject()) {
-            // Single offer
-            offer = offersNode;
-        } else {
+        // Multiple offers - take the first one
+        JsonNode offer = offers.get(0);
+        if (!offer.isObject()) {
             throw new RuntimeException("Unexpected offer format for asset: " + request.getAssetId());
         }
+        return offer;
+    }
+
+    /**
+     * Negotiate a contract for the offer
+     */
+    private String negotiateContract(EdcConnectorRequest request, JsonNode offer, Deadline deadline)
+            throws Exception {
+        String negotiationUrl = request.getEdcManagementUrl() + "/v3/contractnegotiations";
 
         LOGGER.info("Using offer with ID: {}", offer.get("@id").asText());
         LOGGER.info("Offer structure from catalog: {}", objectMapper.writeValueAsString(offer));
@@ -222,8 +693,11 @@ public class EdcService {
         context.add("https://w3id.org/edc/connector/management/v0.0.1");
         negotiationRequest.set("@context", context);
 
+        // Client-generated ID identifies the negotiation when the request has to be reissued
+        String negotiationRequestId = UUID.randomUUID().toString();
+        negotiationRequest.put("@id", negotiationRequestId);
         negotiationRequest.put("@type", "ContractRequest");
-        negotiationRequest.put("counterPartyAddress", request.getProviderUrl() + "/api/dsp");
+        negotiationRequest.put("counterPartyAddress", request.getDspAddress());
         negotiationRequest.put("counterPartyId", request.getProviderDid());
         negotiationRequest.put("protocol", "dataspace-protocol-http");
 
@@ -242,89 +716,114 @@ public class EdcService {
                 negotiationUrl,
                 "POST",
                 requestBody,
-                request.getAuthentication()
+                request.getAuthentication(),
+                deadline
         );
 
-        HttpResponse<String> response = httpClient.send(httpRequest, HttpResponse.BodyHandlers.ofString());
-        
-        if (response.statusCode() != 200 && response.statusCode() != 201) {
-            throw new RuntimeException("Failed to initiate contract negotiation. Status: " + 
-                    response.statusCode() + ", Body: " + response.body());
-        }
+        NegotiationEvent event = new NegotiationEvent();
+        event.begin();
+        event.assetId = request.getAssetId();
+        event.provider = request.getDspAddress();
+        try {
+            long attemptStart = System.currentTimeMillis();
+            String negotiationId = createResource(
+                    EdcCall.NEGOTIATION_CREATE,
+                    httpRequest,
+                    "Failed to initiate contract negotiation",
+                    request.getAuthentication(),
+                    deadline,
+                    () -> findCreatedNegotiation(request, negotiationRequestId, attemptStart, deadline)
+            );
+            event.negotiationId = negotiationId;
 
-        JsonNode negotiationResponse = objectMapper.readTree(response.body());
-        String negotiationId = negotiationResponse.get("@id").asText();
-        
-        LOGGER.info("Contract negotiation initiated: {}", negotiationId);
+            LOGGER.info("Contract negotiation initiated: {}", negotiationId);
 
-        // Wait for negotiation to complete
-        String contractAgreementId = waitForNegotiation(request, negotiationId);
-        
-        LOGGER.info("Contract negotiation completed. Agreement ID: {}", contractAgreementId);
-        return contractAgreementId;
+            try {
+                // Wait for negotiation to complete
+                String contractAgreementId = waitForNegotiation(request, negotiationId, deadline);
+
+                LOGGER.info("Contract negotiation completed. Agreement ID: {}", contractAgreementId);
+                event.succeeded = true;
+                return contractAgreementId;
+            } catch (InterruptedException | WorkflowCancelledException e) {
+                terminateAbandoned(request, TransferCleaner.Resource.NEGOTIATION, negotiationId);
+                throw e;
+            }
+        } finally {
+            event.commit();
+        }
+    }
+
+    /**
+     * Terminate a negotiation or transfer of a cancelled workflow so it does not keep running on the EDC
+     */
+    private void terminateAbandoned(EdcConnectorRequest request, TransferCleaner.Resource resource, String id) {
+        if (terminateCancelled) {
+            LOGGER.info("Workflow cancelled, terminating {} {}", resource, id);
+            transferCleaner.enqueue(resource, request.getEdcManagementUrl(), id, "Workflow cancelled",
+                    request.getAuthentication());
+        }
     }
 
     /**
      * Wait for contract negotiation to reach FINALIZED state
      */
-    private String waitForNegotiation(EdcConnectorRequest request, String negotiationId) throws Exception {
-        String negotiationStateUrl = request.getEdcManagementUrl() + "/v3/contractnegotiations/" + negotiationId;
-        
-        int maxAttempts = request.getTimeout();
-        int attempt = 0;
-        
-        while (attempt < maxAttempts) {
-            Thread.sleep(1000); // Wait 1 second between checks
-            
-            HttpRequest httpRequest = buildRequest(
-                    negotiationStateUrl,
-                    "GET",
-                    null,
-                    request.getAuthentication()
-            );
+    private String waitForNegotiation(EdcConnectorRequest request, String negotiationId, Deadline deadline) throws Exception {
+        ManagementApi api = ManagementApi.of(request);
+        ContractNegotiationState negotiation = awaitSettled(() -> negotiationPoller(api), negotiationId, deadline,
+                "waiting for contract negotiation " + negotiationId);
+        String state = negotiation.state();
 
-            HttpResponse<String> response = httpClient.send(httpRequest, HttpResponse.BodyHandlers.ofString());
-            
-            if (response.statusCode() == 200) {
-                JsonNode negotiation = objectMapper.readTree(response.body());
-                String state = negotiation.get("state").asText();
-                
-                LOGGER.debug("Negotiation state: {}", state);
-                
-                if ("FINALIZED".equals(state)) {
-                    return negotiation.get("contractAgreementId").asText();
-                } else if ("TERMINATED".equals(state) || "ERROR".equals(state)) {
-                    throw new RuntimeException("Contract negotiation failed with state: " + state);
-                }
-            }
-            
-            attempt++;
+        LOGGER.debug("Negotiation state: {}", state);
+
+        if ("FINALIZED".equals(state)) {
+            return negotiation.contractAgreementId();
         }
-        
-        throw new RuntimeException("Contract negotiation timeout after " + maxAttempts + " seconds");
+        if (catalogIndex != null) {
+            // The indexed offer may be outdated, the next job for the asset queries the catalog
+            catalogIndex.invalidate(CatalogIndex.Provider.of(request), request.getAssetId());
+        }
+        if ("TERMINATED".equals(state)) {
+            throw new ProviderRejectedException("Contract negotiation failed with state: " + state);
+        }
+        throw new RuntimeException("Contract negotiation failed with state: " + state);
     }
 
     /**
      * Initiate a data transfer
      */
-    private String initiateTransfer(EdcConnectorRequest request, String contractAgreementId) throws Exception {
+    private String initiateTransfer(EdcConnectorRequest request, String contractAgreementId,
+                                    PushSink.Delivery delivery, Deadline deadline) throws Exception {
         String transferUrl = request.getEdcManagementUrl() + "/v3/transferprocesses";
 
         // Build transfer request according to EDC Management API v3 spec
+        // Client-generated ID serves as idempotency key when the request has to be reissued
+        String transferRequestId = UUID.randomUUID().toString();
+
         Map<String, Object> transferRequest = new HashMap<>();
         transferRequest.put("@context", List.of("https://w3id.org/edc/connector/management/v0.0.1"));
+        transferRequest.put("@id", transferRequestId);
         transferRequest.put("assetId", request.getAssetId());
-        transferRequest.put("counterPartyAddress", request.getProviderUrl() + "/api/dsp");
+        transferRequest.put("counterPartyAddress", request.getDspAddress());
         transferRequest.put("connectorId", request.getProviderDid());
         transferRequest.put("contractId", contractAgreementId);
 
-        // Configure data destination (HTTP pull)
         Map<String, Object> dataDestination = new HashMap<>();
-        dataDestination.put("type", "HttpProxy");
+        if (delivery != null) {
+            // Configure data destination (HTTP push into the local sink)
+            dataDestination.put("type", "HttpData");
+            dataDestination.put("baseUrl", delivery.getUrl());
+            dataDestination.put("authKey", "Authorization");
+            dataDestination.put("authCode", delivery.getToken());
+            transferRequest.put("transferType", "HttpData-PUSH");
+        } else {
+            // Configure data destination (HTTP pull)
+            dataDestination.put("type", "HttpProxy");
+            transferRequest.put("transferType", "HttpData-PULL");
+        }
         transferRequest.put("dataDestination", dataDestination);
 
         transferRequest.put("protocol", "dataspace-protocol-http");
-        transferRequest.put("transferType", "HttpData-PULL");
 
         String requestBody = objectMapper.writeValueAsString(transferRequest);
         
@@ -332,18 +831,18 @@ public class EdcService {
                 transferUrl,
                 "POST",
                 requestBody,
-                request.getAuthentication()
+                request.getAuthentication(),
+                deadline
         );
 
-        HttpResponse<String> response = httpClient.send(httpRequest, HttpResponse.BodyHandlers.ofString());
-        
-        if (response.statusCode() != 200 && response.statusCode() != 201) {
-            throw new RuntimeException("Failed to initiate transfer. Status: " + 
-                    response.statusCode() + ", Body: " + response.body());
-        }
-
-        JsonNode transferResponse = objectMapper.readTree(response.body());
-        String transferId = transferResponse.get("@id").asText();
+        String transferId = createResource(
+                EdcCall.TRANSFER_CREATE,
+                httpRequest,
+                "Failed to initiate transfer",
+                request.getAuthentication(),
+                deadline,
+                () -> findCreatedTransfer(request, contractAgreementId, transferRequestId, deadline)
+        );
         
         LOGGER.info("Transfer initiated: {}", transferId);
         return transferId;
@@ -352,89 +851,524 @@ public class EdcService {
     /**
      * Retrieve data from completed transfer
      */
-    private Object retrieveTransferData(EdcConnectorRequest request, String transferId) throws Exception {
-        String transferStateUrl = request.getEdcManagementUrl() + "/v3/transferprocesses/" + transferId;
-        
-        int maxAttempts = request.getTimeout();
-        int attempt = 0;
-        
-        while (attempt < maxAttempts) {
-            Thread.sleep(1000); // Wait 1 second between checks
-            
-            HttpRequest httpRequest = buildRequest(
-                    transferStateUrl,
-                    "GET",
-                    null,
-                    request.getAuthentication()
-            );
+    private FetchedData retrieveTransferData(EdcConnectorRequest request, String transferId, Deadline deadline)
+            throws Exception {
+        ManagementApi api = ManagementApi.of(request);
+        TransferProcessState transfer = awaitSettled(() -> transferPoller(api), transferId, deadline,
+                "waiting for transfer " + transferId);
+        String state = transfer.state();
+
+        LOGGER.debug("Transfer state: {}", state);
 
-            HttpResponse<String> response = httpClient.send(httpRequest, HttpResponse.BodyHandlers.ofString());
-            
-            if (response.statusCode() == 200) {
-                JsonNode transfer = objectMapper.readTree(response.body());
-                String state = transfer.get("state").asText();
-                
-                LOGGER.debug("Transfer state: {}", state);
-                
-                if ("STARTED".equals(state) || "COMPLETED".equals(state)) {
-                    // Get the EDR (Endpoint Data Reference)
-                    JsonNode dataAddress = transfer.get("dataAddress");
-                    if (dataAddress != null) {
-                        String endpoint = dataAddress.get("endpoint").asText();
-                        String authCode = dataAddress.get("authorization").asText();
-                        
-                        // Retrieve actual data from the endpoint
-                        return fetchDataFromEndpoint(endpoint, authCode);
-                    }
-                } else if ("TERMINATED".equals(state) || "ERROR".equals(state)) {
-                    throw new RuntimeException("Transfer failed with state: " + state);
+        if ("TERMINATED".equals(state) || "ERROR".equals(state)) {
+            throw transferFailed(state);
+        }
+
+        // Get the EDR (Endpoint Data Reference). Query results may omit it, then it is read
+        // from the transfer itself until it is available.
+        TransferProcessState.DataAddress dataAddress = transfer.dataAddress();
+        while (dataAddress == null) {
+            TransferProcessState current = getTransferState(request, transferId, deadline);
+            deadline.recordPolls(1);
+            dataAddress = current != null ? current.dataAddress() : null;
+            if (dataAddress == null) {
+                deadline.sleep(POLL_INTERVAL); // Wait between checks, never beyond the deadline
+                if (deadline.isExpired()) {
+                    throw deadline.exceeded("waiting for data address of transfer " + transferId);
                 }
             }
-            
-            attempt++;
         }
-        
-        throw new RuntimeException("Transfer timeout after " + maxAttempts + " seconds");
+
+        // Retrieve actual data from the endpoint
+        return fetchDataFromEndpoint(request, dataAddress.endpoint(), dataAddress.authorization(), deadline);
+    }
+
+    /**
+     * Wait until the shared poller reports a settled state for the ID. A poller evicted just
+     * before the wait is replaced by a new one.
+     */
+    private <T> T awaitSettled(Supplier<StatePoller<T>> pollers, String id, Deadline deadline, String waitingFor)
+            throws Exception {
+        StatePoller<T> poller;
+        CompletableFuture<T> settled;
+        do {
+            poller = pollers.get();
+            settled = poller.await(id);
+        } while (settled == null);
+        long pollsBefore = poller.getPolls();
+        try {
+            return settled.get(deadline.remaining().toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            throw deadline.exceeded(waitingFor);
+        } finally {
+            poller.cancel(id, settled);
+            deadline.recordPolls((int) (poller.getPolls() - pollsBefore));
+        }
+    }
+
+    private static String cacheKey(EdcConnectorRequest request) {
+        EdcConnectorRequest.Authentication auth = request.getAuthentication();
+        return ResultCache.key(request.getManagementUrls(), auth == null ? "" : auth.identity(),
+                request.getDspAddress(), request.getAssetId());
+    }
+
+    /**
+     * Shared negotiation poller for the management URL and credentials
+     */
+    private StatePoller<ContractNegotiationState> negotiationPoller(ManagementApi api) {
+        return negotiationPollers.computeIfAbsent(api.key(), key -> new StatePoller<>(
+                "negotiation",
+                ids -> queryResources(EdcCall.NEGOTIATION_STATE, api, "/v3/contractnegotiations/request",
+                        "id", "in", ids, ids.size(), ManagementApiJson.NEGOTIATION_LIST_READER,
+                        Deadline.after(MAX_REQUEST_TIMEOUT)),
+                ContractNegotiationState::id,
+                negotiation -> NEGOTIATION_SETTLED_STATES.contains(negotiation.state()),
+                pollScheduler,
+                pollExecutor,
+                POLL_INTERVAL));
+    }
+
+    /**
+     * Shared transfer poller for the management URL and credentials
+     */
+    private StatePoller<TransferProcessState> transferPoller(ManagementApi api) {
+        return transferPollers.computeIfAbsent(api.key(), key -> new StatePoller<>(
+                "transfer",
+                ids -> queryResources(EdcCall.TRANSFER_STATE, api, "/v3/transferprocesses/request",
+                        "id", "in", ids, ids.size(), ManagementApiJson.TRANSFER_LIST_READER,
+                        Deadline.after(MAX_REQUEST_TIMEOUT)),
+                TransferProcessState::id,
+                transfer -> TRANSFER_SETTLED_STATES.contains(transfer.state()),
+                pollScheduler,
+                pollExecutor,
+                POLL_INTERVAL));
+    }
+
+    /**
+     * Drop the pollers and catalog batchers of management URLs and credentials nobody used for a
+     * while, so that rotated credentials and retired URLs do not keep them alive
+     */
+    private void evictIdle() {
+        negotiationPollers.entrySet().removeIf(entry -> entry.getValue().closeIfIdle(POLLER_IDLE_TIMEOUT));
+        transferPollers.entrySet().removeIf(entry -> entry.getValue().closeIfIdle(POLLER_IDLE_TIMEOUT));
+        catalogBatchers.entrySet().removeIf(entry -> entry.getValue().closeIfIdle(POLLER_IDLE_TIMEOUT));
+    }
+
+    /**
+     * Wait for the payload pushed by the provider data plane. The transfer state is only
+     * checked now and then to notice a failed transfer; a successful one ends with the push.
+     */
+    private FetchedData awaitPushedData(EdcConnectorRequest request, String transferId, PushSink.Delivery delivery,
+                                   Deadline deadline) throws Exception {
+        while (true) {
+            Duration wait = deadline.remaining().compareTo(PUSH_STATE_CHECK_INTERVAL) < 0
+                    ? deadline.remaining() : PUSH_STATE_CHECK_INTERVAL;
+            try {
+                PushSink.PushedPayload payload = delivery.take(wait.toNanos(), TimeUnit.NANOSECONDS);
+                deadline.recordBytes(payload.size());
+                return decodePushed(payload, request, payloadBudget, payloadDecoder, deadline);
+            } catch (ExecutionException e) {
+                throw new RuntimeException("Push of transfer " + transferId + " failed: " + e.getCause().getMessage(),
+                        e.getCause());
+            } catch (TimeoutException e) {
+                if (deadline.isExpired()) {
+                    throw deadline.exceeded("waiting for pushed data of transfer " + transferId);
+                }
+                TransferProcessState transfer = getTransferState(request, transferId, deadline);
+                deadline.recordPolls(1);
+                if (transfer != null && ("TERMINATED".equals(transfer.state()) || "ERROR".equals(transfer.state()))) {
+                    throw transferFailed(transfer.state());
+                }
+            }
+        }
+    }
+
+    /**
+     * A terminated transfer was rejected by the provider, an errored one failed for other reasons
+     */
+    private static RuntimeException transferFailed(String state) {
+        String message = "Transfer failed with state: " + state;
+        return "TERMINATED".equals(state) ? new ProviderRejectedException(message) : new RuntimeException(message);
+    }
+
+    /**
+     * Current state of a transfer process, or null if it could not be read
+     */
+    private TransferProcessState getTransferState(EdcConnectorRequest request, String transferId, Deadline deadline)
+            throws Exception {
+        HttpRequest httpRequest = buildRequest(
+                request.getEdcManagementUrl() + "/v3/transferprocesses/" + transferId,
+                "GET",
+                null,
+                request.getAuthentication(),
+                deadline
+        );
+
+        HttpResponse<byte[]> response = send(EdcCall.TRANSFER_STATE, httpRequest,
+                HttpResponse.BodyHandlers.ofByteArray(), request.getAuthentication(), deadline);
+        if (response.statusCode() != 200) {
+            LOGGER.debug("Reading state of transfer {} returned status {}", transferId, response.statusCode());
+            return null;
+        }
+        return ManagementApiJson.TRANSFER_READER.readValue(response.body());
     }
 
     /**
-     * Fetch actual data from the provider's data endpoint
+     * Fetch actual data from the provider's data endpoint. The SHA-256 of the body is computed
+     * while it is streamed into the decoder or the result cache.
      */
-    private Object fetchDataFromEndpoint(String endpoint, String authCode) throws Exception {
+    private FetchedData fetchDataFromEndpoint(EdcConnectorRequest request, String endpoint, String authCode,
+                                              Deadline deadline) throws Exception {
         LOGGER.info("Fetching data from endpoint: {}", endpoint);
         
-        HttpRequest httpRequest = HttpRequest.newBuilder()
+        HttpRequest.Builder requestBuilder = HttpRequest.newBuilder()
                 .uri(URI.create(endpoint))
                 .header("Authorization", authCode)
                 .header("Content-Type", "application/json")
                 .GET()
-                .timeout(Duration.ofSeconds(30))
-                .build();
+                .timeout(deadline.requestTimeout(MAX_REQUEST_TIMEOUT));
 
-        HttpResponse<String> response = httpClient.send(httpRequest, HttpResponse.BodyHandlers.ofString());
-        
-        if (response.statusCode() != 200) {
-            throw new RuntimeException("Failed to fetch data from endpoint. Status: " + 
-                    response.statusCode() + ", Body: " + response.body());
+        // Revalidate a cached payload instead of downloading it again
+        String cacheKey = resultCache != null ? cacheKey(request) : null;
+        CachedPayload cached = cacheKey != null ? resultCache.get(cacheKey) : null;
+        if (cached != null && cached.getEtag() != null) {
+            requestBuilder.header("If-None-Match", cached.getEtag());
+        }
+        if (cached != null && cached.getLastModified() != null) {
+            requestBuilder.header("If-Modified-Since", cached.getLastModified());
         }
 
-        // Try to parse as JSON, otherwise return as string
+        DataFetchEvent event = new DataFetchEvent();
+        event.begin();
+        event.assetId = request.getAssetId();
+        event.provider = request.getDspAddress();
+        // The request timeout ends with the response headers, the body is read within the deadline
+        Deadline.Watchdog watchdog = null;
         try {
-            return objectMapper.readTree(response.body());
-        } catch (Exception e) {
-            return response.body();
+            HttpResponse<InputStream> response = edcHttpClient.send(
+                    EdcCall.DATA_FETCH, requestBuilder.build(), HttpResponse.BodyHandlers.ofInputStream(), deadline);
+            event.httpStatus = response.statusCode();
+            watchdog = deadline.watch(pollScheduler);
+
+            if (cached != null && response.statusCode() == 304) {
+                response.body().close();
+                resultCache.recordRevalidated(cached);
+                deadline.recordCacheHit();
+                event.contentType = cached.getContentType();
+                LOGGER.info("Cached payload of asset {} is still current", request.getAssetId());
+                return decodeCached(cached, request, deadline);
+            }
+
+            if (response.statusCode() != 200) {
+                throw new RuntimeException("Failed to fetch data from endpoint. Status: " +
+                        response.statusCode() + ", Body: " + readErrorBody(response.body()));
+            }
+
+            // Decode according to the Content-Type instead of guessing
+            String contentType = response.headers().firstValue("Content-Type").orElse(null);
+            event.contentType = contentType;
+            CountingInputStream body = new CountingInputStream(response.body());
+            try {
+                if (resultCache != null) {
+                    resultCache.recordMiss();
+                }
+                String etag = response.headers().firstValue("ETag").orElse(null);
+                String lastModified = response.headers().firstValue("Last-Modified").orElse(null);
+                // Without validators a payload could never be revalidated, so it is not cached
+                if (resultCache == null || (etag == null && lastModified == null)) {
+                    return decodeBody(request, new DigestingInputStream(body), contentType,
+                            response.headers().firstValueAsLong("Content-Length"), deadline);
+                }
+                CachedPayload stored = resultCache.store(cacheKey, body, contentType, etag, lastModified);
+                try {
+                    return decodeCached(stored, request, deadline);
+                } finally {
+                    resultCache.release(stored);
+                }
+            } finally {
+                event.bytes = body.getCount();
+                deadline.recordBytes(body.getCount());
+            }
+        } catch (IOException e) {
+            if (watchdog != null && watchdog.hasFired()) {
+                throw deadline.exceeded("reading the payload");
+            }
+            throw e;
+        } finally {
+            if (watchdog != null) {
+                watchdog.close();
+            }
+            event.commit();
+            if (cached != null) {
+                resultCache.release(cached);
+            }
+        }
+    }
+
+    /**
+     * Decode a downloaded body within the payload memory budget. A body is decoded while it is
+     * streamed only if its Content-Length fits the budget right away; otherwise it is spilled to
+     * disk first, so that no data plane connection is held open while waiting for budget and
+     * the reservation covers its actual size.
+     */
+    private FetchedData decodeBody(EdcConnectorRequest request, DigestingInputStream body, String contentType,
+                                   OptionalLong contentLength, Deadline deadline) throws Exception {
+        PayloadBudget.Reservation reservation = isKeptAsFile(request, contentType) ? payloadBudget.tryReserve(0)
+                : contentLength.isPresent() ? payloadBudget.tryReserve(contentLength.getAsLong()) : null;
+        if (reservation != null) {
+            return decodeWithin(reservation, () -> payloadDecoder.decode(body, contentType, request), body::getSha256);
+        }
+
+        Path directory = EdcConnectorSettings.payloadDirectory();
+        Files.createDirectories(directory);
+        Path file = Files.createTempFile(directory, "edc-spool-", ".bin");
+        try {
+            try (InputStream in = body) {
+                Files.copy(in, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+            return decodeWithin(payloadBudget.reserve(Files.size(file), deadline),
+                    () -> payloadDecoder.decode(file, contentType, request), body::getSha256);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /**
+     * Decode a cached payload within the payload memory budget; the cached copy itself is left untouched
+     */
+    private FetchedData decodeCached(CachedPayload cached, EdcConnectorRequest request, Deadline deadline)
+            throws Exception {
+        PayloadBudget.Reservation reservation =
+                reservePayloadMemory(request, cached.getContentType(), cached.getSize(), deadline);
+        return decodeWithin(reservation,
+                () -> payloadDecoder.decode(cached.open(), cached.getContentType(), request), cached::getSha256);
+    }
+
+    /**
+     * Decode a pushed payload within the payload memory budget. The decoder takes over the file;
+     * if no budget is granted, e.g. because the deadline passes while waiting, the file is deleted.
+     */
+    static FetchedData decodePushed(PushSink.PushedPayload payload, EdcConnectorRequest request, PayloadBudget budget,
+                                    PayloadDecoder decoder, Deadline deadline) throws Exception {
+        PayloadBudget.Reservation reservation;
+        try {
+            reservation = budget.reserve(isKeptAsFile(request, payload.contentType()) ? 0 : payload.size(), deadline);
+        } catch (InterruptedException | RuntimeException e) {
+            Files.deleteIfExists(payload.file());
+            throw e;
+        }
+        return decodeWithin(reservation,
+                () -> decoder.decode(payload.file(), payload.contentType(), request), payload::sha256);
+    }
+
+    /**
+     * Decode a payload under the given reservation. The reservation is passed on with the
+     * decoded data, or released if decoding fails.
+     */
+    private static FetchedData decodeWithin(PayloadBudget.Reservation reservation, Callable<Object> decode,
+                                            Supplier<String> sha256) throws Exception {
+        try {
+            Object data = decode.call();
+            return new FetchedData(data, sha256.get(), reservation);
+        } catch (Exception | Error e) {
+            reservation.close();
+            throw e;
         }
     }
 
+    /**
+     * Reserve memory budget for decoding a payload of the given size. Binary payloads kept as
+     * files are streamed to disk and reserve nothing.
+     */
+    private PayloadBudget.Reservation reservePayloadMemory(EdcConnectorRequest request, String contentType,
+                                                           long size, Deadline deadline) throws InterruptedException {
+        return payloadBudget.reserve(isKeptAsFile(request, contentType) ? 0 : size, deadline);
+    }
+
+    private static boolean isKeptAsFile(EdcConnectorRequest request, String contentType) {
+        return PayloadType.fromContentType(contentType) == PayloadType.BINARY
+                && "file".equals(request.getBinaryHandling());
+    }
+
+    /**
+     * Read the beginning of an error response body for diagnostics
+     */
+    private String readErrorBody(InputStream body) throws IOException {
+        try (InputStream in = body) {
+            return new String(in.readNBytes(MAX_ERROR_BODY_BYTES), StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Send a Management API request. An OAuth2 token rejected with 401 is replaced and the
+     * request is sent once more.
+     */
+    private <T> HttpResponse<T> send(EdcCall call, HttpRequest httpRequest, HttpResponse.BodyHandler<T> bodyHandler,
+                                     EdcConnectorRequest.Authentication auth, Deadline deadline) throws Exception {
+        HttpResponse<T> response = sendTracked(call, httpRequest, bodyHandler, deadline);
+        if (response.statusCode() != 401 || auth == null || !"oauth2".equals(auth.getType())) {
+            return response;
+        }
+
+        String rejected = httpRequest.headers().firstValue("Authorization").orElse("").replaceFirst("^Bearer ", "");
+        tokenProvider.invalidate(auth, rejected);
+        LOGGER.info("OAuth2 token rejected by {}, retrying with a new token", httpRequest.uri());
+
+        HttpRequest retry = HttpRequest.newBuilder(httpRequest, (name, value) -> !"Authorization".equalsIgnoreCase(name))
+                .header("Authorization", "Bearer " + tokenProvider.getToken(auth, deadline))
+                .build();
+        return sendTracked(call, retry, bodyHandler, deadline);
+    }
+
+    /**
+     * Send a Management API request and feed its latency and outcome into endpoint selection
+     */
+    private <T> HttpResponse<T> sendTracked(EdcCall call, HttpRequest httpRequest,
+                                            HttpResponse.BodyHandler<T> bodyHandler, Deadline deadline)
+            throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        try {
+            HttpResponse<T> response = edcHttpClient.send(call, httpRequest, bodyHandler, deadline);
+            managementEndpoints.record(call, httpRequest.uri(), System.nanoTime() - start, response.statusCode() < 500);
+            return response;
+        } catch (IOException e) {
+            managementEndpoints.record(call, httpRequest.uri(), System.nanoTime() - start, false);
+            throw e;
+        }
+    }
+
+    /**
+     * Create a resource with a non-idempotent POST and return its ID.
+     * If the outcome of an attempt is unknown, an already created resource is looked up
+     * before the request is reissued.
+     */
+    private String createResource(EdcCall call, HttpRequest httpRequest, String failureMessage,
+                                  EdcConnectorRequest.Authentication auth, Deadline deadline,
+                                  Callable<String> findExisting) throws Exception {
+        int attempts = 0;
+        while (true) {
+            attempts++;
+            try {
+                HttpResponse<String> response = send(
+                        call, httpRequest, HttpResponse.BodyHandlers.ofString(), auth, deadline);
+
+                if (response.statusCode() != 200 && response.statusCode() != 201) {
+                    throw new RuntimeException(failureMessage + ". Status: " +
+                            response.statusCode() + ", Body: " + response.body());
+                }
+                IdResponse created = ManagementApiJson.ID_READER.readValue(response.body());
+                return created.id();
+
+            } catch (UncertainOutcomeException e) {
+                LOGGER.warn("{}. Checking whether the resource was created", e.getMessage());
+                String existingId = findExisting.call();
+                if (existingId != null) {
+                    LOGGER.info("Found resource {} created by the previous attempt of {}", existingId, call);
+                    return existingId;
+                }
+                Duration delay = edcHttpClient.getRetryPolicy().nextDelay(call, attempts, e.getRetryAfter(), deadline);
+                if (delay == null) {
+                    throw e;
+                }
+                deadline.sleep(delay);
+            }
+        }
+    }
+
+    /**
+     * Find the negotiation created for the given negotiation request ID. A negotiation with the
+     * provider created since the attempt that does not carry the ID may belong to another job,
+     * replica or asset, or be ours under an ID the control plane generated; as it cannot be told
+     * apart, the workflow fails instead of adopting it or negotiating a second time.
+     *
+     * @return null if no negotiation was created since the attempt
+     */
+    private String findCreatedNegotiation(EdcConnectorRequest request, String negotiationRequestId,
+                                          long createdAfter, Deadline deadline) throws Exception {
+        List<ContractNegotiationState> negotiations = queryResources(
+                EdcCall.RESOURCE_QUERY, ManagementApi.of(request), "/v3/contractnegotiations/request",
+                "counterPartyAddress", "=", request.getDspAddress(), 50,
+                ManagementApiJson.NEGOTIATION_LIST_READER, deadline);
+
+        boolean unmatched = false;
+        for (ContractNegotiationState negotiation : negotiations) {
+            if (negotiationRequestId.equals(negotiation.id())
+                    || negotiationRequestId.equals(negotiation.correlationId())) {
+                return negotiation.id();
+            }
+            unmatched |= negotiation.createdAt() >= createdAfter - LOOKUP_CLOCK_SKEW.toMillis();
+        }
+        if (unmatched) {
+            throw new RuntimeException("Outcome of the contract negotiation request for asset "
+                    + request.getAssetId() + " is unknown and negotiations created since then cannot be matched "
+                    + "to it. Not retrying to avoid adopting another negotiation or negotiating twice");
+        }
+        return null;
+    }
+
+    /**
+     * Find the transfer process created for the given transfer request ID
+     */
+    private String findCreatedTransfer(EdcConnectorRequest request, String contractAgreementId,
+                                       String transferRequestId, Deadline deadline) throws Exception {
+        List<TransferProcessState> transfers = queryResources(
+                EdcCall.RESOURCE_QUERY, ManagementApi.of(request), "/v3/transferprocesses/request", "contractId", "=",
+                contractAgreementId, 50, ManagementApiJson.TRANSFER_LIST_READER, deadline);
+
+        for (TransferProcessState transfer : transfers) {
+            if (transferRequestId.equals(transfer.id()) || transferRequestId.equals(transfer.correlationId())) {
+                return transfer.id();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Query management API resources with a single filter, newest first
+     */
+    private <T> List<T> queryResources(EdcCall call, ManagementApi api, String path, String property,
+                                       String operator, Object value, int limit, ObjectReader listReader,
+                                       Deadline deadline) throws Exception {
+        Map<String, Object> querySpec = new HashMap<>();
+        querySpec.put("@context", Map.of("@vocab", "https://w3id.org/edc/v0.0.1/ns/"));
+        querySpec.put("@type", "QuerySpec");
+        querySpec.put("offset", 0);
+        querySpec.put("limit", limit);
+        querySpec.put("sortField", "createdAt");
+        querySpec.put("sortOrder", "DESC");
+        querySpec.put("filterExpression", List.of(Map.of(
+                "operandLeft", property,
+                "operator", operator,
+                "operandRight", value
+        )));
+
+        HttpRequest httpRequest = buildRequest(
+                api.url() + path,
+                "POST",
+                objectMapper.writeValueAsString(querySpec),
+                api.auth(),
+                deadline
+        );
+        HttpResponse<byte[]> response = send(call, httpRequest,
+                HttpResponse.BodyHandlers.ofByteArray(), api.auth(), deadline);
+
+        if (response.statusCode() != 200) {
+            LOGGER.warn("Query {} failed with status {}", path, response.statusCode());
+            return List.of();
+        }
+        return listReader.readValue(response.body());
+    }
+
     /**
      * Build HTTP request with authentication
      */
     private HttpRequest buildRequest(String url, String method, String body, 
-                                     EdcConnectorRequest.Authentication auth) throws IOException {
+                                     EdcConnectorRequest.Authentication auth, Deadline deadline)
+            throws IOException, InterruptedException {
         HttpRequest.Builder builder = HttpRequest.newBuilder()
                 .uri(URI.create(url))
                 .header("Content-Type", "application/json")
-                .timeout(Duration.ofSeconds(30));
+                .timeout(deadline.requestTimeout(MAX_REQUEST_TIMEOUT));
 
         // Add authentication
         if (auth != null) {
@@ -444,6 +1378,8 @@ public class EdcService {
                 String credentials = auth.getUsername() + ":" + auth.getPassword();
                 String encodedCredentials = Base64.getEncoder().encodeToString(credentials.getBytes());
                 builder.header("Authorization", "Basic " + encodedCredentials);
+            } else if ("oauth2".equals(auth.getType())) {
+                builder.header("Authorization", "Bearer " + tokenProvider.getToken(auth, deadline));
             }
         }
 
@@ -456,4 +1392,78 @@ public class EdcService {
 
         return builder.build();
     }
+
+    private static final class Shared {
+        private static final EdcService INSTANCE = new EdcService();
+    }
+
+    /**
+     * Decoded payload with the hex encoded SHA-256 of its body, null if the digest is unknown.
+     * Closing it releases the payload memory budget reserved for the data.
+     */
+    record FetchedData(Object data, String sha256, PayloadBudget.Reservation reservation)
+            implements AutoCloseable {
+
+        @Override
+        public void close() {
+            reservation.close();
+        }
+    }
+
+    private record CatalogKey(PollerKey managementApi, String providerAddress, String providerDid) {
+    }
+
+    /**
+     * Provider catalog as seen through a management API, captured from a request for a catalog
+     * batcher that serves later jobs
+     */
+    private record CatalogTarget(ManagementApi api, String dspAddress, String providerDid) {
+
+        static CatalogTarget of(EdcConnectorRequest request) {
+            return new CatalogTarget(ManagementApi.of(request), request.getDspAddress(), request.getProviderDid());
+        }
+
+        CatalogKey key() {
+            return new CatalogKey(api.key(), dspAddress, providerDid);
+        }
+
+        /**
+         * New request for a catalog request of the batcher
+         */
+        EdcConnectorRequest toRequest() {
+            EdcConnectorRequest request = new EdcConnectorRequest();
+            request.setEdcManagementUrl(api.url());
+            request.setAuthentication(api.auth());
+            request.setProviderDid(providerDid);
+            request.setResolvedDspAddress(dspAddress);
+            return request;
+        }
+    }
+
+    /**
+     * Pollers are shared by requests to the same management URL with the same credentials.
+     * The key identifies the credentials by their digest only.
+     */
+    private record PollerKey(String managementUrl, String identity) {
+
+        static PollerKey of(EdcConnectorRequest request) {
+            return ManagementApi.of(request).key();
+        }
+    }
+
+    /**
+     * Management URL and credentials captured from a request, for components that outlive the
+     * job; later changes to the request do not reach them
+     */
+    private record ManagementApi(String url, EdcConnectorRequest.Authentication auth) {
+
+        static ManagementApi of(EdcConnectorRequest request) {
+            EdcConnectorRequest.Authentication auth = request.getAuthentication();
+            return new ManagementApi(request.getEdcManagementUrl(), auth == null ? null : auth.copy());
+        }
+
+        PollerKey key() {
+            return new PollerKey(url, auth == null ? "" : auth.identity());
+        }
+    }
 }
@@ -0,0 +1,236 @@
+package io.camunda.connector.edc.service;
+
+import io.camunda.connector.edc.config.EdcConnectorSettings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Load balancing across the management URLs of several control-plane replicas.
+ *
+ * Each endpoint tracks an EWMA of its latency and error rate. A workflow is routed to the
+ * endpoint with the lowest latency weighted by errors and by the workflows already running
+ * on it, and stays on that endpoint for all of its calls. Endpoints failing repeatedly are
+ * ejected and re-admitted once a probe request gets an answer again.
+ *
+ * All calls count towards the error rate, but only state polls towards the latency: they are
+ * the most frequent calls and are answered by the replica alone, while catalog requests wait
+ * for the provider and would make the replica serving them look slow.
+ */
+public class ManagementEndpoints {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ManagementEndpoints.class);
+    private static final double DECAY = 0.2;
+    private static final double ERROR_PENALTY = 10;
+    private static final double MIN_LATENCY_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final Duration PROBE_TIMEOUT = Duration.ofSeconds(5);
+    private static final Set<EdcCall> LATENCY_CALLS = EnumSet.of(EdcCall.NEGOTIATION_STATE, EdcCall.TRANSFER_STATE);
+
+    private final HttpClient httpClient;
+    private final int ejectAfterFailures;
+    private final Duration ejectDuration;
+    private final Duration maxEjectDuration;
+    private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService prober = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "edc-endpoint-prober");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public ManagementEndpoints(HttpClient httpClient, int ejectAfterFailures, Duration ejectDuration,
+                               Duration maxEjectDuration) {
+        this.httpClient = httpClient;
+        this.ejectAfterFailures = ejectAfterFailures;
+        this.ejectDuration = ejectDuration;
+        this.maxEjectDuration = maxEjectDuration;
+    }
+
+    public static ManagementEndpoints fromSettings(HttpClient httpClient) {
+        return new ManagementEndpoints(
+                httpClient,
+                EdcConnectorSettings.getInt("edc.connector.endpoints.eject-after-failures", 3),
+                EdcConnectorSettings.getDuration("edc.connector.endpoints.eject-duration", Duration.ofSeconds(5)),
+                EdcConnectorSettings.getDuration("edc.connector.endpoints.max-eject-duration", Duration.ofSeconds(60))
+        );
+    }
+
+    /**
+     * Pick the endpoint for a workflow. The lease must be closed when the workflow ends.
+     * If every endpoint is ejected the best of them is used anyway.
+     */
+    public Lease select(List<String> urls) {
+        Endpoint best = null;
+        boolean bestEjected = true;
+        for (String url : urls) {
+            Endpoint endpoint = endpoints.computeIfAbsent(url, Endpoint::new);
+            boolean ejected = endpoint.ejected;
+            if (best == null
+                    || (bestEjected && !ejected)
+                    || (bestEjected == ejected && endpoint.score() < best.score())) {
+                best = endpoint;
+                bestEjected = ejected;
+            }
+        }
+        if (best == null) {
+            throw new IllegalArgumentException("At least one EDC Management URL is required");
+        }
+        if (bestEjected && urls.size() > 1) {
+            LOGGER.warn("All EDC Management URLs are ejected, using {}", best.url);
+        }
+        best.active.incrementAndGet();
+        return new Lease(best);
+    }
+
+    /**
+     * Record the outcome of a call. The endpoint is the one with the longest URL that prefixes
+     * the request URI at a path segment boundary.
+     */
+    public void record(EdcCall call, URI uri, long latencyNanos, boolean success) {
+        String target = uri.toString();
+        Endpoint match = null;
+        for (Endpoint endpoint : endpoints.values()) {
+            if (isPrefix(endpoint.url, target) && (match == null || endpoint.url.length() > match.url.length())) {
+                match = endpoint;
+            }
+        }
+        if (match != null) {
+            match.record(LATENCY_CALLS.contains(call) ? latencyNanos : -1, success);
+        }
+    }
+
+    /**
+     * True if the URL prefixes the target and ends where one of its path segments ends,
+     * so that .../management does not match .../management2/v3/...
+     */
+    static boolean isPrefix(String url, String target) {
+        if (!target.startsWith(url)) {
+            return false;
+        }
+        if (target.length() == url.length() || url.endsWith("/")) {
+            return true;
+        }
+        char next = target.charAt(url.length());
+        return next == '/' || next == '?' || next == '#';
+    }
+
+    public void close() {
+        prober.shutdownNow();
+    }
+
+    private void eject(Endpoint endpoint, Duration duration) {
+        LOGGER.warn("Ejecting EDC Management URL {} for {} ms after {} consecutive failures",
+                endpoint.url, duration.toMillis(), endpoint.consecutiveFailures);
+        prober.schedule(() -> probe(endpoint, duration), duration.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Any HTTP answer below 500, including 401 for the unauthenticated probe, shows the
+     * control plane is reachable again
+     */
+    private void probe(Endpoint endpoint, Duration lastEjectDuration) {
+        HttpRequest probe = HttpRequest.newBuilder(URI.create(endpoint.url))
+                .timeout(PROBE_TIMEOUT)
+                .GET()
+                .build();
+        httpClient.sendAsync(probe, HttpResponse.BodyHandlers.discarding()).whenComplete((response, error) -> {
+            if (error == null && response.statusCode() < 500) {
+                LOGGER.info("Re-admitting EDC Management URL {} after successful probe", endpoint.url);
+                endpoint.readmit();
+            } else {
+                Duration next = lastEjectDuration.multipliedBy(2);
+                if (next.compareTo(maxEjectDuration) > 0) {
+                    next = maxEjectDuration;
+                }
+                Duration delay = next;
+                LOGGER.warn("Probe of EDC Management URL {} failed, next probe in {} ms", endpoint.url, delay.toMillis());
+                prober.schedule(() -> probe(endpoint, delay), delay.toNanos(), TimeUnit.NANOSECONDS);
+            }
+        });
+    }
+
+    /**
+     * An endpoint chosen for one workflow
+     */
+    public static final class Lease implements AutoCloseable {
+        private final Endpoint endpoint;
+        private boolean closed;
+
+        private Lease(Endpoint endpoint) {
+            this.endpoint = endpoint;
+        }
+
+        public String getUrl() {
+            return endpoint.url;
+        }
+
+        @Override
+        public void close() {
+            if (!closed) {
+                closed = true;
+                endpoint.active.decrementAndGet();
+            }
+        }
+    }
+
+    private final class Endpoint {
+        private final String url;
+        private final AtomicInteger active = new AtomicInteger();
+        private double latencyNanos;
+        private double errorRate;
+        private int consecutiveFailures;
+        private volatile boolean ejected;
+
+        private Endpoint(String url) {
+            this.url = url;
+        }
+
+        /**
+         * Lower is better. Latency has a floor so that untried endpoints, which are preferred,
+         * still spread concurrent workflows by their active count.
+         */
+        private synchronized double score() {
+            return Math.max(latencyNanos, MIN_LATENCY_NANOS) * (1 + ERROR_PENALTY * errorRate) * (1 + active.get());
+        }
+
+        /**
+         * @param sampleNanos latency of the call, negative if it does not count towards the latency
+         */
+        private void record(long sampleNanos, boolean success) {
+            boolean eject;
+            synchronized (this) {
+                if (sampleNanos >= 0) {
+                    latencyNanos = latencyNanos == 0 ? sampleNanos : latencyNanos + DECAY * (sampleNanos - latencyNanos);
+                }
+                errorRate += DECAY * ((success ? 0 : 1) - errorRate);
+                consecutiveFailures = success ? 0 : consecutiveFailures + 1;
+                eject = !ejected && consecutiveFailures >= ejectAfterFailures;
+                if (eject) {
+                    ejected = true;
+                }
+            }
+            if (eject) {
+                eject(this, ejectDuration);
+            }
+        }
+
+        private synchronized void readmit() {
+            consecutiveFailures = 0;
+            errorRate /= 2;
+            ejected = false;
+        }
+    }
+}
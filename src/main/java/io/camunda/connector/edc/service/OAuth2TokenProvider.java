@@ -0,0 +1,232 @@
+package io.camunda.connector.edc.service;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.ObjectReader;
+import io.camunda.connector.edc.model.EdcConnectorRequest;
+import io.camunda.connector.edc.model.management.ManagementApiJson;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * OAuth2 client-credentials tokens for the Management API.
+ *
+ * Tokens are cached per token endpoint, client and scope. Concurrent requests for a missing
+ * token share one token request, and tokens that were used since they were issued are
+ * refreshed in the background before they expire so jobs never wait for the token endpoint.
+ * Token requests run on a small pool of their own, so a slow token endpoint neither delays
+ * the refresh timers nor the token requests for other endpoints.
+ */
+public class OAuth2TokenProvider {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(OAuth2TokenProvider.class);
+    private static final ObjectReader TOKEN_READER = ManagementApiJson.MAPPER.readerFor(TokenResponse.class);
+    private static final long DEFAULT_EXPIRES_IN_SECONDS = 300;
+    private static final int MAX_CONCURRENT_FETCHES = 4;
+
+    private final HttpClient httpClient;
+    private final double refreshRatio;
+    private final Duration requestTimeout;
+    private final Map<TokenKey, CachedToken> tokens = new ConcurrentHashMap<>();
+    private final Map<TokenKey, CompletableFuture<CachedToken>> inFlight = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "edc-oauth2-refresher");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final ExecutorService fetcher;
+
+    /**
+     * @param refreshRatio fraction of the token lifetime after which it is refreshed, e.g. 0.8
+     */
+    public OAuth2TokenProvider(HttpClient httpClient, double refreshRatio, Duration requestTimeout) {
+        this.httpClient = httpClient;
+        this.refreshRatio = refreshRatio;
+        this.requestTimeout = requestTimeout;
+        ThreadPoolExecutor fetcher = new ThreadPoolExecutor(MAX_CONCURRENT_FETCHES, MAX_CONCURRENT_FETCHES,
+                30, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "edc-oauth2-fetch");
+            thread.setDaemon(true);
+            return thread;
+        });
+        fetcher.allowCoreThreadTimeOut(true);
+        this.fetcher = fetcher;
+    }
+
+    /**
+     * Return a valid access token, fetching one if none is cached
+     */
+    public String getToken(EdcConnectorRequest.Authentication auth, Deadline deadline)
+            throws IOException, InterruptedException {
+        TokenKey key = TokenKey.of(auth);
+        CachedToken cached = tokens.get(key);
+        if (cached != null && !cached.isExpired()) {
+            cached.used = true;
+            return cached.accessToken;
+        }
+        return await(fetch(key, auth, true), deadline).accessToken;
+    }
+
+    /**
+     * Drop a token the server rejected, unless it was already replaced
+     */
+    public void invalidate(EdcConnectorRequest.Authentication auth, String rejectedToken) {
+        TokenKey key = TokenKey.of(auth);
+        tokens.computeIfPresent(key, (k, cached) -> cached.accessToken.equals(rejectedToken) ? null : cached);
+    }
+
+    /**
+     * Start a token request for the key or join the one already running.
+     * Tokens fetched by the background refresh only stay cached if a job uses them.
+     */
+    private CompletableFuture<CachedToken> fetch(TokenKey key, EdcConnectorRequest.Authentication auth,
+                                                 boolean onDemand) {
+        CompletableFuture<CachedToken> created = new CompletableFuture<>();
+        CompletableFuture<CachedToken> existing = inFlight.putIfAbsent(key, created);
+        if (existing != null) {
+            return existing;
+        }
+
+        CompletableFuture.runAsync(() -> {
+            try {
+                CachedToken token = requestToken(key, auth);
+                token.used = onDemand;
+                tokens.put(key, token);
+                scheduleRefresh(key, auth, token);
+                // Leave the in-flight map first so that a request after an invalidation gets a new token
+                inFlight.remove(key, created);
+                created.complete(token);
+            } catch (Exception e) {
+                inFlight.remove(key, created);
+                created.completeExceptionally(e);
+            }
+        }, fetcher);
+        return created;
+    }
+
+    private void scheduleRefresh(TokenKey key, EdcConnectorRequest.Authentication auth, CachedToken token) {
+        long delayNanos = (long) ((token.expiresAtNanos - token.issuedAtNanos) * refreshRatio);
+        refresher.schedule(() -> {
+            if (tokens.get(key) != token) {
+                return; // Replaced or invalidated in the meantime
+            }
+            if (!token.used) {
+                // Stop refreshing credentials nobody uses anymore
+                tokens.remove(key, token);
+                return;
+            }
+            LOGGER.debug("Refreshing OAuth2 token for client {} before expiry", key.clientId());
+            fetch(key, auth, false).exceptionally(e -> {
+                LOGGER.warn("Background refresh of OAuth2 token for client {} failed: {}", key.clientId(), e.toString());
+                return null;
+            });
+        }, delayNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private CachedToken requestToken(TokenKey key, EdcConnectorRequest.Authentication auth)
+            throws IOException, InterruptedException {
+        StringBuilder form = new StringBuilder("grant_type=client_credentials");
+        if (key.scope() != null) {
+            form.append("&scope=").append(URLEncoder.encode(key.scope(), StandardCharsets.UTF_8));
+        }
+        String credentials = URLEncoder.encode(auth.getClientId(), StandardCharsets.UTF_8) + ":"
+                + URLEncoder.encode(auth.getClientSecret(), StandardCharsets.UTF_8);
+
+        HttpRequest httpRequest = HttpRequest.newBuilder()
+                .uri(URI.create(key.tokenUrl()))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .header("Accept", "application/json")
+                .header("Authorization", "Basic " + Base64.getEncoder()
+                        .encodeToString(credentials.getBytes(StandardCharsets.UTF_8)))
+                .timeout(requestTimeout)
+                .POST(HttpRequest.BodyPublishers.ofString(form.toString()))
+                .build();
+
+        long issuedAt = System.nanoTime();
+        HttpResponse<byte[]> response = httpClient.send(httpRequest, HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != 200) {
+            throw new IOException("Failed to obtain OAuth2 token from " + key.tokenUrl() + ". Status: "
+                    + response.statusCode() + ", Body: " + new String(response.body(), StandardCharsets.UTF_8));
+        }
+
+        TokenResponse token = TOKEN_READER.readValue(response.body());
+        if (token.accessToken() == null) {
+            throw new IOException("OAuth2 token response from " + key.tokenUrl() + " contains no access_token");
+        }
+        long expiresIn = token.expiresIn() != null ? token.expiresIn() : DEFAULT_EXPIRES_IN_SECONDS;
+        LOGGER.info("Obtained OAuth2 token for client {} valid for {} s", key.clientId(), expiresIn);
+        return new CachedToken(token.accessToken(), issuedAt, issuedAt + TimeUnit.SECONDS.toNanos(expiresIn));
+    }
+
+    private static CachedToken await(CompletableFuture<CachedToken> future, Deadline deadline)
+            throws IOException, InterruptedException {
+        try {
+            return future.get(deadline.remaining().toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            throw deadline.exceeded("waiting for OAuth2 token");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException("Failed to obtain OAuth2 token", e.getCause());
+        }
+    }
+
+    public void close() {
+        refresher.shutdownNow();
+        fetcher.shutdownNow();
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    record TokenResponse(
+            @JsonProperty("access_token") String accessToken,
+            @JsonProperty("expires_in") Long expiresIn
+    ) {
+    }
+
+    private static final class CachedToken {
+        private final String accessToken;
+        private final long issuedAtNanos;
+        private final long expiresAtNanos;
+        private volatile boolean used;
+
+        private CachedToken(String accessToken, long issuedAtNanos, long expiresAtNanos) {
+            this.accessToken = accessToken;
+            this.issuedAtNanos = issuedAtNanos;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+
+        private boolean isExpired() {
+            return expiresAtNanos - System.nanoTime() <= 0;
+        }
+    }
+
+    private record TokenKey(String tokenUrl, String clientId, String scope) {
+
+        static TokenKey of(EdcConnectorRequest.Authentication auth) {
+            String scope = auth.getScope() == null || auth.getScope().isBlank() ? null : auth.getScope();
+            return new TokenKey(auth.getTokenUrl(), auth.getClientId(), scope);
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package io.camunda.connector.edc.service;
+
+import io.camunda.connector.edc.config.EdcConnectorSettings;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Global limit on the heap taken by decoded payloads at the same time.
+ *
+ * Every payload reserves its size times the expansion factor, since a decoded JSON tree or
+ * string takes several times the bytes of its body, and holds the reservation until its result
+ * is handed back to the job. The heap needed for payloads is so bounded by the budget however
+ * many workflows run concurrently. Reservations that do not fit wait in arrival order, so a
+ * large payload is not starved by a stream of small ones. A payload larger than the whole
+ * budget waits until it can run alone.
+ */
+public class PayloadBudget {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PayloadBudget.class);
+    private static final Reservation NO_OP = () -> { };
+
+    private final long capacity;
+    private final int expansionFactor;
+    private final Timer waitTimer;
+    private final Queue<Waiter> queue = new ArrayDeque<>();
+    private long reserved;
+
+    /**
+     * @param capacity bytes that may be reserved at the same time, 0 to reserve nothing
+     */
+    public PayloadBudget(long capacity, MeterRegistry registry) {
+        this(capacity, 1, registry);
+    }
+
+    /**
+     * @param capacity        bytes that may be reserved at the same time, 0 to reserve nothing
+     * @param expansionFactor heap bytes reserved per payload byte
+     */
+    public PayloadBudget(long capacity, int expansionFactor, MeterRegistry registry) {
+        this.capacity = capacity;
+        this.expansionFactor = Math.max(expansionFactor, 1);
+        this.waitTimer = Timer.builder("edc.connector.payload.budget.wait")
+                .description("Time payloads waited for memory budget")
+                .register(registry);
+        Gauge.builder("edc.connector.payload.budget.reserved", this, PayloadBudget::getReserved)
+                .description("Heap bytes reserved for decoded payloads")
+                .baseUnit("bytes")
+                .register(registry);
+        Gauge.builder("edc.connector.payload.budget.available", this, PayloadBudget::getAvailable)
+                .description("Heap bytes that can still be reserved for payloads")
+                .baseUnit("bytes")
+                .register(registry);
+    }
+
+    public static PayloadBudget fromSettings() {
+        long capacity = EdcConnectorSettings.getLong("edc.connector.payload.memory-budget-bytes",
+                Runtime.getRuntime().maxMemory() / 2);
+        int expansionFactor = EdcConnectorSettings.getInt("edc.connector.payload.expansion-factor", 4);
+        if (capacity > 0) {
+            LOGGER.info("Payload memory budget is {} bytes, {} per payload byte", capacity, expansionFactor);
+        }
+        return new PayloadBudget(capacity, expansionFactor, Metrics.globalRegistry);
+    }
+
+    /**
+     * Reserve budget for a payload of the given size if it is available right away, without
+     * waiting. The reservation must be closed once the decoded payload was handed back.
+     *
+     * @return the reservation, or null if the payload would have to wait
+     */
+    public Reservation tryReserve(long payloadBytes) {
+        if (capacity <= 0 || payloadBytes <= 0) {
+            return NO_OP;
+        }
+        return grantNow(amount(payloadBytes));
+    }
+
+    /**
+     * Wait until budget for a payload of the given size is reserved. The reservation must be
+     * closed once the decoded payload was handed back.
+     *
+     * @throws DeadlineExceededException if the deadline passes while waiting
+     */
+    public Reservation reserve(long payloadBytes, Deadline deadline) throws InterruptedException {
+        if (capacity <= 0 || payloadBytes <= 0) {
+            return NO_OP;
+        }
+        long amount = amount(payloadBytes);
+
+        Waiter waiter;
+        synchronized (this) {
+            Reservation reservation = grantNow(amount);
+            if (reservation != null) {
+                return reservation;
+            }
+            waiter = new Waiter(amount, System.nanoTime());
+            queue.add(waiter);
+        }
+
+        LOGGER.debug("Waiting for {} bytes of payload memory budget", amount);
+        try {
+            waiter.granted.get(deadline.remaining().toNanos(), TimeUnit.NANOSECONDS);
+            return () -> release(amount);
+        } catch (TimeoutException | InterruptedException e) {
+            abandon(waiter);
+            if (e instanceof InterruptedException) {
+                throw (InterruptedException) e;
+            }
+            throw deadline.exceeded("waiting for " + amount + " bytes of payload memory budget");
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Payload budget reservation failed", e);
+        }
+    }
+
+    /**
+     * Reserve the amount if nobody waits and it fits, otherwise return null
+     */
+    private synchronized Reservation grantNow(long amount) {
+        if (!queue.isEmpty() || reserved + amount > capacity) {
+            return null;
+        }
+        reserved += amount;
+        waitTimer.record(0, TimeUnit.NANOSECONDS);
+        return () -> release(amount);
+    }
+
+    /**
+     * Heap bytes reserved for a payload, capped at the whole budget
+     */
+    private long amount(long payloadBytes) {
+        long bytes = Math.max(payloadBytes, 0);
+        return bytes > capacity / expansionFactor ? capacity : bytes * expansionFactor;
+    }
+
+    public synchronized long getReserved() {
+        return reserved;
+    }
+
+    public synchronized long getAvailable() {
+        return Math.max(capacity - reserved, 0);
+    }
+
+    private synchronized void release(long amount) {
+        reserved -= amount;
+        dispatch();
+    }
+
+    /**
+     * Give up waiting; bytes granted in the meantime are passed on
+     */
+    private synchronized void abandon(Waiter waiter) {
+        if (!queue.remove(waiter)) {
+            reserved -= waiter.amount;
+        }
+        dispatch();
+    }
+
+    private void dispatch() {
+        while (!queue.isEmpty() && reserved + queue.peek().amount <= capacity) {
+            Waiter waiter = queue.poll();
+            reserved += waiter.amount;
+            waitTimer.record(System.nanoTime() - waiter.enqueuedNanos, TimeUnit.NANOSECONDS);
+            waiter.granted.complete(null);
+        }
+    }
+
+    /**
+     * Bytes reserved for one payload, held until its decoded form was handed back
+     */
+    @FunctionalInterface
+    public interface Reservation extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    private record Waiter(long amount, long enqueuedNanos, CompletableFuture<Void> granted) {
+        private Waiter(long amount, long enqueuedNanos) {
+            this(amount, enqueuedNanos, new CompletableFuture<>());
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package io.camunda.connector.edc.service;
+
+/**
+ * Thrown when the provider terminated a contract negotiation or transfer process
+ */
+public class ProviderRejectedException extends RuntimeException {
+
+    public ProviderRejectedException(String message) {
+        super(message);
+    }
+}
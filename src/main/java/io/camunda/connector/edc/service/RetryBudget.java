@@ -0,0 +1,55 @@
+package io.camunda.connector.edc.service;
+
+/**
+ * Global limit on retries shared by all workflows of a connector instance.
+ *
+ * Every first attempt deposits a fraction of a retry token and every retry withdraws a whole
+ * token, so retries stay a bounded fraction of the total traffic. A small number of retries
+ * per second is always allowed so low traffic can still recover from transient errors. When
+ * the control plane is degraded this stops the connector from multiplying its own load.
+ */
+public class RetryBudget {
+
+    private static final long ONE_SECOND_NANOS = 1_000_000_000L;
+
+    private final double depositPerRequest;
+    private final double maxBalance;
+    private final int minRetriesPerSecond;
+    private double balance;
+    private long windowStart = System.nanoTime();
+    private int windowRetries;
+
+    public RetryBudget(double retryRatio, int minRetriesPerSecond) {
+        this.depositPerRequest = retryRatio;
+        this.minRetriesPerSecond = minRetriesPerSecond;
+        this.maxBalance = Math.max(1, retryRatio * 1000);
+    }
+
+    public synchronized void recordRequest() {
+        balance = Math.min(maxBalance, balance + depositPerRequest);
+    }
+
+    /**
+     * Take permission for one retry, returns false when the budget is exhausted
+     */
+    public synchronized boolean tryAcquire() {
+        long now = System.nanoTime();
+        if (now - windowStart >= ONE_SECOND_NANOS) {
+            windowStart = now;
+            windowRetries = 0;
+        }
+        if (windowRetries < minRetriesPerSecond) {
+            windowRetries++;
+            return true;
+        }
+        if (balance >= 1) {
+            balance -= 1;
+            return true;
+        }
+        return false;
+    }
+
+    public synchronized double getBalance() {
+        return balance;
+    }
+}
@@ -0,0 +1,123 @@
+package io.camunda.connector.edc.service;
+
+import io.camunda.connector.edc.config.EdcConnectorSettings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Retry policy for transient EDC failures.
+ *
+ * Backoff is exponential with full jitter, a Retry-After header from the server takes
+ * precedence when it asks for a longer wait, and no retry is attempted when the wait would
+ * not fit into the remaining workflow deadline or when the global retry budget is exhausted.
+ */
+public class RetryPolicy {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RetryPolicy.class);
+
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final RetryBudget budget;
+
+    public RetryPolicy(int maxAttempts, Duration initialBackoff, Duration maxBackoff, RetryBudget budget) {
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.budget = budget;
+    }
+
+    public static RetryPolicy fromSettings() {
+        return new RetryPolicy(
+                EdcConnectorSettings.getInt("edc.connector.retry.max-attempts", 4),
+                EdcConnectorSettings.getDuration("edc.connector.retry.initial-backoff", Duration.ofMillis(200)),
+                EdcConnectorSettings.getDuration("edc.connector.retry.max-backoff", Duration.ofSeconds(5)),
+                new RetryBudget(
+                        Double.parseDouble(EdcConnectorSettings.getString("edc.connector.retry.budget-ratio", "0.1")),
+                        EdcConnectorSettings.getInt("edc.connector.retry.budget-min-per-second", 10)
+                )
+        );
+    }
+
+    /**
+     * Statuses that indicate a transient problem of the control plane or a proxy in front of it
+     */
+    public boolean isRetryableStatus(int status) {
+        return status == 429 || status == 502 || status == 503 || status == 504;
+    }
+
+    /**
+     * Statuses that guarantee the request was rejected before being processed
+     */
+    public boolean isUnprocessedStatus(int status) {
+        return status == 429 || status == 503;
+    }
+
+    /**
+     * Record a first attempt so that it contributes to the retry budget
+     */
+    public void recordAttempt() {
+        budget.recordRequest();
+    }
+
+    /**
+     * Delay before the next attempt.
+     *
+     * @param attempts number of attempts made so far
+     * @return the delay, or null if no further attempt should be made
+     */
+    public Duration nextDelay(EdcCall call, int attempts, Duration retryAfter, Deadline deadline) {
+        if (attempts >= maxAttempts) {
+            return null;
+        }
+
+        Duration delay = backoff(attempts);
+        if (retryAfter != null && retryAfter.compareTo(delay) > 0) {
+            delay = retryAfter;
+        }
+        if (delay.compareTo(deadline.remaining()) >= 0) {
+            LOGGER.debug("Not retrying {}: backoff of {} ms exceeds the remaining budget", call, delay.toMillis());
+            return null;
+        }
+        if (!budget.tryAcquire()) {
+            LOGGER.warn("Not retrying {}: global retry budget exhausted", call);
+            return null;
+        }
+
+        LOGGER.info("Retrying {} in {} ms (attempt {} of {})", call, delay.toMillis(), attempts + 1, maxAttempts);
+        return delay;
+    }
+
+    private Duration backoff(int attempts) {
+        long cap = Math.min(maxBackoff.toMillis(), initialBackoff.toMillis() << Math.min(attempts - 1, 20));
+        return Duration.ofMillis(ThreadLocalRandom.current().nextLong(cap + 1));
+    }
+
+    /**
+     * Parse a Retry-After header given either as delay in seconds or as HTTP date
+     */
+    public static Duration parseRetryAfter(Optional<String> header) {
+        if (header.isEmpty()) {
+            return null;
+        }
+        String value = header.get().trim();
+        try {
+            return Duration.ofSeconds(Math.max(0, Long.parseLong(value)));
+        } catch (NumberFormatException e) {
+            try {
+                ZonedDateTime date = ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME);
+                Duration delay = Duration.between(ZonedDateTime.now(date.getZone()), date);
+                return delay.isNegative() ? Duration.ZERO : delay;
+            } catch (DateTimeParseException ignored) {
+                return null;
+            }
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package io.camunda.connector.edc.service;
+
+import io.camunda.connector.edc.jfr.PollIterationEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Shared poller for the state of in-flight negotiations or transfers on one management URL.
+ *
+ * Workflows register the IDs they wait for. Every tick the states of all registered IDs are
+ * read with one query through the Management API's /request endpoint, filtered on the IDs,
+ * and the futures of settled IDs are completed. Control-plane request volume therefore grows
+ * with the number of ticks rather than with the number of jobs. The scheduler only fires the
+ * ticks; the queries run on the given executor, one at a time, so a slow control plane does
+ * not hold up the timers of other pollers.
+ */
+public class StatePoller<T> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(StatePoller.class);
+    private static final int MAX_IDS_PER_QUERY = 100;
+
+    /**
+     * Reads the states of the given IDs in one request
+     */
+    @FunctionalInterface
+    public interface BulkQuery<T> {
+        List<T> query(List<String> ids) throws Exception;
+    }
+
+    private final String name;
+    private final BulkQuery<T> bulkQuery;
+    private final Function<T, String> idOf;
+    private final Predicate<T> isSettled;
+    private final Map<String, CompletableFuture<T>> waiters = new ConcurrentHashMap<>();
+    private final AtomicLong polls = new AtomicLong();
+    private final AtomicBoolean polling = new AtomicBoolean();
+    private final Executor executor;
+    private final ScheduledFuture<?> ticks;
+    private long lastUsedNanos = System.nanoTime();
+    private boolean closed;
+
+    public StatePoller(String name, BulkQuery<T> bulkQuery, Function<T, String> idOf, Predicate<T> isSettled,
+                       ScheduledExecutorService scheduler, Executor executor, Duration interval) {
+        this.name = name;
+        this.bulkQuery = bulkQuery;
+        this.idOf = idOf;
+        this.isSettled = isSettled;
+        this.executor = executor;
+        this.ticks = scheduler.scheduleWithFixedDelay(
+                this::tick, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Wait for the ID to reach a settled state. The future must be passed to
+     * {@link #cancel(String, CompletableFuture)} if the caller stops waiting.
+     *
+     * @return null if the poller was closed; the caller needs a new one
+     */
+    public synchronized CompletableFuture<T> await(String id) {
+        if (closed) {
+            return null;
+        }
+        lastUsedNanos = System.nanoTime();
+        return waiters.computeIfAbsent(id, key -> new CompletableFuture<>());
+    }
+
+    /**
+     * Stop polling if no ID was waited for during the given time
+     *
+     * @return true if the poller is closed
+     */
+    public synchronized boolean closeIfIdle(Duration idleTimeout) {
+        if (!closed && waiters.isEmpty() && System.nanoTime() - lastUsedNanos >= idleTimeout.toNanos()) {
+            closed = true;
+            ticks.cancel(false);
+        }
+        return closed;
+    }
+
+    public void cancel(String id, CompletableFuture<T> waiter) {
+        waiters.remove(id, waiter);
+        waiter.cancel(false);
+        synchronized (this) {
+            lastUsedNanos = System.nanoTime();
+        }
+    }
+
+    /**
+     * Poll ticks so far; the difference over a wait is the number of polls the waiter's ID took part in
+     */
+    public long getPolls() {
+        return polls.get();
+    }
+
+    /**
+     * IDs currently waited for
+     */
+    public int size() {
+        return waiters.size();
+    }
+
+    /**
+     * Hand the poll to the executor unless the previous one is still running
+     */
+    private void tick() {
+        if (waiters.isEmpty() || !polling.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    poll();
+                } finally {
+                    polling.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            polling.set(false);
+        }
+    }
+
+    private void poll() {
+        polls.incrementAndGet();
+        List<String> ids = new ArrayList<>(waiters.keySet());
+        for (int from = 0; from < ids.size(); from += MAX_IDS_PER_QUERY) {
+            List<String> page = ids.subList(from, Math.min(from + MAX_IDS_PER_QUERY, ids.size()));
+            PollIterationEvent event = new PollIterationEvent();
+            event.begin();
+            try {
+                for (T state : bulkQuery.query(page)) {
+                    String id = idOf.apply(state);
+                    if (id != null && isSettled.test(state)) {
+                        CompletableFuture<T> waiter = waiters.remove(id);
+                        if (waiter != null) {
+                            waiter.complete(state);
+                            event.settled++;
+                        }
+                    }
+                }
+                event.succeeded = true;
+            } catch (Exception e) {
+                // Waiters keep waiting, their own deadline decides when to give up
+                LOGGER.warn("Polling {} state of {} ID(s) failed: {}", name, page.size(), e.toString());
+            } finally {
+                event.resource = name;
+                event.ids = page.size();
+                event.commit();
+            }
+        }
+    }
+}
@@ -0,0 +1,237 @@
+package io.camunda.connector.edc.service;
+
+import io.camunda.connector.edc.config.EdcConnectorSettings;
+import io.camunda.connector.edc.model.EdcConnectorRequest;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Terminates transfer processes whose data has been consumed, and the negotiations and
+ * transfers left behind by cancelled workflows.
+ *
+ * Jobs only enqueue the resource, so cleanup never adds latency to a job. A background thread
+ * collects the resources enqueued during each interval and terminates them as one batch with
+ * bounded concurrency; failed terminations are retried with the next batch.
+ * The number of resources waiting or being terminated is exposed as the
+ * {@code edc.connector.cleanup.backlog} gauge. Meters carry an {@code instance} tag, so several
+ * cleaners in one process report separately, and are removed when the cleaner is closed.
+ */
+public class TransferCleaner {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TransferCleaner.class);
+    private static final int MAX_ATTEMPTS = 3;
+    private static final AtomicInteger INSTANCES = new AtomicInteger();
+    private static final String TERMINATE_BODY = "{\"@context\":{\"@vocab\":\"https://w3id.org/edc/v0.0.1/ns/\"},"
+            + "\"@type\":\"%s\",\"reason\":\"%s\"}";
+
+    /**
+     * Management API resources that can be terminated
+     */
+    public enum Resource {
+        TRANSFER("/v3/transferprocesses/", "TerminateTransfer", "edc.connector.cleanup.transfers"),
+        NEGOTIATION("/v3/contractnegotiations/", "TerminateNegotiation", "edc.connector.cleanup.negotiations");
+
+        private final String path;
+        private final String terminateType;
+        private final String metric;
+
+        Resource(String path, String terminateType, String metric) {
+            this.path = path;
+            this.terminateType = terminateType;
+            this.metric = metric;
+        }
+
+        @Override
+        public String toString() {
+            return this == TRANSFER ? "transfer" : "negotiation";
+        }
+    }
+
+    /**
+     * Builds an authenticated Management API request
+     */
+    @FunctionalInterface
+    public interface RequestBuilder {
+        HttpRequest build(String url, String body, EdcConnectorRequest.Authentication auth) throws Exception;
+    }
+
+    private final HttpClient httpClient;
+    private final RequestBuilder requestBuilder;
+    private final Semaphore permits;
+    private final BlockingQueue<Task> queue;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Map<Resource, Outcomes> outcomes = new EnumMap<>(Resource.class);
+    private final MeterRegistry registry;
+    private final String instance = String.valueOf(INSTANCES.incrementAndGet());
+    private final List<Meter> meters = new ArrayList<>();
+    private final ScheduledExecutorService worker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "edc-transfer-cleaner");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public TransferCleaner(HttpClient httpClient, RequestBuilder requestBuilder, int concurrency,
+                           int maxBacklog, Duration interval, MeterRegistry registry) {
+        this.httpClient = httpClient;
+        this.requestBuilder = requestBuilder;
+        this.permits = new Semaphore(concurrency);
+        this.queue = new LinkedBlockingQueue<>(maxBacklog);
+        this.registry = registry;
+
+        meters.add(Gauge.builder("edc.connector.cleanup.backlog", this, TransferCleaner::getBacklog)
+                .description("Transfers and negotiations waiting to be terminated")
+                .tag("instance", instance)
+                .register(registry));
+        for (Resource resource : Resource.values()) {
+            outcomes.put(resource, new Outcomes(
+                    cleanedCounter(resource, "terminated"),
+                    cleanedCounter(resource, "failed"),
+                    cleanedCounter(resource, "dropped")));
+        }
+
+        worker.scheduleWithFixedDelay(this::drain, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public static TransferCleaner fromSettings(HttpClient httpClient, RequestBuilder requestBuilder) {
+        return new TransferCleaner(
+                httpClient,
+                requestBuilder,
+                EdcConnectorSettings.getInt("edc.connector.cleanup.concurrency", 4),
+                EdcConnectorSettings.getInt("edc.connector.cleanup.max-backlog", 10000),
+                EdcConnectorSettings.getDuration("edc.connector.cleanup.interval", Duration.ofSeconds(1)),
+                Metrics.globalRegistry
+        );
+    }
+
+    /**
+     * Schedule the termination of a consumed transfer. Never blocks; if the backlog is full
+     * the transfer is left as it is.
+     */
+    public void enqueue(String managementUrl, String transferId, EdcConnectorRequest.Authentication auth) {
+        enqueue(Resource.TRANSFER, managementUrl, transferId, "Data consumed", auth);
+    }
+
+    /**
+     * Schedule the termination of a negotiation or transfer. The reason is sent as it is and
+     * must not need JSON escaping.
+     */
+    public void enqueue(Resource resource, String managementUrl, String id, String reason,
+                        EdcConnectorRequest.Authentication auth) {
+        if (!queue.offer(new Task(resource, managementUrl, id, reason, auth, 1))) {
+            outcomes.get(resource).dropped().increment();
+            LOGGER.warn("Cleanup backlog full, {} {} will not be terminated", resource, id);
+        }
+    }
+
+    /**
+     * Resources queued or being terminated
+     */
+    public int getBacklog() {
+        return queue.size() + inFlight.get();
+    }
+
+    public void close() {
+        worker.shutdownNow();
+        meters.forEach(registry::remove);
+    }
+
+    /**
+     * Terminate the transfers queued so far. Retries queued meanwhile wait for the next batch.
+     */
+    private void drain() {
+        int batch = queue.size();
+        try {
+            for (int i = 0; i < batch; i++) {
+                Task task = queue.poll();
+                if (task == null) {
+                    break;
+                }
+                permits.acquire();
+                inFlight.incrementAndGet();
+                terminate(task);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (batch > 0) {
+            LOGGER.debug("Dispatched termination of {} transfer(s) and negotiation(s)", batch);
+        }
+    }
+
+    private void terminate(Task task) {
+        String url = task.managementUrl + task.resource.path + task.id + "/terminate";
+        HttpRequest httpRequest;
+        try {
+            httpRequest = requestBuilder.build(url,
+                    String.format(TERMINATE_BODY, task.resource.terminateType, task.reason), task.auth);
+        } catch (Exception e) {
+            finish(task, "request could not be built: " + e);
+            return;
+        }
+
+        httpClient.sendAsync(httpRequest, HttpResponse.BodyHandlers.discarding()).whenComplete((response, error) -> {
+            // 409: the resource is already in a final state
+            if (error == null && (response.statusCode() / 100 == 2 || response.statusCode() == 409)) {
+                outcomes.get(task.resource).terminated().increment();
+                LOGGER.debug("Terminated {} {}", task.resource, task.id);
+                permits.release();
+                inFlight.decrementAndGet();
+            } else {
+                finish(task, error != null ? error.toString() : "status " + response.statusCode());
+            }
+        });
+    }
+
+    /**
+     * Requeue a failed termination unless it ran out of attempts
+     */
+    private void finish(Task task, String failure) {
+        if (task.attempt < MAX_ATTEMPTS && queue.offer(new Task(task.resource, task.managementUrl, task.id,
+                task.reason, task.auth, task.attempt + 1))) {
+            LOGGER.debug("Terminating {} {} failed ({}), will retry", task.resource, task.id, failure);
+        } else {
+            outcomes.get(task.resource).failed().increment();
+            LOGGER.warn("Giving up terminating {} {}: {}", task.resource, task.id, failure);
+        }
+        permits.release();
+        inFlight.decrementAndGet();
+    }
+
+    private Counter cleanedCounter(Resource resource, String outcome) {
+        Counter counter = Counter.builder(resource.metric)
+                .description("Resources handled by the cleaner")
+                .tag("outcome", outcome)
+                .tag("instance", instance)
+                .register(registry);
+        meters.add(counter);
+        return counter;
+    }
+
+    private record Outcomes(Counter terminated, Counter failed, Counter dropped) {
+    }
+
+    private record Task(Resource resource, String managementUrl, String id, String reason,
+                        EdcConnectorRequest.Authentication auth, int attempt) {
+    }
+}
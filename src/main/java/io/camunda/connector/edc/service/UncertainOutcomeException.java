@@ -0,0 +1,29 @@
+package io.camunda.connector.edc.service;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Thrown when a non-idempotent call failed in a way that leaves open whether the control plane
+ * processed it, e.g. a connection reset after the request was sent or a 502 from a proxy.
+ * Callers have to check for the created resource before reissuing the call.
+ */
+public class UncertainOutcomeException extends IOException {
+
+    private final EdcCall call;
+    private final Duration retryAfter;
+
+    public UncertainOutcomeException(EdcCall call, String message, Throwable cause, Duration retryAfter) {
+        super("Outcome of " + call + " is unknown: " + message, cause);
+        this.call = call;
+        this.retryAfter = retryAfter;
+    }
+
+    public EdcCall getCall() {
+        return call;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
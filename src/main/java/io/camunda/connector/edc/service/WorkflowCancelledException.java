@@ -0,0 +1,11 @@
+package io.camunda.connector.edc.service;
+
+/**
+ * Thrown when an EDC workflow is cancelled before it completed
+ */
+public class WorkflowCancelledException extends RuntimeException {
+
+    public WorkflowCancelledException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,77 @@
+package io.camunda.connector.edc.service.cache;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+
+/**
+ * A data plane payload with its validators. The content itself lives in the content store and
+ * may be shared with payloads of other assets or providers.
+ */
+public class CachedPayload {
+
+    private final String contentType;
+    private final String etag;
+    private final String lastModified;
+    private final ContentStore.Content content;
+    private final boolean cached;
+    private volatile long validatedAtNanos = System.nanoTime();
+
+    CachedPayload(String contentType, String etag, String lastModified, ContentStore.Content content,
+                  boolean cached) {
+        this.contentType = contentType;
+        this.etag = etag;
+        this.lastModified = lastModified;
+        this.content = content;
+        this.cached = cached;
+    }
+
+    public InputStream open() throws IOException {
+        return content.open();
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getEtag() {
+        return etag;
+    }
+
+    public String getLastModified() {
+        return lastModified;
+    }
+
+    public long getSize() {
+        return content.getSize();
+    }
+
+    /**
+     * Hex encoded SHA-256 of the payload
+     */
+    public String getSha256() {
+        return content.getSha256();
+    }
+
+    /**
+     * Time since the payload was downloaded or last confirmed current by the data plane
+     */
+    public Duration getAge() {
+        return Duration.ofNanos(System.nanoTime() - validatedAtNanos);
+    }
+
+    /**
+     * False for payloads too large to be cached, which only live until they are released
+     */
+    public boolean isCached() {
+        return cached;
+    }
+
+    void markValidated() {
+        validatedAtNanos = System.nanoTime();
+    }
+
+    ContentStore.Content getContent() {
+        return content;
+    }
+}
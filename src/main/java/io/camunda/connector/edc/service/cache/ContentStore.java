@@ -0,0 +1,174 @@
+package io.camunda.connector.edc.service.cache;
+
+import io.camunda.connector.edc.service.payload.DigestingInputStream;
+import io.micrometer.core.instrument.Counter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Payload contents addressed by their SHA-256 digest.
+ *
+ * Bodies are digested while they are written, so identical payloads of different assets or
+ * providers are kept once, in memory if they are small and in a file named after the digest
+ * otherwise. Every holder of a content owns a reference; the content is deleted when the last
+ * reference is released.
+ */
+class ContentStore {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ContentStore.class);
+    private static final int BUFFER_SIZE = 8192;
+
+    private final Path directory;
+    private final long memoryEntryMaxBytes;
+    private final Counter deduplicatedBytes;
+    private final Map<String, Content> contents = new HashMap<>();
+    private long memoryBytes;
+    private long diskBytes;
+
+    /**
+     * @param deduplicatedBytes counts the bytes of payloads that were stored already
+     */
+    ContentStore(Path directory, long memoryEntryMaxBytes, Counter deduplicatedBytes) {
+        this.directory = directory;
+        this.memoryEntryMaxBytes = memoryEntryMaxBytes;
+        this.deduplicatedBytes = deduplicatedBytes;
+    }
+
+    /**
+     * Read the body completely and return its content with one reference held by the caller.
+     * If the same content is stored already, the new copy is dropped and the stored one returned.
+     */
+    Content write(InputStream body) throws IOException {
+        ByteArrayOutputStream memory = new ByteArrayOutputStream();
+        Path file = null;
+        long size = 0;
+        String sha256;
+
+        try (DigestingInputStream in = new DigestingInputStream(body)) {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int n;
+            while ((n = in.read(buffer)) >= 0) {
+                if (size + n > memoryEntryMaxBytes) {
+                    // Too large for memory, continue in a file
+                    Files.createDirectories(directory);
+                    file = Files.createTempFile(directory, "payload-", ".tmp");
+                    try (OutputStream out = Files.newOutputStream(file)) {
+                        memory.writeTo(out);
+                        memory = null;
+                        do {
+                            out.write(buffer, 0, n);
+                            size += n;
+                        } while ((n = in.read(buffer)) >= 0);
+                    }
+                    break;
+                }
+                memory.write(buffer, 0, n);
+                size += n;
+            }
+            sha256 = in.getSha256();
+        } catch (IOException | RuntimeException e) {
+            if (file != null) {
+                Files.deleteIfExists(file);
+            }
+            throw e;
+        }
+
+        synchronized (this) {
+            Content existing = contents.get(sha256);
+            if (existing != null) {
+                existing.references++;
+                deduplicatedBytes.increment(size);
+                if (file != null) {
+                    Files.deleteIfExists(file);
+                }
+                LOGGER.debug("Payload of {} bytes is stored already as {}", size, sha256);
+                return existing;
+            }
+            if (file != null) {
+                file = Files.move(file, directory.resolve(sha256 + ".bin"), StandardCopyOption.REPLACE_EXISTING);
+                diskBytes += size;
+            } else {
+                memoryBytes += size;
+            }
+            Content content = new Content(sha256, size, file == null ? memory.toByteArray() : null, file);
+            contents.put(sha256, content);
+            return content;
+        }
+    }
+
+    synchronized void retain(Content content) {
+        if (content.references == 0) {
+            throw new IllegalStateException("Content " + content.sha256 + " was deleted already");
+        }
+        content.references++;
+    }
+
+    /**
+     * Drop one reference, deleting the content once nobody holds it anymore
+     */
+    synchronized void release(Content content) throws IOException {
+        if (--content.references > 0) {
+            return;
+        }
+        contents.remove(content.sha256);
+        if (content.isInMemory()) {
+            memoryBytes -= content.size;
+        } else {
+            diskBytes -= content.size;
+            Files.deleteIfExists(content.file);
+        }
+    }
+
+    synchronized long getMemoryBytes() {
+        return memoryBytes;
+    }
+
+    synchronized long getDiskBytes() {
+        return diskBytes;
+    }
+
+    /**
+     * Stored bytes of one payload; guarded by the store
+     */
+    static final class Content {
+        private final String sha256;
+        private final long size;
+        private final byte[] bytes;
+        private final Path file;
+        private int references = 1;
+
+        private Content(String sha256, long size, byte[] bytes, Path file) {
+            this.sha256 = sha256;
+            this.size = size;
+            this.bytes = bytes;
+            this.file = file;
+        }
+
+        InputStream open() throws IOException {
+            return bytes != null ? new ByteArrayInputStream(bytes) : Files.newInputStream(file);
+        }
+
+        String getSha256() {
+            return sha256;
+        }
+
+        long getSize() {
+            return size;
+        }
+
+        boolean isInMemory() {
+            return bytes != null;
+        }
+    }
+}
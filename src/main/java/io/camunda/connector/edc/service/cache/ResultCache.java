@@ -0,0 +1,210 @@
+package io.camunda.connector.edc.service.cache;
+
+import io.camunda.connector.edc.config.EdcConnectorSettings;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bounded cache of data plane payloads keyed by consumer, provider and asset ID.
+ *
+ * Payloads are stored with their ETag and Last-Modified validators so that the next fetch
+ * can be revalidated with a conditional request. Their content is kept in a store addressed
+ * by SHA-256, so identical payloads of several assets or providers occupy memory or disk once.
+ * Small payloads are kept in memory, larger ones in files; each tier is bounded in bytes and
+ * evicts least recently used entries.
+ */
+public class ResultCache {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ResultCache.class);
+
+    private final ContentStore contents;
+    private final long maxMemoryBytes;
+    private final long maxDiskBytes;
+    private final long maxEntryBytes;
+    private final Map<String, CachedPayload> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final Counter hits;
+    private final Counter revalidated;
+    private final Counter misses;
+    private final Counter bytesSaved;
+
+    public ResultCache(Path directory, long maxMemoryBytes, long maxDiskBytes, long memoryEntryMaxBytes,
+                       long maxEntryBytes, MeterRegistry registry) {
+        this.contents = new ContentStore(directory, memoryEntryMaxBytes,
+                Counter.builder("edc.connector.cache.bytes.deduplicated")
+                        .description("Payload bytes not stored again because identical content was cached")
+                        .baseUnit("bytes")
+                        .register(registry));
+        this.maxMemoryBytes = maxMemoryBytes;
+        this.maxDiskBytes = maxDiskBytes;
+        this.maxEntryBytes = maxEntryBytes;
+
+        this.hits = requestCounter(registry, "hit");
+        this.revalidated = requestCounter(registry, "revalidated");
+        this.misses = requestCounter(registry, "miss");
+        this.bytesSaved = Counter.builder("edc.connector.cache.bytes.saved")
+                .description("Payload bytes not downloaded thanks to the result cache")
+                .baseUnit("bytes")
+                .register(registry);
+        Gauge.builder("edc.connector.cache.hit.ratio", this, ResultCache::getHitRatio)
+                .description("Share of fetches served from the result cache, including revalidated ones")
+                .register(registry);
+        Gauge.builder("edc.connector.cache.size", this, cache -> cache.getMemoryBytes())
+                .tag("tier", "memory").baseUnit("bytes").register(registry);
+        Gauge.builder("edc.connector.cache.size", this, cache -> cache.getDiskBytes())
+                .tag("tier", "disk").baseUnit("bytes").register(registry);
+    }
+
+    public static ResultCache fromSettings() {
+        return new ResultCache(
+                EdcConnectorSettings.payloadDirectory().resolve("cache"),
+                EdcConnectorSettings.getLong("edc.connector.cache.max-memory-bytes", 64L * 1024 * 1024),
+                EdcConnectorSettings.getLong("edc.connector.cache.max-disk-bytes", 1024L * 1024 * 1024),
+                EdcConnectorSettings.getLong("edc.connector.cache.memory-entry-max-bytes", 1024L * 1024),
+                EdcConnectorSettings.getLong("edc.connector.cache.max-entry-bytes", 256L * 1024 * 1024),
+                Metrics.globalRegistry
+        );
+    }
+
+    /**
+     * Entries are shared by jobs of the same consumer connector and credentials, so a payload
+     * obtained under one contract is never served to a job of another consumer
+     *
+     * @param managementUrls management URLs of the job, in any order
+     * @param consumerIdentity digest of the job's credentials
+     */
+    public static String key(List<String> managementUrls, String consumerIdentity, String providerAddress,
+                             String assetId) {
+        return managementUrls.stream().sorted().toList() + "|" + consumerIdentity + "|" + providerAddress
+                + "|" + assetId;
+    }
+
+    /**
+     * Cached entry for the key, or null. The entry has to be released once it has been read.
+     */
+    public synchronized CachedPayload get(String key) {
+        CachedPayload payload = entries.get(key);
+        if (payload != null) {
+            contents.retain(payload.getContent());
+        }
+        return payload;
+    }
+
+    /**
+     * Entry younger than the max age, counted as a hit. Null if there is none.
+     * The entry has to be released once it has been read.
+     */
+    public CachedPayload getFresh(String key, Duration maxAge) throws IOException {
+        CachedPayload payload = get(key);
+        if (payload == null) {
+            return null;
+        }
+        if (payload.getAge().compareTo(maxAge) > 0) {
+            release(payload);
+            return null;
+        }
+        hits.increment();
+        bytesSaved.increment(payload.getSize());
+        return payload;
+    }
+
+    /**
+     * The data plane confirmed the cached payload is still current
+     */
+    public void recordRevalidated(CachedPayload payload) {
+        payload.markValidated();
+        revalidated.increment();
+        bytesSaved.increment(payload.getSize());
+    }
+
+    public void recordMiss() {
+        misses.increment();
+    }
+
+    /**
+     * Store a downloaded payload, replacing the previous entry for the key. The body is read
+     * completely and digested on the way; content identical to a stored payload is kept once.
+     * Payloads larger than the entry limit are returned uncached. Like every payload returned
+     * by this cache, the result has to be passed to {@link #release(CachedPayload)} once it
+     * has been read.
+     */
+    public CachedPayload store(String key, InputStream body, String contentType, String etag, String lastModified)
+            throws IOException {
+        ContentStore.Content content = contents.write(body);
+        boolean cacheable = content.getSize() <= maxEntryBytes;
+        CachedPayload payload = new CachedPayload(contentType, etag, lastModified, content, cacheable);
+        if (cacheable) {
+            put(key, payload);
+        }
+        return payload;
+    }
+
+    /**
+     * Give up the reference to a payload returned by this cache. Its content is deleted once
+     * it is neither cached nor read anymore.
+     */
+    public void release(CachedPayload payload) throws IOException {
+        contents.release(payload.getContent());
+    }
+
+    public long getMemoryBytes() {
+        return contents.getMemoryBytes();
+    }
+
+    public long getDiskBytes() {
+        return contents.getDiskBytes();
+    }
+
+    public double getHitRatio() {
+        double served = hits.count() + revalidated.count();
+        double total = served + misses.count();
+        return total == 0 ? 0 : served / total;
+    }
+
+    private synchronized void put(String key, CachedPayload payload) throws IOException {
+        contents.retain(payload.getContent());
+        CachedPayload previous = entries.put(key, payload);
+        if (previous != null) {
+            contents.release(previous.getContent());
+        }
+        evict(true, maxMemoryBytes, payload);
+        evict(false, maxDiskBytes, payload);
+    }
+
+    /**
+     * Evict least recently used entries of one tier until it fits its limit, keeping the entry
+     * just stored. Content shared with other entries or still being read only frees its bytes
+     * with its last reference.
+     */
+    private void evict(boolean inMemory, long limit, CachedPayload stored) throws IOException {
+        Iterator<CachedPayload> iterator = entries.values().iterator();
+        while ((inMemory ? getMemoryBytes() : getDiskBytes()) > limit && iterator.hasNext()) {
+            CachedPayload eldest = iterator.next();
+            if (eldest != stored && eldest.getContent().isInMemory() == inMemory) {
+                iterator.remove();
+                contents.release(eldest.getContent());
+                LOGGER.debug("Evicted cached payload of {} bytes", eldest.getSize());
+            }
+        }
+    }
+
+    private static Counter requestCounter(MeterRegistry registry, String result) {
+        return Counter.builder("edc.connector.cache.requests")
+                .description("Data plane fetches by result cache outcome")
+                .tag("result", result)
+                .register(registry);
+    }
+}
@@ -0,0 +1,122 @@
+package io.camunda.connector.edc.service.payload;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Streaming RFC 4180 CSV reader that yields one record at a time.
+ *
+ * Quoted fields may contain separators, escaped quotes and line breaks. A record longer than
+ * the configured number of characters is rejected instead of being buffered.
+ */
+public class CsvRecordIterator implements Iterator<List<String>> {
+
+    private final Reader reader;
+    private final int maxRecordChars;
+    private final StringBuilder field = new StringBuilder();
+    private List<String> next;
+    private boolean finished;
+    private int pushback = -2;
+    private long recordNumber;
+
+    public CsvRecordIterator(Reader reader, int maxRecordChars) {
+        this.reader = reader;
+        this.maxRecordChars = maxRecordChars;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null && !finished) {
+            try {
+                next = readRecord();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            finished = next == null;
+        }
+        return next != null;
+    }
+
+    @Override
+    public List<String> next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        List<String> record = next;
+        next = null;
+        return record;
+    }
+
+    private List<String> readRecord() throws IOException {
+        int c = read();
+        if (c == -1) {
+            return null;
+        }
+
+        recordNumber++;
+        List<String> record = new ArrayList<>();
+        int recordChars = 0;
+        boolean quoted = false;
+        field.setLength(0);
+
+        while (true) {
+            if (c != -1 && ++recordChars > maxRecordChars) {
+                throw new IllegalStateException("CSV record " + recordNumber + " exceeds the limit of "
+                        + maxRecordChars + " characters");
+            }
+
+            if (quoted) {
+                if (c == -1) {
+                    throw new IllegalStateException("Unterminated quoted field in CSV record " + recordNumber);
+                }
+                if (c == '"') {
+                    int following = read();
+                    if (following == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        unread(following);
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.length() == 0) {
+                quoted = true;
+            } else if (c == ',') {
+                record.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\r' || c == '\n' || c == -1) {
+                if (c == '\r') {
+                    int following = read();
+                    if (following != '\n') {
+                        unread(following);
+                    }
+                }
+                record.add(field.toString());
+                return record;
+            } else {
+                field.append((char) c);
+            }
+
+            c = read();
+        }
+    }
+
+    private int read() throws IOException {
+        if (pushback != -2) {
+            int c = pushback;
+            pushback = -2;
+            return c;
+        }
+        return reader.read();
+    }
+
+    private void unread(int c) {
+        pushback = c;
+    }
+}
@@ -0,0 +1,103 @@
+package io.camunda.connector.edc.service.payload;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Computes the SHA-256 digest of the bytes read from the wrapped stream.
+ *
+ * The digest is only known once the stream was read to its end. Decoders may stop before the
+ * end, for example after the root value of a JSON document, so closing the stream reads a
+ * small remainder such as trailing whitespace into the digest; a larger one leaves it unknown.
+ */
+public class DigestingInputStream extends FilterInputStream {
+
+    private static final int DRAIN_LIMIT = 64 * 1024;
+
+    private final MessageDigest digest;
+    private boolean complete;
+    private String sha256;
+
+    public DigestingInputStream(InputStream in) {
+        super(in);
+        try {
+            this.digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Hex encoded SHA-256 of the stream, or null if it was not read to its end
+     */
+    public String getSha256() {
+        if (sha256 == null && complete) {
+            sha256 = HexFormat.of().formatHex(digest.digest());
+        }
+        return sha256;
+    }
+
+    @Override
+    public int read() throws IOException {
+        int b = super.read();
+        if (b >= 0) {
+            digest.update((byte) b);
+        } else {
+            complete = true;
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        int n = super.read(buffer, offset, length);
+        if (n > 0) {
+            digest.update(buffer, offset, n);
+        } else if (n < 0) {
+            complete = true;
+        }
+        return n;
+    }
+
+    /**
+     * Skipped bytes are read, they are part of the digest
+     */
+    @Override
+    public long skip(long n) throws IOException {
+        byte[] buffer = new byte[(int) Math.min(Math.max(n, 0), 8192)];
+        long skipped = 0;
+        while (skipped < n) {
+            int read = read(buffer, 0, (int) Math.min(buffer.length, n - skipped));
+            if (read < 0) {
+                break;
+            }
+            skipped += read;
+        }
+        return skipped;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            byte[] buffer = new byte[8192];
+            long drained = 0;
+            int n;
+            while (!complete && drained < DRAIN_LIMIT && (n = read(buffer, 0, buffer.length)) >= 0) {
+                drained += n;
+            }
+        } catch (IOException e) {
+            // The digest stays unknown, the decoded payload is still valid
+        } finally {
+            super.close();
+        }
+    }
+}
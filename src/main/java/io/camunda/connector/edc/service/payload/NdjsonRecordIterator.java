@@ -0,0 +1,90 @@
+package io.camunda.connector.edc.service.payload;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Streaming reader for newline delimited JSON that parses one line at a time.
+ *
+ * Blank lines are skipped and a line longer than the configured number of characters is
+ * rejected before it is parsed.
+ */
+public class NdjsonRecordIterator implements Iterator<JsonNode> {
+
+    private final Reader reader;
+    private final ObjectReader jsonReader;
+    private final int maxRecordChars;
+    private final StringBuilder line = new StringBuilder();
+    private JsonNode next;
+    private boolean finished;
+    private long lineNumber;
+
+    public NdjsonRecordIterator(Reader reader, ObjectReader jsonReader, int maxRecordChars) {
+        this.reader = reader;
+        this.jsonReader = jsonReader;
+        this.maxRecordChars = maxRecordChars;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null && !finished) {
+            try {
+                next = readRecord();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            finished = next == null;
+        }
+        return next != null;
+    }
+
+    @Override
+    public JsonNode next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        JsonNode record = next;
+        next = null;
+        return record;
+    }
+
+    private JsonNode readRecord() throws IOException {
+        while (readLine()) {
+            if (!line.toString().isBlank()) {
+                try {
+                    return jsonReader.readTree(line.toString());
+                } catch (JsonProcessingException e) {
+                    throw new IOException("Invalid JSON in NDJSON line " + lineNumber + ": " + e.getOriginalMessage(), e);
+                }
+            }
+        }
+        return null;
+    }
+
+    private boolean readLine() throws IOException {
+        line.setLength(0);
+        int c = reader.read();
+        if (c == -1) {
+            return false;
+        }
+        lineNumber++;
+        while (c != -1 && c != '\n') {
+            if (c != '\r') {
+                if (line.length() == maxRecordChars) {
+                    throw new IllegalStateException("NDJSON line " + lineNumber + " exceeds the limit of "
+                            + maxRecordChars + " characters");
+                }
+                line.append((char) c);
+            }
+            c = reader.read();
+        }
+        return true;
+    }
+}
@@ -0,0 +1,237 @@
+package io.camunda.connector.edc.service.payload;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.util.RawValue;
+import io.camunda.connector.edc.config.EdcConnectorSettings;
+import io.camunda.connector.edc.model.EdcConnectorRequest;
+import io.camunda.connector.edc.model.PayloadReference;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Decodes data plane response bodies based on their Content-Type.
+ *
+ * JSON is read into a tree or, if requested, passed through as raw JSON; CSV and NDJSON are read record by record, text is decoded with the
+ * declared charset and binary content is either base64 encoded or written to a file. Bodies are
+ * consumed as streams so no intermediate String copy of the payload is created.
+ */
+public class PayloadDecoder {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PayloadDecoder.class);
+    private static final int MAX_FILE_NAME_PART = 64;
+
+    private final ObjectReader jsonReader;
+    private final JsonFactory jsonFactory;
+
+    public PayloadDecoder(ObjectMapper objectMapper) {
+        this.jsonReader = objectMapper.reader();
+        this.jsonFactory = objectMapper.getFactory();
+    }
+
+    /**
+     * Decode the body according to the given Content-Type. The stream is closed afterwards.
+     */
+    public Object decode(InputStream body, String contentType, EdcConnectorRequest request) throws IOException {
+        PayloadType type = PayloadType.fromContentType(contentType);
+        LOGGER.debug("Decoding payload with Content-Type '{}' as {}", contentType, type);
+
+        try (InputStream in = body) {
+            switch (type) {
+                case JSON:
+                    return "raw".equals(request.getJsonHandling())
+                            ? readRawJson(in)
+                            : jsonReader.readTree(in);
+                case NDJSON:
+                    return readNdjson(in, charsetOf(contentType), request);
+                case CSV:
+                    return readCsv(in, charsetOf(contentType), request);
+                case TEXT:
+                    return new String(in.readAllBytes(), charsetOf(contentType));
+                case BINARY:
+                    return readBinary(in, contentType, request);
+                default:
+                    return readUnknown(in);
+            }
+        }
+    }
+
+    /**
+     * Decode a payload that was already written to a file. Binary payloads kept as files are
+     * returned as a reference to that file, every other payload is decoded and the file deleted.
+     */
+    public Object decode(Path file, String contentType, EdcConnectorRequest request) throws IOException {
+        if (PayloadType.fromContentType(contentType) == PayloadType.BINARY && "file".equals(request.getBinaryHandling())) {
+            long size = Files.size(file);
+            LOGGER.info("Binary payload of {} bytes kept at {}", size, file);
+            return new PayloadReference(file.toString(), size, contentType);
+        }
+        try {
+            return decode(Files.newInputStream(file), contentType, request);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /**
+     * Return the document as pre-serialized JSON that is written out verbatim, after checking
+     * its syntax with the streaming parser so that no tree is built. The body is decoded once,
+     * as UTF-8 like the tree path, and the characters the parser checks are the ones returned.
+     */
+    private RawValue readRawJson(InputStream in) throws IOException {
+        StringBuilder json = new StringBuilder();
+        Reader reader = new FilterReader(new InputStreamReader(in, StandardCharsets.UTF_8)) {
+            @Override
+            public int read() throws IOException {
+                int c = super.read();
+                if (c >= 0) {
+                    json.append((char) c);
+                }
+                return c;
+            }
+
+            @Override
+            public int read(char[] buffer, int offset, int length) throws IOException {
+                int n = super.read(buffer, offset, length);
+                if (n > 0) {
+                    json.append(buffer, offset, n);
+                }
+                return n;
+            }
+        };
+        try (JsonParser parser = jsonFactory.createParser(reader)) {
+            if (parser.nextToken() == null) {
+                throw new JsonParseException(parser, "JSON payload is empty");
+            }
+            parser.skipChildren();
+            if (parser.nextToken() != null) {
+                throw new JsonParseException(parser, "Unexpected content after the JSON document");
+            }
+        }
+        return new RawValue(json.toString());
+    }
+
+    private List<JsonNode> readNdjson(InputStream in, Charset charset, EdcConnectorRequest request) {
+        Reader reader = new InputStreamReader(in, charset);
+        NdjsonRecordIterator records = new NdjsonRecordIterator(reader, jsonReader, request.getMaxRecordSize());
+
+        List<JsonNode> result = new ArrayList<>();
+        while (records.hasNext()) {
+            checkRecordCount(result.size(), request);
+            result.add(records.next());
+        }
+        return result;
+    }
+
+    /**
+     * CSV is returned as a list of objects keyed by the header row
+     */
+    private List<Map<String, String>> readCsv(InputStream in, Charset charset, EdcConnectorRequest request) {
+        Reader reader = new InputStreamReader(in, charset);
+        CsvRecordIterator records = new CsvRecordIterator(reader, request.getMaxRecordSize());
+
+        List<Map<String, String>> result = new ArrayList<>();
+        if (!records.hasNext()) {
+            return result;
+        }
+
+        List<String> header = records.next();
+        while (records.hasNext()) {
+            checkRecordCount(result.size(), request);
+            List<String> values = records.next();
+            Map<String, String> row = new LinkedHashMap<>();
+            for (int i = 0; i < header.size(); i++) {
+                row.put(header.get(i), i < values.size() ? values.get(i) : null);
+            }
+            result.add(row);
+        }
+        return result;
+    }
+
+    private Object readBinary(InputStream in, String contentType, EdcConnectorRequest request) throws IOException {
+        if ("file".equals(request.getBinaryHandling())) {
+            Path directory = EdcConnectorSettings.payloadDirectory();
+            Files.createDirectories(directory);
+            Path file = Files.createTempFile(directory, "edc-" + fileNamePart(request.getAssetId()) + "-", ".bin");
+            long size;
+            try (OutputStream out = Files.newOutputStream(file)) {
+                size = in.transferTo(out);
+            }
+            LOGGER.info("Binary payload of {} bytes written to {}", size, file);
+            return new PayloadReference(file.toString(), size, contentType);
+        }
+
+        ByteArrayOutputStream encoded = new ByteArrayOutputStream();
+        try (OutputStream out = Base64.getEncoder().wrap(encoded)) {
+            in.transferTo(out);
+        }
+        return encoded.toString(StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Without a Content-Type we keep the previous behavior: JSON if it parses, text otherwise
+     */
+    private Object readUnknown(InputStream in) throws IOException {
+        byte[] bytes = in.readAllBytes();
+        try {
+            return jsonReader.readTree(bytes);
+        } catch (IOException e) {
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+
+    private void checkRecordCount(int count, EdcConnectorRequest request) {
+        if (count >= request.getMaxRecords()) {
+            throw new IllegalStateException("Payload exceeds the limit of " + request.getMaxRecords() + " records");
+        }
+    }
+
+    /**
+     * Asset IDs may contain path separators and other characters that are not allowed in file names
+     */
+    static String fileNamePart(String assetId) {
+        if (assetId == null) {
+            return "payload";
+        }
+        String safe = assetId.replaceAll("[^A-Za-z0-9._-]", "_");
+        return safe.length() > MAX_FILE_NAME_PART ? safe.substring(0, MAX_FILE_NAME_PART) : safe;
+    }
+
+    static Charset charsetOf(String contentType) {
+        if (contentType != null) {
+            for (String parameter : contentType.split(";")) {
+                String[] pair = parameter.trim().split("=", 2);
+                if (pair.length == 2 && "charset".equals(pair[0].trim().toLowerCase(Locale.ROOT))) {
+                    try {
+                        return Charset.forName(pair[1].trim().replace("\"", ""));
+                    } catch (IllegalArgumentException e) {
+                        LOGGER.warn("Unsupported charset in Content-Type '{}', using UTF-8", contentType);
+                    }
+                }
+            }
+        }
+        return StandardCharsets.UTF_8;
+    }
+}
@@ -0,0 +1,47 @@
+package io.camunda.connector.edc.service.payload;
+
+import java.util.Locale;
+
+/**
+ * Payload formats the connector distinguishes based on the data plane Content-Type
+ */
+public enum PayloadType {
+    JSON,
+    NDJSON,
+    CSV,
+    TEXT,
+    BINARY,
+    UNKNOWN;
+
+    /**
+     * Map a Content-Type header value (including parameters) to a payload type
+     */
+    public static PayloadType fromContentType(String contentType) {
+        if (contentType == null || contentType.isBlank()) {
+            return UNKNOWN;
+        }
+        String mediaType = contentType.split(";", 2)[0].trim().toLowerCase(Locale.ROOT);
+
+        switch (mediaType) {
+            case "application/x-ndjson":
+            case "application/ndjson":
+            case "application/jsonl":
+            case "application/x-jsonlines":
+            case "application/jsonlines":
+                return NDJSON;
+            case "text/csv":
+            case "application/csv":
+                return CSV;
+            default:
+                break;
+        }
+
+        if ("application/json".equals(mediaType) || mediaType.endsWith("+json")) {
+            return JSON;
+        }
+        if (mediaType.startsWith("text/") || "application/xml".equals(mediaType) || mediaType.endsWith("+xml")) {
+            return TEXT;
+        }
+        return BINARY;
+    }
+}
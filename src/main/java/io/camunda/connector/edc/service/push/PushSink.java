@@ -0,0 +1,308 @@
+package io.camunda.connector.edc.service.push;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.camunda.connector.edc.config.EdcConnectorSettings;
+import io.camunda.connector.edc.service.payload.DigestingInputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Embedded HTTP endpoint receiving HttpData-PUSH transfers.
+ *
+ * Every push transfer registers an expected delivery with its own path and bearer token. The
+ * provider data plane sends the payload to that path and the body is streamed straight into
+ * the payload directory, so the payload never passes through the data plane proxy and no EDR
+ * has to be polled. Bodies larger than the configured maximum are rejected with 413 and fail
+ * the delivery. A payload nobody took when its delivery is closed, e.g. because the workflow
+ * failed in the meantime, is deleted. The server is started on first use.
+ */
+public class PushSink {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PushSink.class);
+    private static final String CONTEXT_PATH = "/push/";
+    private static final int DRAIN_LIMIT = 64 * 1024;
+
+    private final String bindAddress;
+    private final int port;
+    private final String publicUrl;
+    private final Path directory;
+    private final long maxBodyBytes;
+    private final SecureRandom random = new SecureRandom();
+    private final Map<String, Delivery> deliveries = new ConcurrentHashMap<>();
+    private HttpServer server;
+
+    /**
+     * @param publicUrl base URL under which the provider data plane reaches this sink
+     * @param maxBodyBytes largest pushed body accepted
+     */
+    public PushSink(String bindAddress, int port, String publicUrl, Path directory, long maxBodyBytes) {
+        this.bindAddress = bindAddress;
+        this.port = port;
+        this.publicUrl = publicUrl;
+        this.directory = directory;
+        this.maxBodyBytes = maxBodyBytes;
+    }
+
+    public static PushSink fromSettings() {
+        return new PushSink(
+                EdcConnectorSettings.getString("edc.connector.push.bind-address", "0.0.0.0"),
+                EdcConnectorSettings.getInt("edc.connector.push.port", 8199),
+                EdcConnectorSettings.getString("edc.connector.push.public-url", null),
+                EdcConnectorSettings.payloadDirectory(),
+                EdcConnectorSettings.getLong("edc.connector.push.max-body-bytes", 1024L * 1024 * 1024)
+        );
+    }
+
+    /**
+     * Register a delivery the provider will push. It must be closed when the workflow ends.
+     */
+    public Delivery expect() throws IOException {
+        if (publicUrl == null) {
+            throw new IllegalStateException(
+                    "Setting edc.connector.push.public-url must be set to the URL the provider data plane "
+                            + "can reach this connector under to use push transfers");
+        }
+        start();
+
+        byte[] secret = new byte[32];
+        random.nextBytes(secret);
+        Delivery delivery = new Delivery(UUID.randomUUID().toString(),
+                "Bearer " + Base64.getUrlEncoder().withoutPadding().encodeToString(secret));
+        deliveries.put(delivery.id, delivery);
+        return delivery;
+    }
+
+    private synchronized void start() throws IOException {
+        if (server != null) {
+            return;
+        }
+        Files.createDirectories(directory);
+        server = HttpServer.create(new InetSocketAddress(bindAddress, port), 0);
+        server.createContext(CONTEXT_PATH, this::handle);
+        server.setExecutor(Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "edc-push-sink");
+            thread.setDaemon(true);
+            return thread;
+        }));
+        server.start();
+        LOGGER.info("Push sink listening on {}:{}, advertised as {}", bindAddress,
+                server.getAddress().getPort(), publicUrl);
+    }
+
+    /**
+     * Port the sink listens on, useful when it was bound to an ephemeral port
+     */
+    public synchronized int getPort() {
+        return server != null ? server.getAddress().getPort() : port;
+    }
+
+    public synchronized void close() {
+        if (server != null) {
+            server.stop(0);
+            server = null;
+        }
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            String path = exchange.getRequestURI().getPath().substring(CONTEXT_PATH.length());
+            int slash = path.indexOf('/');
+            Delivery delivery = deliveries.get(slash < 0 ? path : path.substring(0, slash));
+
+            if (delivery == null) {
+                respond(exchange, 404);
+                return;
+            }
+            String authorization = exchange.getRequestHeaders().getFirst("Authorization");
+            if (authorization == null || !MessageDigest.isEqual(
+                    authorization.getBytes(StandardCharsets.UTF_8), delivery.token.getBytes(StandardCharsets.UTF_8))) {
+                respond(exchange, 401);
+                return;
+            }
+            if (!"POST".equals(exchange.getRequestMethod()) && !"PUT".equals(exchange.getRequestMethod())) {
+                respond(exchange, 405);
+                return;
+            }
+            if (delivery.received.isDone()) {
+                respond(exchange, 409);
+                return;
+            }
+
+            String contentLength = exchange.getRequestHeaders().getFirst("Content-Length");
+            if (contentLength != null && parseLength(contentLength) > maxBodyBytes) {
+                reject(exchange, delivery, parseLength(contentLength));
+                return;
+            }
+
+            String contentType = exchange.getRequestHeaders().getFirst("Content-Type");
+            Path file = Files.createTempFile(directory, "edc-push-", ".bin");
+            try (DigestingInputStream in = new DigestingInputStream(exchange.getRequestBody())) {
+                long size = copy(in, file, delivery);
+                if (size > maxBodyBytes) {
+                    Files.deleteIfExists(file);
+                    reject(exchange, delivery, size);
+                    return;
+                }
+                // A delivery closed while receiving has no workflow left to take the payload
+                if (size < 0 || !delivery.received.complete(new PushedPayload(file, contentType, size, in.getSha256()))) {
+                    Files.deleteIfExists(file);
+                    exchange.sendResponseHeaders(410, -1);
+                    return;
+                }
+                LOGGER.info("Received pushed payload of {} bytes for delivery {}", size, delivery.id);
+                exchange.sendResponseHeaders(200, -1);
+            } catch (IOException e) {
+                Files.deleteIfExists(file);
+                exchange.sendResponseHeaders(500, -1);
+                throw e;
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * Answer a push that is not accepted. A small body is read first, so the client is not cut
+     * off while still sending it and sees the status.
+     */
+    private static void respond(HttpExchange exchange, int status) throws IOException {
+        try (InputStream body = exchange.getRequestBody()) {
+            byte[] buffer = new byte[8192];
+            long drained = 0;
+            int n;
+            while (drained < DRAIN_LIMIT && (n = body.read(buffer)) >= 0) {
+                drained += n;
+            }
+        }
+        exchange.sendResponseHeaders(status, -1);
+    }
+
+    /**
+     * Copy the body to the file, stopping after one byte more than the maximum or once the
+     * delivery is closed
+     *
+     * @return the bytes copied, more than the maximum if the body is too large, -1 if the delivery was closed
+     */
+    private long copy(InputStream in, Path file, Delivery delivery) throws IOException {
+        byte[] buffer = new byte[8192];
+        long size = 0;
+        try (OutputStream out = Files.newOutputStream(file)) {
+            while (size <= maxBodyBytes) {
+                if (delivery.closed) {
+                    return -1;
+                }
+                int n = in.read(buffer, 0, (int) Math.min(buffer.length, maxBodyBytes + 1 - size));
+                if (n < 0) {
+                    break;
+                }
+                out.write(buffer, 0, n);
+                size += n;
+            }
+        }
+        return size;
+    }
+
+    private void reject(HttpExchange exchange, Delivery delivery, long size) throws IOException {
+        LOGGER.warn("Rejecting pushed payload of at least {} bytes for delivery {}, the limit is {} bytes",
+                size, delivery.id, maxBodyBytes);
+        // Fail the delivery first, the workflow must not see the provider's retry as a success
+        delivery.received.completeExceptionally(new IllegalStateException("Pushed payload of at least " + size
+                + " bytes exceeds the limit of " + maxBodyBytes + " bytes (edc.connector.push.max-body-bytes)"));
+        exchange.sendResponseHeaders(413, -1);
+    }
+
+    private static long parseLength(String contentLength) {
+        try {
+            return Long.parseLong(contentLength.trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * A payload delivered by the provider, with the hex encoded SHA-256 of its body
+     */
+    public record PushedPayload(Path file, String contentType, long size, String sha256) {
+    }
+
+    /**
+     * An expected push, addressed by its own URL and secured by its own token
+     */
+    public final class Delivery implements AutoCloseable {
+        private final String id;
+        private final String token;
+        private final CompletableFuture<PushedPayload> received = new CompletableFuture<>();
+        private volatile boolean closed;
+        private boolean taken;
+
+        private Delivery(String id, String token) {
+            this.id = id;
+            this.token = token;
+        }
+
+        /**
+         * URL the provider data plane pushes to
+         */
+        public String getUrl() {
+            return publicUrl.replaceAll("/+$", "") + CONTEXT_PATH + id;
+        }
+
+        /**
+         * Value of the Authorization header the provider data plane has to send
+         */
+        public String getToken() {
+            return token;
+        }
+
+        public CompletableFuture<PushedPayload> getReceived() {
+            return received;
+        }
+
+        /**
+         * Wait for the pushed payload and take over its file, which the delivery then no longer deletes
+         */
+        public PushedPayload take(long timeout, TimeUnit unit)
+                throws InterruptedException, ExecutionException, TimeoutException {
+            PushedPayload payload = received.get(timeout, unit);
+            taken = true;
+            return payload;
+        }
+
+        /**
+         * Stop accepting the push and delete a payload that was received but not taken
+         */
+        @Override
+        public void close() {
+            closed = true;
+            deliveries.remove(id);
+            if (!received.cancel(false) && !taken && !received.isCompletedExceptionally()) {
+                Path file = received.join().file();
+                try {
+                    Files.deleteIfExists(file);
+                } catch (IOException e) {
+                    LOGGER.warn("Deleting unused pushed payload {} failed: {}", file, e.toString());
+                }
+            }
+        }
+    }
+}
@@ -1,14 +1,19 @@
 package io.camunda.connector.edc;
 
+import io.camunda.connector.api.error.ConnectorException;
 import io.camunda.connector.api.outbound.OutboundConnectorContext;
 import io.camunda.connector.edc.model.EdcConnectorRequest;
 import io.camunda.connector.edc.model.EdcConnectorResponse;
+import io.camunda.connector.edc.service.Deadline;
 import io.camunda.connector.edc.service.EdcService;
 import io.camunda.connector.test.outbound.OutboundConnectorContextBuilder;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 
+import java.util.List;
+import java.util.Map;
+
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
@@ -44,7 +49,7 @@ class EdcConnectorFunctionTest {
                 "{\"data\": \"test\"}"
         );
 
-        when(mockEdcService.executeEdcWorkflow(any(EdcConnectorRequest.class)))
+        when(mockEdcService.executeEdcWorkflow(any(EdcConnectorRequest.class), any(Deadline.class)))
                 .thenReturn(expectedResponse);
 
         OutboundConnectorContext context = OutboundConnectorContextBuilder.create()
@@ -175,7 +180,7 @@ class EdcConnectorFunctionTest {
         request.setProviderDid("did:web:provider:test");
         request.setAssetId("test-asset");
 
-        when(mockEdcService.executeEdcWorkflow(any(EdcConnectorRequest.class)))
+        when(mockEdcService.executeEdcWorkflow(any(EdcConnectorRequest.class), any(Deadline.class)))
                 .thenThrow(new RuntimeException("EDC service error"));
 
         OutboundConnectorContext context = OutboundConnectorContextBuilder.create()
@@ -187,4 +192,38 @@ class EdcConnectorFunctionTest {
                 .isInstanceOf(RuntimeException.class)
                 .hasMessageContaining("Failed to retrieve data from EDC");
     }
+
+    @Test
+    void shouldAttachDiagnosticsToErrorWhenRequested() throws Exception {
+        // Given
+        EdcConnectorRequest request = new EdcConnectorRequest();
+        request.setEdcManagementUrl("http://localhost:9193/management");
+        request.setProviderUrl("http://provider:8080");
+        request.setProviderDid("did:web:provider:test");
+        request.setAssetId("test-asset");
+        request.setDiagnostics(true);
+
+        when(mockEdcService.executeEdcWorkflow(any(EdcConnectorRequest.class), any(Deadline.class)))
+                .thenAnswer(invocation -> {
+                    Deadline deadline = invocation.getArgument(1);
+                    deadline.startStage("catalog");
+                    deadline.recordHttpStatus(502);
+                    throw new RuntimeException("Failed to query catalog. Status: 502");
+                });
+
+        OutboundConnectorContext context = OutboundConnectorContextBuilder.create()
+                .variables(request)
+                .build();
+
+        // When/Then
+        assertThatThrownBy(() -> connectorFunction.execute(context))
+                .isInstanceOfSatisfying(ConnectorException.class, e -> {
+                    assertThat(e.getMessage()).contains("Failed to retrieve data from EDC");
+                    Map<?, ?> diagnostics = (Map<?, ?>) e.getErrorVariables().get("diagnostics");
+                    List<?> stages = (List<?>) diagnostics.get("stages");
+                    assertThat(stages).hasSize(1);
+                    assertThat(((Map<?, ?>) stages.get(0)).get("stage")).isEqualTo("catalog");
+                    assertThat(((Map<?, ?>) stages.get(0)).get("httpStatuses")).isEqualTo(List.of(502));
+                });
+    }
 }
@@ -0,0 +1,53 @@
+package io.camunda.connector.edc.model;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for the JSON form of the connector response
+ */
+class EdcConnectorResponseTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    void shouldOmitDiagnosticsUnlessSet() throws Exception {
+        // Given
+        EdcConnectorResponse response = new EdcConnectorResponse("asset-1", "agreement-1", "transfer-1", "data");
+
+        // When
+        JsonNode json = mapper.valueToTree(response);
+
+        // Then
+        assertThat(json.has("diagnostics")).isFalse();
+        assertThat(json.has("sha256")).isFalse();
+        assertThat(json.get("status").asText()).isEqualTo("SUCCESS");
+    }
+
+    @Test
+    void shouldWriteDiagnosticsWhenSet() throws Exception {
+        // Given
+        EdcConnectorResponse.StageDiagnostics stage = new EdcConnectorResponse.StageDiagnostics();
+        stage.setStage("catalog");
+        stage.setMillis(12);
+        stage.setHttpStatuses(List.of(200));
+        EdcConnectorResponse.Diagnostics diagnostics = new EdcConnectorResponse.Diagnostics();
+        diagnostics.setTotalMillis(15);
+        diagnostics.setStages(List.of(stage));
+        EdcConnectorResponse response = new EdcConnectorResponse("asset-1", "agreement-1", "transfer-1", "data");
+        response.setDiagnostics(diagnostics);
+
+        // When
+        JsonNode json = mapper.valueToTree(response);
+
+        // Then
+        assertThat(json.at("/diagnostics/totalMillis").asLong()).isEqualTo(15);
+        assertThat(json.at("/diagnostics/stages/0/stage").asText()).isEqualTo("catalog");
+        assertThat(json.at("/diagnostics/stages/0/httpStatuses/0").asInt()).isEqualTo(200);
+    }
+}
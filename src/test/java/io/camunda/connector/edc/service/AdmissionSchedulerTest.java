@@ -0,0 +1,113 @@
+package io.camunda.connector.edc.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for lane-based admission of EDC workflows
+ */
+class AdmissionSchedulerTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final AdmissionScheduler scheduler = new AdmissionScheduler(
+            1, Map.of("orders", 3.0, "backfill", 1.0), registry);
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    // Admitted workflows in admission order; each releases its permit right after recording
+    private final List<String> admitted = new CopyOnWriteArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void shouldServeBusyLanesInProportionToTheirWeights() throws Exception {
+        // Given: the only slot is taken while both lanes fill up
+        AdmissionScheduler.Permit running = scheduler.admit("orders", 0, deadline());
+        for (int i = 0; i < 8; i++) {
+            submit("orders", 0, "orders");
+            submit("backfill", 0, "backfill");
+        }
+        await(() -> scheduler.getQueued("orders") == 8 && scheduler.getQueued("backfill") == 8);
+
+        // When
+        running.close();
+        await(() -> admitted.size() == 16);
+
+        // Then: weight 3 against 1 while both lanes are busy
+        assertThat(admitted.subList(0, 8)).filteredOn("orders"::equals).hasSize(6);
+    }
+
+    @Test
+    void shouldAdmitHigherPrioritiesFirstAndEqualOnesInArrivalOrder() throws Exception {
+        // Given
+        AdmissionScheduler.Permit running = scheduler.admit("orders", 0, deadline());
+        int queued = 0;
+        for (String workflow : List.of("low:1", "high-a:5", "high-b:5", "medium:3")) {
+            submit("orders", Integer.parseInt(workflow.split(":")[1]), workflow.split(":")[0]);
+            int expected = ++queued;
+            await(() -> scheduler.getQueued("orders") == expected);
+        }
+
+        // When
+        running.close();
+        await(() -> admitted.size() == 4);
+
+        // Then
+        assertThat(admitted).containsExactly("high-a", "high-b", "medium", "low");
+    }
+
+    @Test
+    void shouldMapUnconfiguredLanesToDefaultLane() throws Exception {
+        // Given
+        AdmissionScheduler.Permit running = scheduler.admit("orders", 0, deadline());
+
+        // When
+        submit("tenant-1", 0, "tenant-1");
+        submit("tenant-2", 0, "tenant-2");
+        await(() -> scheduler.getQueued(AdmissionScheduler.DEFAULT_LANE) == 2);
+
+        // Then: no lane and no meters per unconfigured name
+        assertThat(scheduler.getQueued("tenant-1")).isEqualTo(2);
+        assertThat(registry.find("edc.connector.admission.wait").timers())
+                .extracting(timer -> timer.getId().getTag("lane"))
+                .containsExactlyInAnyOrder("orders", AdmissionScheduler.DEFAULT_LANE);
+        running.close();
+        await(() -> admitted.size() == 2);
+    }
+
+    private void submit(String lane, int priority, String name) {
+        executor.execute(() -> {
+            try (AdmissionScheduler.Permit permit = scheduler.admit(lane, priority, deadline())) {
+                admitted.add(name);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                throw new AssertionError("Condition not met within 5 s");
+            }
+            Thread.sleep(10);
+        }
+    }
+
+    private static Deadline deadline() {
+        return Deadline.after(Duration.ofSeconds(30));
+    }
+}
@@ -0,0 +1,149 @@
+package io.camunda.connector.edc.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.camunda.connector.edc.model.EdcConnectorRequest;
+import io.camunda.connector.edc.model.management.ManagementApiJson;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for contract agreement reuse, policy expiry and background renewal
+ */
+class AgreementRenewerTest {
+
+    private static final Instant AGREED_AT = Instant.parse("2025-06-01T12:00:00Z");
+
+    private final AtomicInteger negotiations = new AtomicInteger();
+    private volatile EdcConnectorRequest renewedWith;
+    private AgreementRenewer renewer;
+
+    @AfterEach
+    void tearDown() {
+        if (renewer != null) {
+            renewer.close();
+        }
+    }
+
+    @Test
+    void shouldUseAbsoluteDateTimeBound() throws Exception {
+        // Given
+        JsonNode policy = policy("{\"odrl:permission\":{\"odrl:action\":{\"@id\":\"odrl:use\"},"
+                + "\"odrl:constraint\":{\"odrl:leftOperand\":{\"@id\":\"odrl:dateTime\"},"
+                + "\"odrl:operator\":{\"@id\":\"odrl:lt\"},\"odrl:rightOperand\":\"2025-06-02T00:00:00Z\"}}}");
+
+        // When/Then
+        assertThat(AgreementRenewer.expiresAt(policy, AGREED_AT, Duration.ofDays(7)))
+                .isEqualTo(Instant.parse("2025-06-02T00:00:00Z"));
+    }
+
+    @Test
+    void shouldUseEarliestBoundOfNestedConstraints() throws Exception {
+        // Given
+        JsonNode policy = policy("{\"http://www.w3.org/ns/odrl/2/permission\":[{\"http://www.w3.org/ns/odrl/2/constraint\":"
+                + "{\"odrl:and\":[{\"odrl:leftOperand\":\"https://w3id.org/edc/v0.0.1/ns/inForceDate\","
+                + "\"odrl:operator\":\"odrl:gteq\",\"odrl:rightOperand\":\"contractAgreement+0s\"},"
+                + "{\"odrl:leftOperand\":\"https://w3id.org/edc/v0.0.1/ns/inForceDate\","
+                + "\"odrl:operator\":\"odrl:lteq\",\"odrl:rightOperand\":\"contractAgreement+2h\"},"
+                + "{\"odrl:leftOperand\":\"odrl:elapsedTime\",\"odrl:operator\":\"odrl:lteq\","
+                + "\"odrl:rightOperand\":{\"@value\":\"PT3H\",\"@type\":\"xsd:duration\"}}]}}]}");
+
+        // When/Then
+        assertThat(AgreementRenewer.expiresAt(policy, AGREED_AT, Duration.ofDays(7)))
+                .isEqualTo(AGREED_AT.plus(Duration.ofHours(2)));
+    }
+
+    @Test
+    void shouldFallBackToMaxAgeWithoutBound() throws Exception {
+        // Given
+        JsonNode policy = policy("{\"odrl:permission\":{\"odrl:constraint\":{\"odrl:leftOperand\":\"odrl:purpose\","
+                + "\"odrl:operator\":\"odrl:eq\",\"odrl:rightOperand\":\"research\"}}}");
+
+        // When/Then
+        assertThat(AgreementRenewer.expiresAt(policy, AGREED_AT, Duration.ofDays(7)))
+                .isEqualTo(AGREED_AT.plus(Duration.ofDays(7)));
+    }
+
+    @Test
+    void shouldReuseAgreementUntilReplacedByRenewal() throws Exception {
+        // Given: reusable for 2 s past the expiry margin, due for renewal after 1 s
+        renewer = renewer(Duration.ofSeconds(32), Duration.ofSeconds(1));
+        AgreementRenewer.Key key = AgreementRenewer.Key.of(request());
+        renewer.register(key, new AgreementRenewer.Negotiated("agreement-0", policy("{}"), Instant.now()));
+
+        // When: the first lookup once it is due hands over its request
+        String reused = renewer.lookup(key, AgreementRenewerTest::request);
+        Thread.sleep(1500);
+        EdcConnectorRequest jobRequest = request();
+        String due = renewer.lookup(key, () -> jobRequest);
+        Thread.sleep(200);
+
+        // Then
+        assertThat(reused).isEqualTo("agreement-0");
+        assertThat(due).isEqualTo("agreement-0");
+        assertThat(negotiations).hasValue(1);
+        assertThat(renewedWith).isSameAs(jobRequest);
+        assertThat(renewer.lookup(key, AgreementRenewerTest::request)).isEqualTo("agreement-1");
+    }
+
+    @Test
+    void shouldDropRegisteredAgreementNeverLookedUp() throws Exception {
+        // Given: due for renewal after 1 s
+        renewer = renewer(Duration.ofSeconds(32), Duration.ofSeconds(1));
+        AgreementRenewer.Key key = AgreementRenewer.Key.of(request());
+        renewer.register(key, new AgreementRenewer.Negotiated("agreement-0", policy("{}"), Instant.now()));
+
+        // When: no other job needs it until then
+        Thread.sleep(1500);
+
+        // Then
+        assertThat(renewer.lookup(key, AgreementRenewerTest::request)).isNull();
+        assertThat(negotiations).hasValue(0);
+    }
+
+    @Test
+    void shouldDropAgreementNotUsedUntilRenewal() throws Exception {
+        // Given: used by a job and renewed by another after 1 s
+        renewer = renewer(Duration.ofSeconds(32), Duration.ofSeconds(1));
+        AgreementRenewer.Key key = AgreementRenewer.Key.of(request());
+        renewer.register(key, new AgreementRenewer.Negotiated("agreement-0", policy("{}"), Instant.now()));
+        renewer.lookup(key, AgreementRenewerTest::request);
+        Thread.sleep(1500);
+        renewer.lookup(key, AgreementRenewerTest::request);
+
+        // When: the renewal is never used until it is due itself
+        Thread.sleep(2000);
+
+        // Then
+        assertThat(negotiations).hasValue(1);
+        assertThat(renewer.lookup(key, AgreementRenewerTest::request)).isNull();
+    }
+
+    private AgreementRenewer renewer(Duration maxAge, Duration renewAhead) {
+        return new AgreementRenewer((request, deadline) -> {
+            renewedWith = request;
+            return new AgreementRenewer.Negotiated(
+                    "agreement-" + negotiations.incrementAndGet(), policy("{}"), Instant.now());
+        },
+                maxAge, renewAhead, Duration.ofSeconds(5), 1, new SimpleMeterRegistry());
+    }
+
+    private static EdcConnectorRequest request() {
+        EdcConnectorRequest request = new EdcConnectorRequest();
+        request.setEdcManagementUrl("http://consumer:9193/management");
+        request.setProviderUrl("http://provider:8080");
+        request.setProviderDid("did:web:provider");
+        request.setAssetId("asset-1");
+        return request;
+    }
+
+    private static JsonNode policy(String json) throws Exception {
+        return ManagementApiJson.MAPPER.readTree(json);
+    }
+}
@@ -0,0 +1,122 @@
+package io.camunda.connector.edc.service;
+
+import io.camunda.connector.edc.model.management.CatalogResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for merging concurrent catalog lookups into batched catalog requests
+ */
+class CatalogBatcherTest {
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final List<List<String>> queries = Collections.synchronizedList(new ArrayList<>());
+    private volatile boolean failing;
+
+    @AfterEach
+    void tearDown() {
+        scheduler.shutdownNow();
+        executor.shutdownNow();
+    }
+
+    @Test
+    void shouldSendLookupsWithinWindowAsOneRequest() throws Exception {
+        // Given
+        CatalogBatcher batcher = batcher(Duration.ofMillis(200), 50);
+
+        // When
+        List<Future<List<CatalogResponse.Dataset>>> lookups = new ArrayList<>();
+        for (String assetId : List.of("asset-1", "asset-2", "asset-1", "asset-3")) {
+            lookups.add(executor.submit(() -> batcher.query(assetId, deadline())));
+        }
+
+        // Then: every lookup gets all datasets of the batch, duplicates are requested once
+        for (Future<List<CatalogResponse.Dataset>> lookup : lookups) {
+            assertThat(lookup.get(5, TimeUnit.SECONDS)).extracting(CatalogResponse.Dataset::id)
+                    .containsExactlyInAnyOrder("asset-1", "asset-2", "asset-3");
+        }
+        assertThat(queries).hasSize(1);
+        assertThat(queries.get(0)).containsExactlyInAnyOrder("asset-1", "asset-2", "asset-3");
+    }
+
+    @Test
+    void shouldSendFullBatchBeforeWindowEnds() throws Exception {
+        // Given: a window far longer than the test
+        CatalogBatcher batcher = batcher(Duration.ofMinutes(1), 2);
+
+        // When
+        Future<List<CatalogResponse.Dataset>> first = executor.submit(() -> batcher.query("asset-1", deadline()));
+        Future<List<CatalogResponse.Dataset>> second = executor.submit(() -> batcher.query("asset-2", deadline()));
+
+        // Then
+        assertThat(first.get(5, TimeUnit.SECONDS)).hasSize(2);
+        assertThat(second.get(5, TimeUnit.SECONDS)).hasSize(2);
+        assertThat(queries).hasSize(1);
+        assertThat(queries.get(0)).containsExactlyInAnyOrder("asset-1", "asset-2");
+    }
+
+    @Test
+    void shouldPropagateFailureToEveryLookupOfBatch() throws Exception {
+        // Given
+        failing = true;
+        CatalogBatcher batcher = batcher(Duration.ofMillis(100), 50);
+
+        // When
+        Future<List<CatalogResponse.Dataset>> first = executor.submit(() -> batcher.query("asset-1", deadline()));
+        Future<List<CatalogResponse.Dataset>> second = executor.submit(() -> batcher.query("asset-2", deadline()));
+
+        // Then
+        for (Future<List<CatalogResponse.Dataset>> lookup : List.of(first, second)) {
+            assertThatThrownBy(() -> lookup.get(5, TimeUnit.SECONDS))
+                    .hasCauseInstanceOf(IllegalStateException.class)
+                    .hasMessageContaining("Catalog request failed with status 502");
+        }
+        assertThat(queries).hasSize(1);
+    }
+
+    @Test
+    void shouldCloseOnlyWhenIdle() throws Exception {
+        // Given
+        CatalogBatcher batcher = batcher(Duration.ofMillis(50), 50);
+        batcher.query("asset-1", deadline());
+
+        // When/Then
+        assertThat(batcher.closeIfIdle(Duration.ofMinutes(1))).isFalse();
+        assertThat(batcher.closeIfIdle(Duration.ZERO)).isTrue();
+        assertThat(batcher.query("asset-2", deadline())).isNull();
+        assertThat(queries).hasSize(1);
+    }
+
+    private CatalogBatcher batcher(Duration window, int maxBatchSize) {
+        return new CatalogBatcher(assetIds -> {
+            queries.add(assetIds);
+            if (failing) {
+                throw new IllegalStateException("Catalog request failed with status 502");
+            }
+            return assetIds.stream().map(CatalogBatcherTest::dataset).toList();
+        }, window, maxBatchSize, scheduler, executor, new SimpleMeterRegistry());
+    }
+
+    private static CatalogResponse.Dataset dataset(String assetId) {
+        return new CatalogResponse.Dataset(assetId, List.of());
+    }
+
+    private static Deadline deadline() {
+        return Deadline.after(Duration.ofSeconds(10));
+    }
+}
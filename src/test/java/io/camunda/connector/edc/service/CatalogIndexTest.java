@@ -0,0 +1,141 @@
+package io.camunda.connector.edc.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.camunda.connector.edc.model.management.CatalogResponse;
+import io.camunda.connector.edc.model.management.ManagementApiJson;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for the index of prefetched provider catalogs
+ */
+class CatalogIndexTest {
+
+    private static final CatalogIndex.Provider PROVIDER =
+            new CatalogIndex.Provider("did:web:provider", "http://provider/api/dsp");
+
+    private final AtomicInteger pages = new AtomicInteger();
+    private CatalogIndex index;
+
+    @AfterEach
+    void tearDown() {
+        if (index != null) {
+            index.close();
+        }
+    }
+
+    @Test
+    void shouldIndexCatalogPageByPage() throws Exception {
+        // Given: 5 datasets served in pages of 2
+        index = new CatalogIndex("http://consumer/management", (managementUrl, did, dspAddress, offset, limit, deadline) -> {
+            pages.incrementAndGet();
+            List<CatalogResponse.Dataset> page = new ArrayList<>();
+            for (int i = offset; i < Math.min(5, offset + limit); i++) {
+                page.add(dataset("asset-" + i));
+            }
+            return page;
+        }, Duration.ofMinutes(5), Duration.ofMinutes(15), 2, 100, new SimpleMeterRegistry());
+
+        // When
+        index.start(PROVIDER);
+        waitForSize(PROVIDER, 5);
+
+        // Then: a provider claiming the DID at another address is not served from the index
+        assertThat(pages).hasValue(3);
+        assertThat(index.lookup(PROVIDER, "asset-4").id()).isEqualTo("asset-4");
+        assertThat(index.lookup(PROVIDER, "asset-5")).isNull();
+        assertThat(index.lookup(new CatalogIndex.Provider("did:web:other", PROVIDER.dspAddress()), "asset-4")).isNull();
+        assertThat(index.lookup(new CatalogIndex.Provider(PROVIDER.did(), "http://elsewhere/api/dsp"), "asset-4"))
+                .isNull();
+
+        index.invalidate(PROVIDER, "asset-4");
+        assertThat(index.lookup(PROVIDER, "asset-4")).isNull();
+    }
+
+    @Test
+    void shouldRefreshProvidersIndependently() throws Exception {
+        // Given: one provider never answers
+        CountDownLatch hanging = new CountDownLatch(1);
+        CatalogIndex.Provider slow = new CatalogIndex.Provider("did:web:slow", "http://slow/api/dsp");
+        index = new CatalogIndex("http://consumer/management", (managementUrl, did, dspAddress, offset, limit, deadline) -> {
+            if (did.equals(slow.did())) {
+                hanging.await();
+            }
+            return List.of(dataset("asset-1"));
+        }, Duration.ofMinutes(5), Duration.ofMinutes(15), 10, 100, new SimpleMeterRegistry());
+
+        // When
+        index.start(slow);
+        index.start(PROVIDER);
+        waitForSize(PROVIDER, 1);
+
+        // Then
+        assertThat(index.lookup(PROVIDER, "asset-1")).isNotNull();
+        assertThat(index.lookup(slow, "asset-1")).isNull();
+        hanging.countDown();
+    }
+
+    @Test
+    void shouldReportGaugesPerDspAddress() throws Exception {
+        // Given: the same DID indexed at two addresses
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        CatalogIndex.Provider other = new CatalogIndex.Provider(PROVIDER.did(), "http://replica/api/dsp");
+        index = new CatalogIndex("http://consumer/management", (managementUrl, did, dspAddress, offset, limit, deadline) ->
+                dspAddress.equals(PROVIDER.dspAddress()) ? List.of(dataset("asset-1"), dataset("asset-2"))
+                        : List.of(dataset("asset-1")),
+                Duration.ofMinutes(5), Duration.ofMinutes(15), 10, 100, registry);
+
+        // When
+        index.start(PROVIDER);
+        index.start(other);
+        waitForSize(PROVIDER, 2);
+        waitForSize(other, 1);
+
+        // Then
+        assertThat(registry.get("edc.connector.catalog.index.size").tag("address", PROVIDER.dspAddress())
+                .gauge().value()).isEqualTo(2);
+        assertThat(registry.get("edc.connector.catalog.index.size").tag("address", other.dspAddress())
+                .gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldShareEqualPolicySubtrees() throws Exception {
+        // Given
+        CatalogResponse.Dataset first = dataset("asset-1");
+        CatalogResponse.Dataset second = dataset("asset-2");
+
+        // When
+        HashMap<JsonNode, JsonNode> interned = new HashMap<>();
+        JsonNode firstPolicy = CatalogIndex.intern(first.policies().get(0), interned);
+        JsonNode secondPolicy = CatalogIndex.intern(second.policies().get(0), interned);
+
+        // Then: the offers differ by ID, their permissions are one instance
+        assertThat(firstPolicy).isNotSameAs(secondPolicy);
+        assertThat(secondPolicy.get("odrl:permission")).isSameAs(firstPolicy.get("odrl:permission"));
+        assertThat(secondPolicy).isEqualTo(dataset("asset-2").policies().get(0));
+    }
+
+    private void waitForSize(CatalogIndex.Provider provider, int size) throws InterruptedException {
+        for (int i = 0; i < 100 && index.getSize(provider) < size; i++) {
+            Thread.sleep(20);
+        }
+    }
+
+    private static CatalogResponse.Dataset dataset(String assetId) throws Exception {
+        return ManagementApiJson.CATALOG_READER.<CatalogResponse>readValue("{\"dcat:dataset\":{\"@id\":\"" + assetId
+                + "\",\"odrl:hasPolicy\":{\"@id\":\"offer-" + assetId + "\",\"@type\":\"odrl:Offer\","
+                + "\"odrl:permission\":{\"odrl:action\":{\"@id\":\"odrl:use\"},\"odrl:constraint\":"
+                + "{\"odrl:leftOperand\":\"odrl:purpose\",\"odrl:operator\":\"odrl:eq\",\"odrl:rightOperand\":\"research\"}}}}}")
+                .datasets().get(0);
+    }
+}
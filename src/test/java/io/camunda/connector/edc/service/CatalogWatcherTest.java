@@ -0,0 +1,178 @@
+package io.camunda.connector.edc.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.camunda.connector.edc.model.CatalogChangeEvent;
+import io.camunda.connector.edc.model.management.ManagementApiJson;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Unit tests for the hash-based diffing of provider catalogs
+ */
+class CatalogWatcherTest {
+
+    private static final String PROVIDER = "did:web:provider";
+
+    @TempDir
+    Path directory;
+
+    // Asset ID to the purpose its offer is constrained to
+    private final Map<String, String> catalog = new TreeMap<>();
+    private final List<CatalogChangeEvent> events = new ArrayList<>();
+    private int offerCounter;
+    private boolean accept = true;
+
+    @Test
+    void shouldReportOnlyAddedChangedAndRemovedDatasets() throws Exception {
+        // Given: the first poll sets the baseline without reporting
+        catalog.put("asset-1", "research");
+        catalog.put("asset-2", "research");
+        catalog.put("asset-3", "research");
+        CatalogWatcher watcher = watcher(null);
+        watcher.poll(deadline());
+        assertThat(events).isEmpty();
+
+        // When: one asset is added, one changes its policy, one is removed, all get new offer IDs
+        catalog.put("asset-4", "research");
+        catalog.put("asset-2", "commercial");
+        catalog.remove("asset-3");
+        CatalogWatcher.PollResult result = watcher.poll(deadline());
+
+        // Then: the removal is reported once the next poll confirms it
+        assertThat(result).isEqualTo(new CatalogWatcher.PollResult(3, 1, 1, 0, 0));
+        assertThat(events).extracting(CatalogChangeEvent::getChange, CatalogChangeEvent::getAssetId)
+                .containsExactlyInAnyOrder(
+                        tuple("added", "asset-4"),
+                        tuple("changed", "asset-2"));
+        events.clear();
+        assertThat(watcher.poll(deadline())).isEqualTo(new CatalogWatcher.PollResult(3, 0, 0, 1, 0));
+        assertThat(events).extracting(CatalogChangeEvent::getChange, CatalogChangeEvent::getAssetId)
+                .containsExactly(tuple("removed", "asset-3"));
+        events.clear();
+        watcher.poll(deadline());
+        assertThat(events).isEmpty();
+    }
+
+    @Test
+    void shouldNotReportDatasetMissedByOnePoll() throws Exception {
+        // Given
+        catalog.put("asset-1", "research");
+        catalog.put("asset-2", "research");
+        CatalogWatcher watcher = watcher(null);
+        watcher.poll(deadline());
+
+        // When: a page shifted under the poll, so one poll does not see asset-2
+        catalog.remove("asset-2");
+        watcher.poll(deadline());
+        catalog.put("asset-2", "research");
+        watcher.poll(deadline());
+
+        // Then: neither a removal nor a new addition is reported
+        assertThat(events).isEmpty();
+        assertThat(watcher.getSize()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldReportUndeliveredChangesAgainAndAfterRestart() throws Exception {
+        // Given
+        Path snapshot = directory.resolve("snapshot.json");
+        catalog.put("asset-1", "research");
+        watcher(snapshot).poll(deadline());
+        catalog.put("asset-2", "research");
+
+        // When: the first delivery fails, the watcher restarts and delivers it
+        accept = false;
+        assertThat(watcher(snapshot).poll(deadline()).undelivered()).isEqualTo(1);
+        accept = true;
+        events.clear();
+        CatalogWatcher restarted = watcher(snapshot);
+        restarted.poll(deadline());
+
+        // Then
+        assertThat(events).extracting(CatalogChangeEvent::getAssetId).containsExactly("asset-2");
+        assertThat(restarted.getSize()).isEqualTo(2);
+        events.clear();
+        watcher(snapshot).poll(deadline());
+        assertThat(events).isEmpty();
+    }
+
+    @Test
+    void shouldAbortPageReadStalledPastDeadline() throws Exception {
+        // Given: the provider sends the headers and then nothing
+        PipedOutputStream sender = new PipedOutputStream();
+        InputStream stalled = new PipedInputStream(sender);
+        sender.write("{\"dcat:dataset\":[".getBytes(StandardCharsets.UTF_8));
+        CatalogWatcher watcher = new CatalogWatcher(PROVIDER, (offset, limit, deadline) -> stalled, events::add, 2,
+                false, null, new SimpleMeterRegistry());
+
+        // When/Then: the poll fails, so the watcher reports itself down and polls again
+        assertThatThrownBy(() -> watcher.poll(Deadline.after(Duration.ofMillis(200))))
+                .isInstanceOf(DeadlineExceededException.class)
+                .hasMessageContaining("reading the catalog page at offset 0");
+        assertThat(Thread.currentThread().isInterrupted()).isFalse();
+        sender.close();
+    }
+
+    @Test
+    void shouldHashIndependentOfKeyOrderAndOfferId() throws Exception {
+        // Given
+        JsonNode policy = ManagementApiJson.MAPPER.readTree(
+                "{\"@id\":\"offer-1\",\"odrl:permission\":{\"odrl:action\":\"use\",\"odrl:target\":\"asset-1\"}}");
+        JsonNode reordered = ManagementApiJson.MAPPER.readTree(
+                "{\"odrl:permission\":{\"odrl:target\":\"asset-1\",\"odrl:action\":\"use\"},\"@id\":\"offer-2\"}");
+        JsonNode other = ManagementApiJson.MAPPER.readTree(
+                "{\"@id\":\"offer-1\",\"odrl:permission\":{\"odrl:action\":\"use\",\"odrl:target\":\"asset-2\"}}");
+
+        // When/Then
+        assertThat(CatalogWatcher.hash("asset-1", policy)).isEqualTo(CatalogWatcher.hash("asset-1", reordered));
+        assertThat(CatalogWatcher.hash("asset-1", policy)).isNotEqualTo(CatalogWatcher.hash("asset-1", other));
+        assertThat(CatalogWatcher.hash("asset-1", policy)).isNotEqualTo(CatalogWatcher.hash("asset-2", policy));
+    }
+
+    private CatalogWatcher watcher(Path snapshot) throws IOException {
+        return new CatalogWatcher(PROVIDER, this::page, event -> {
+            if (accept) {
+                events.add(event);
+            }
+            return accept;
+        }, 2, false, snapshot, new SimpleMeterRegistry());
+    }
+
+    /**
+     * Catalog page as the management API returns it, a single dataset compacted to an object
+     */
+    private InputStream page(int offset, int limit, Deadline deadline) {
+        List<String> datasets = new ArrayList<>();
+        catalog.entrySet().stream().skip(offset).limit(limit).forEach(entry -> datasets.add(
+                "{\"@id\":\"" + entry.getKey() + "\",\"@type\":\"dcat:Dataset\",\"odrl:hasPolicy\":{\"@id\":\"offer-"
+                        + (offerCounter++) + "\",\"odrl:permission\":{\"odrl:action\":{\"@id\":\"odrl:use\"},"
+                        + "\"odrl:constraint\":{\"odrl:leftOperand\":\"odrl:purpose\",\"odrl:rightOperand\":\""
+                        + entry.getValue() + "\"}}},\"dcat:distribution\":[]}"));
+        String dataset = datasets.size() == 1 ? datasets.get(0) : "[" + String.join(",", datasets) + "]";
+        String body = "{\"@id\":\"catalog\",\"@type\":\"dcat:Catalog\",\"dcat:dataset\":" + dataset
+                + ",\"dcat:service\":{\"@id\":\"service\"},\"@context\":{\"dcat\":\"http://www.w3.org/ns/dcat#\"}}";
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Deadline deadline() {
+        return Deadline.after(Duration.ofSeconds(10));
+    }
+}
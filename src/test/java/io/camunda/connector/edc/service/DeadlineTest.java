@@ -0,0 +1,201 @@
+package io.camunda.connector.edc.service;
+
+import io.camunda.connector.edc.model.EdcConnectorResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Unit tests for the end-to-end time budget of a workflow
+ */
+class DeadlineTest {
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+
+    @AfterEach
+    void tearDown() {
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    void shouldTrackRemainingBudget() throws Exception {
+        // Given
+        Deadline deadline = Deadline.after(Duration.ofMillis(50));
+
+        // When
+        boolean expiredAtStart = deadline.isExpired();
+        Thread.sleep(80);
+
+        // Then
+        assertThat(expiredAtStart).isFalse();
+        assertThat(deadline.isExpired()).isTrue();
+        assertThat(deadline.remaining()).isZero();
+        assertThatThrownBy(deadline::checkNotExpired)
+                .isInstanceOf(DeadlineExceededException.class)
+                .hasMessageContaining("EDC workflow timeout");
+    }
+
+    @Test
+    void shouldReportTimePerStage() throws Exception {
+        // Given
+        Deadline deadline = Deadline.after(Duration.ofSeconds(10));
+
+        // When
+        deadline.startStage("catalog");
+        Thread.sleep(20);
+        deadline.startStage("negotiation");
+
+        // Then
+        assertThat(deadline.breakdown()).matches("catalog=\\d+ms, negotiation=\\d+ms \\(running\\)");
+        assertThat(deadline.exceeded("polling the negotiation").getMessage())
+                .contains("while polling the negotiation")
+                .contains("Stage breakdown: catalog=");
+    }
+
+    @Test
+    void shouldCollectDiagnosticsPerStage() throws Exception {
+        // Given
+        Deadline deadline = Deadline.after(Duration.ofSeconds(10));
+        deadline.recordHttpStatus(200);
+        deadline.startStage("catalog");
+        deadline.recordHttpStatus(0);
+        deadline.recordHttpStatus(200);
+        deadline.recordCacheHit();
+        Thread.sleep(20);
+        deadline.startStage("data");
+        deadline.recordPolls(3);
+        deadline.recordBytes(1024);
+
+        // When
+        EdcConnectorResponse.Diagnostics diagnostics = deadline.diagnostics();
+
+        // Then: records outside a stage count as "other", the running stage is included
+        assertThat(diagnostics.getTotalMillis()).isGreaterThanOrEqualTo(20);
+        assertThat(diagnostics.getStages())
+                .extracting(EdcConnectorResponse.StageDiagnostics::getStage,
+                        EdcConnectorResponse.StageDiagnostics::getHttpStatuses,
+                        EdcConnectorResponse.StageDiagnostics::getPollAttempts,
+                        EdcConnectorResponse.StageDiagnostics::getBytes,
+                        EdcConnectorResponse.StageDiagnostics::getCacheHits)
+                .containsExactly(
+                        tuple("other", List.of(200), 0, 0L, 0),
+                        tuple("catalog", List.of(0, 200), 0, 0L, 1),
+                        tuple("data", List.of(), 3, 1024L, 0));
+        assertThat(diagnostics.getStages().get(1).getMillis()).isGreaterThanOrEqualTo(20);
+    }
+
+    @Test
+    void shouldCapRequestTimeoutWithinBudget() throws Exception {
+        // Given
+        Deadline longBudget = Deadline.after(Duration.ofMinutes(5));
+        Deadline shortBudget = Deadline.after(Duration.ofSeconds(2));
+        Deadline almostSpent = Deadline.after(Duration.ofNanos(1000));
+
+        // When/Then
+        assertThat(longBudget.requestTimeout(Duration.ofSeconds(30))).isEqualTo(Duration.ofSeconds(30));
+        assertThat(shortBudget.requestTimeout(Duration.ofSeconds(30)))
+                .isLessThanOrEqualTo(Duration.ofSeconds(2))
+                .isPositive();
+        Thread.sleep(5);
+        assertThatThrownBy(() -> almostSpent.requestTimeout(Duration.ofSeconds(30)))
+                .isInstanceOf(DeadlineExceededException.class);
+    }
+
+    @Test
+    void shouldNeverReturnTimeoutBelowOneMillisecond() {
+        // Given: less than a millisecond left, but not yet expired
+        Deadline deadline = Deadline.after(Duration.ofMinutes(5));
+
+        // When
+        Duration timeout = deadline.requestTimeout(Duration.ofNanos(10));
+
+        // Then
+        assertThat(timeout).isEqualTo(Duration.ofMillis(1));
+    }
+
+    @Test
+    void shouldCancelWorkflowBoundToThread() throws Exception {
+        // Given
+        Deadline deadline = Deadline.after(Duration.ofMinutes(5));
+        CountDownLatch bound = new CountDownLatch(1);
+        CompletableFuture<Throwable> outcome = new CompletableFuture<>();
+        Thread worker = new Thread(() -> {
+            deadline.bindToCurrentThread();
+            bound.countDown();
+            try {
+                deadline.sleep(Duration.ofMinutes(1));
+                outcome.complete(null);
+            } catch (Throwable e) {
+                outcome.complete(e);
+            } finally {
+                deadline.release();
+            }
+        });
+        worker.start();
+        bound.await();
+
+        // When
+        boolean cancelled = Deadline.cancel(worker, "job timeout passed");
+
+        // Then
+        assertThat(cancelled).isTrue();
+        assertThat(outcome.get(5, TimeUnit.SECONDS)).isInstanceOf(InterruptedException.class);
+        assertThat(deadline.cancelled()).hasMessageContaining("job timeout passed");
+        worker.join();
+        assertThat(Deadline.cancel(worker, "again")).isFalse();
+        assertThat(Deadline.cancel(Thread.currentThread(), "unbound")).isFalse();
+    }
+
+    @Test
+    void shouldInterruptBlockedReadAtDeadline() throws Exception {
+        // Given: a body that never sends a byte
+        Deadline deadline = Deadline.after(Duration.ofMillis(100));
+        PipedOutputStream sender = new PipedOutputStream();
+        InputStream body = new PipedInputStream(sender);
+
+        // When
+        Deadline.Watchdog watchdog = deadline.watch(scheduler);
+        Throwable failure = null;
+        try {
+            body.read();
+        } catch (IOException e) {
+            failure = e;
+        } finally {
+            watchdog.close();
+        }
+
+        // Then: the read was aborted and the interrupt does not leak into the next call
+        assertThat(failure).isNotNull();
+        assertThat(watchdog.hasFired()).isTrue();
+        assertThat(Thread.currentThread().isInterrupted()).isFalse();
+        sender.close();
+    }
+
+    @Test
+    void shouldNotInterruptAfterWatchdogIsClosed() throws Exception {
+        // Given
+        Deadline deadline = Deadline.after(Duration.ofMillis(50));
+
+        // When
+        deadline.watch(scheduler).close();
+        Thread.sleep(100);
+
+        // Then
+        assertThat(Thread.interrupted()).isFalse();
+    }
+}
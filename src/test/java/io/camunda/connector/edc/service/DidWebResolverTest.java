@@ -0,0 +1,196 @@
+package io.camunda.connector.edc.service;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for did:web resolution against a local DID document server
+ */
+class DidWebResolverTest {
+
+    private final AtomicInteger fetches = new AtomicInteger();
+    private volatile int status = 200;
+    private volatile String dspEndpoint = "http://provider:8082/api/dsp";
+
+    private HttpServer didServer;
+    private DidWebResolver resolver;
+    private String did;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        didServer = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        did = "did:web:127.0.0.1%3A" + didServer.getAddress().getPort() + ":provider";
+        didServer.createContext("/provider/did.json", exchange -> {
+            fetches.incrementAndGet();
+            sleep(50); // Give concurrent callers time to pile up
+            String body = status == 200
+                    ? "{\"@context\":[\"https://www.w3.org/ns/did/v1\"],\"id\":\"" + did + "\","
+                        + "\"service\":[{\"id\":\"#credential-service\",\"type\":\"CredentialService\","
+                        + "\"serviceEndpoint\":\"http://provider:7081/api/credentials\"},"
+                        + "{\"id\":\"#dsp\",\"type\":\"ProtocolEndpoint\",\"serviceEndpoint\":\"" + dspEndpoint + "\"}]}"
+                    : "Not Found";
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/did+json");
+            exchange.sendResponseHeaders(status, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        });
+        didServer.start();
+
+        resolver = resolver(Duration.ofMinutes(5), Duration.ofMinutes(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        resolver.close();
+        didServer.stop(0);
+    }
+
+    @Test
+    void shouldDeriveDocumentUrlFromDid() {
+        assertThat(DidWebResolver.documentUrl("did:web:example.com", "https"))
+                .isEqualTo(URI.create("https://example.com/.well-known/did.json"));
+        assertThat(DidWebResolver.documentUrl("did:web:provider-identityhub%3A7083:provider", "http"))
+                .isEqualTo(URI.create("http://provider-identityhub:7083/provider/did.json"));
+        assertThatThrownBy(() -> DidWebResolver.documentUrl("did:key:z6Mk", "https"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void shouldResolveDspEndpointAndCacheIt() throws Exception {
+        // When
+        String first = resolver.resolveDspEndpoint(did, deadline());
+        String second = resolver.resolveDspEndpoint(did, deadline());
+
+        // Then
+        assertThat(first).isEqualTo("http://provider:8082/api/dsp");
+        assertThat(second).isEqualTo(first);
+        assertThat(fetches).hasValue(1);
+    }
+
+    @Test
+    void shouldShareOneFetchBetweenConcurrentLookups() throws Exception {
+        // Given
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<String>> endpoints = new ArrayList<>();
+
+        // When
+        try {
+            for (int i = 0; i < 8; i++) {
+                endpoints.add(executor.submit(() -> resolver.resolveDspEndpoint(did, deadline())));
+            }
+            for (Future<String> endpoint : endpoints) {
+                assertThat(endpoint.get()).isEqualTo("http://provider:8082/api/dsp");
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Then
+        assertThat(fetches).hasValue(1);
+    }
+
+    @Test
+    void shouldCacheFailedResolution() {
+        // Given
+        status = 404;
+
+        // When/Then
+        assertThatThrownBy(() -> resolver.resolveDspEndpoint(did, deadline()))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("Status: 404");
+        assertThatThrownBy(() -> resolver.resolveDspEndpoint(did, deadline()))
+                .isInstanceOf(IOException.class);
+        assertThat(fetches).hasValue(1);
+    }
+
+    @Test
+    void shouldRetryFailedResolutionAfterNegativeTtl() throws Exception {
+        // Given
+        resolver.close();
+        resolver = resolver(Duration.ofMinutes(5), Duration.ofMillis(200));
+        status = 404;
+        assertThatThrownBy(() -> resolver.resolveDspEndpoint(did, deadline())).isInstanceOf(IOException.class);
+
+        // When
+        status = 200;
+        Thread.sleep(300);
+        String endpoint = resolver.resolveDspEndpoint(did, deadline());
+
+        // Then
+        assertThat(endpoint).isEqualTo("http://provider:8082/api/dsp");
+        assertThat(fetches).hasValue(2);
+    }
+
+    @Test
+    void shouldRefreshUsedEndpointBeforeExpiry() throws Exception {
+        // Given
+        resolver.close();
+        resolver = resolver(Duration.ofSeconds(1), Duration.ofMinutes(1));
+        assertThat(resolver.resolveDspEndpoint(did, deadline())).isEqualTo("http://provider:8082/api/dsp");
+
+        // When
+        dspEndpoint = "http://provider-new:8082/api/dsp";
+        Thread.sleep(900); // Past the refresh point at 80 % of the TTL, before expiry
+
+        // Then
+        assertThat(fetches).hasValue(2);
+        assertThat(resolver.resolveDspEndpoint(did, deadline())).isEqualTo("http://provider-new:8082/api/dsp");
+    }
+
+    @Test
+    void shouldRejectDocumentOfAnotherDid() {
+        // Given
+        String otherDid = did.replace(":provider", ":consumer");
+        didServer.createContext("/consumer/did.json", exchange -> {
+            byte[] bytes = ("{\"id\":\"" + did + "\",\"service\":[]}").getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        });
+
+        // When/Then
+        assertThatThrownBy(() -> resolver.resolveDspEndpoint(otherDid, deadline()))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("belongs to " + did);
+    }
+
+    private DidWebResolver resolver(Duration ttl, Duration negativeTtl) {
+        return new DidWebResolver(HttpClient.newHttpClient(), "http", Set.of("ProtocolEndpoint"), ttl,
+                negativeTtl, Duration.ofSeconds(5));
+    }
+
+    private static Deadline deadline() {
+        return Deadline.after(Duration.ofSeconds(10));
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package io.camunda.connector.edc.service;
+
+import io.camunda.connector.edc.model.EdcConnectorRequest;
+import io.camunda.connector.edc.model.management.ManagementApiJson;
+import io.camunda.connector.edc.service.payload.PayloadDecoder;
+import io.camunda.connector.edc.service.push.PushSink;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for decoding pushed payloads within the payload memory budget
+ */
+class EdcServiceTest {
+
+    private final PayloadBudget budget = new PayloadBudget(100, new SimpleMeterRegistry());
+    private final PayloadDecoder decoder = new PayloadDecoder(ManagementApiJson.MAPPER);
+    private final EdcConnectorRequest request = new EdcConnectorRequest();
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void shouldDeletePushedFileWhenNoBudgetIsGranted() throws Exception {
+        // Given: the budget is taken by another payload
+        PushSink.PushedPayload payload = pushed("{\"a\":1}");
+        PayloadBudget.Reservation other = budget.reserve(100, Deadline.after(Duration.ofSeconds(10)));
+
+        // When/Then
+        assertThatThrownBy(() -> EdcService.decodePushed(payload, request, budget, decoder,
+                Deadline.after(Duration.ofMillis(100))))
+                .isInstanceOf(DeadlineExceededException.class);
+        assertThat(payload.file()).doesNotExist();
+        other.close();
+        assertThat(budget.getReserved()).isZero();
+    }
+
+    @Test
+    void shouldHoldBudgetUntilDecodedPayloadIsClosed() throws Exception {
+        // Given
+        PushSink.PushedPayload payload = pushed("{\"a\":1}");
+
+        // When
+        EdcService.FetchedData data = EdcService.decodePushed(payload, request, budget, decoder,
+                Deadline.after(Duration.ofSeconds(10)));
+
+        // Then
+        assertThat(data.sha256()).isEqualTo("sha");
+        assertThat(budget.getReserved()).isEqualTo(7);
+        assertThat(payload.file()).doesNotExist();
+        data.close();
+        assertThat(budget.getReserved()).isZero();
+    }
+
+    private PushSink.PushedPayload pushed(String body) throws Exception {
+        Path file = Files.writeString(directory.resolve("edc-push-1.bin"), body);
+        return new PushSink.PushedPayload(file, "application/json", Files.size(file), "sha");
+    }
+}
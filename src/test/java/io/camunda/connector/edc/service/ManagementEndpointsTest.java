@@ -0,0 +1,114 @@
+package io.camunda.connector.edc.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for load balancing across control-plane replicas
+ */
+class ManagementEndpointsTest {
+
+    private static final String FIRST = "http://replica-1/management";
+    private static final String SECOND = "http://replica-2/management";
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(5);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(200);
+
+    // Ejected endpoints are probed only after an hour, so they stay ejected during a test
+    private final ManagementEndpoints endpoints = new ManagementEndpoints(
+            HttpClient.newHttpClient(), 2, Duration.ofHours(1), Duration.ofHours(1));
+
+    @AfterEach
+    void tearDown() {
+        endpoints.close();
+    }
+
+    @Test
+    void shouldPreferFastEndpoint() {
+        // Given
+        select(FIRST, SECOND);
+        endpoints.record(EdcCall.NEGOTIATION_STATE, uri(FIRST), SLOW, true);
+        endpoints.record(EdcCall.NEGOTIATION_STATE, uri(SECOND), FAST, true);
+
+        // When
+        ManagementEndpoints.Lease lease = endpoints.select(List.of(FIRST, SECOND));
+
+        // Then
+        assertThat(lease.getUrl()).isEqualTo(SECOND);
+        lease.close();
+    }
+
+    @Test
+    void shouldIgnoreCatalogLatency() {
+        // Given: the provider behind the catalog request is slow, not the replica
+        select(FIRST, SECOND);
+        endpoints.record(EdcCall.TRANSFER_STATE, uri(FIRST), FAST, true);
+        endpoints.record(EdcCall.TRANSFER_STATE, uri(SECOND), SLOW, true);
+        endpoints.record(EdcCall.CATALOG_QUERY, uri(FIRST), TimeUnit.SECONDS.toNanos(5), true);
+
+        // When/Then
+        try (ManagementEndpoints.Lease lease = endpoints.select(List.of(FIRST, SECOND))) {
+            assertThat(lease.getUrl()).isEqualTo(FIRST);
+        }
+    }
+
+    @Test
+    void shouldEjectEndpointAfterConsecutiveFailures() {
+        // Given
+        select(FIRST, SECOND);
+        endpoints.record(EdcCall.NEGOTIATION_STATE, uri(SECOND), SLOW, true);
+
+        // When
+        endpoints.record(EdcCall.NEGOTIATION_STATE, uri(FIRST), FAST, false);
+        endpoints.record(EdcCall.NEGOTIATION_STATE, uri(FIRST), FAST, false);
+
+        // Then: the slower healthy endpoint wins, and an ejected one is used if nothing else is left
+        try (ManagementEndpoints.Lease lease = endpoints.select(List.of(FIRST, SECOND))) {
+            assertThat(lease.getUrl()).isEqualTo(SECOND);
+        }
+        try (ManagementEndpoints.Lease lease = endpoints.select(List.of(FIRST))) {
+            assertThat(lease.getUrl()).isEqualTo(FIRST);
+        }
+    }
+
+    @Test
+    void shouldAttributeCallsAtPathSegmentBoundaries() {
+        // Given
+        String other = "http://replica-1/management2";
+        select(FIRST, other);
+
+        // When: failures of the second path must not eject the first
+        endpoints.record(EdcCall.NEGOTIATION_STATE, uri(other), FAST, false);
+        endpoints.record(EdcCall.NEGOTIATION_STATE, uri(other), FAST, false);
+
+        // Then
+        try (ManagementEndpoints.Lease lease = endpoints.select(List.of(FIRST, other))) {
+            assertThat(lease.getUrl()).isEqualTo(FIRST);
+        }
+        assertThat(ManagementEndpoints.isPrefix(FIRST, FIRST + "/v3/assets")).isTrue();
+        assertThat(ManagementEndpoints.isPrefix(FIRST, FIRST + "?x=1")).isTrue();
+        assertThat(ManagementEndpoints.isPrefix(FIRST, FIRST)).isTrue();
+        assertThat(ManagementEndpoints.isPrefix(FIRST, other + "/v3/assets")).isFalse();
+        assertThat(ManagementEndpoints.isPrefix("http://replica-1/", "http://replica-1/v3")).isTrue();
+    }
+
+    /**
+     * Register the endpoints without leaving a workflow active on them
+     */
+    private void select(String... urls) {
+        for (String url : urls) {
+            endpoints.select(List.of(url)).close();
+        }
+    }
+
+    private static URI uri(String url) {
+        return URI.create(url + "/v3/contractnegotiations/request");
+    }
+}
@@ -0,0 +1,162 @@
+package io.camunda.connector.edc.service;
+
+import com.sun.net.httpserver.HttpServer;
+import io.camunda.connector.edc.model.EdcConnectorRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for OAuth2 token caching against a local token endpoint stub
+ */
+class OAuth2TokenProviderTest {
+
+    private final AtomicInteger issuedTokens = new AtomicInteger();
+    private volatile long expiresIn = 3600;
+    private volatile int status = 200;
+    private volatile String lastRequestBody;
+
+    private HttpServer tokenEndpoint;
+    private OAuth2TokenProvider provider;
+    private EdcConnectorRequest.Authentication auth;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        tokenEndpoint = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        tokenEndpoint.createContext("/token", exchange -> {
+            lastRequestBody = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            sleep(50); // Give concurrent callers time to pile up
+            String body = status == 200
+                    ? "{\"access_token\":\"token-" + issuedTokens.incrementAndGet() + "\",\"token_type\":\"Bearer\","
+                        + "\"expires_in\":" + expiresIn + "}"
+                    : "{\"error\":\"invalid_client\"}";
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(status, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        });
+        tokenEndpoint.start();
+
+        provider = new OAuth2TokenProvider(HttpClient.newHttpClient(), 0.5, Duration.ofSeconds(5));
+
+        auth = new EdcConnectorRequest.Authentication();
+        auth.setType("oauth2");
+        auth.setTokenUrl("http://127.0.0.1:" + tokenEndpoint.getAddress().getPort() + "/token");
+        auth.setClientId("consumer");
+        auth.setClientSecret("secret");
+        auth.setScope("management-api:read");
+    }
+
+    @AfterEach
+    void tearDown() {
+        provider.close();
+        tokenEndpoint.stop(0);
+    }
+
+    @Test
+    void shouldCacheTokenAcrossCalls() throws Exception {
+        // When
+        String first = provider.getToken(auth, deadline());
+        String second = provider.getToken(auth, deadline());
+
+        // Then
+        assertThat(first).isEqualTo("token-1");
+        assertThat(second).isEqualTo(first);
+        assertThat(issuedTokens.get()).isEqualTo(1);
+        assertThat(lastRequestBody).isEqualTo("grant_type=client_credentials&scope=management-api%3Aread");
+    }
+
+    @Test
+    void shouldShareOneTokenRequestBetweenConcurrentCallers() throws Exception {
+        // Given
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<String>> results = new ArrayList<>();
+
+        // When
+        try {
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> provider.getToken(auth, deadline())));
+            }
+            for (Future<String> result : results) {
+                assertThat(result.get()).isEqualTo("token-1");
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Then
+        assertThat(issuedTokens.get()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldFetchNewTokenAfterRejection() throws Exception {
+        // Given
+        String rejected = provider.getToken(auth, deadline());
+
+        // When
+        provider.invalidate(auth, rejected);
+        String replacement = provider.getToken(auth, deadline());
+        provider.invalidate(auth, rejected); // A late 401 for the old token must not drop the new one
+
+        // Then
+        assertThat(replacement).isEqualTo("token-2");
+        assertThat(provider.getToken(auth, deadline())).isEqualTo("token-2");
+        assertThat(issuedTokens.get()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldRefreshUsedTokenBeforeExpiry() throws Exception {
+        // Given
+        expiresIn = 1;
+        assertThat(provider.getToken(auth, deadline())).isEqualTo("token-1");
+
+        // When - the refresh is due after half of the lifetime
+        sleep(800);
+
+        // Then
+        assertThat(issuedTokens.get()).isEqualTo(2);
+        assertThat(provider.getToken(auth, deadline())).isEqualTo("token-2");
+    }
+
+    @Test
+    void shouldReportTokenEndpointErrors() {
+        // Given
+        status = 401;
+
+        // When & Then
+        assertThatThrownBy(() -> provider.getToken(auth, deadline()))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("Failed to obtain OAuth2 token")
+                .hasMessageContaining("invalid_client");
+    }
+
+    private static Deadline deadline() {
+        return Deadline.after(Duration.ofSeconds(10));
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
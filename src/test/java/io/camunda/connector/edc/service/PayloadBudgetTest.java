@@ -0,0 +1,121 @@
+package io.camunda.connector.edc.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for the byte budget of payloads decoded in memory
+ */
+class PayloadBudgetTest {
+
+    private final PayloadBudget budget = new PayloadBudget(100, new SimpleMeterRegistry());
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void shouldWaitUntilBytesAreReleased() throws Exception {
+        // Given
+        PayloadBudget.Reservation first = budget.reserve(70, deadline());
+
+        // When
+        CompletableFuture<PayloadBudget.Reservation> second = reserveAsync(50);
+        Thread.sleep(100);
+        boolean waited = !second.isDone();
+        first.close();
+
+        // Then
+        assertThat(waited).isTrue();
+        second.get(5, TimeUnit.SECONDS).close();
+        assertThat(budget.getReserved()).isZero();
+        assertThat(budget.getAvailable()).isEqualTo(100);
+    }
+
+    @Test
+    void shouldServeWaitersInArrivalOrder() throws Exception {
+        // Given: a large payload waits, a small one that would fit arrives later
+        PayloadBudget.Reservation first = budget.reserve(60, deadline());
+        CompletableFuture<PayloadBudget.Reservation> large = reserveAsync(1000);
+        Thread.sleep(100);
+
+        // When
+        CompletableFuture<PayloadBudget.Reservation> small = reserveAsync(10);
+        Thread.sleep(100);
+
+        // Then: the large one is capped at the whole budget and goes first
+        assertThat(small).isNotDone();
+        first.close();
+        PayloadBudget.Reservation largeReservation = large.get(5, TimeUnit.SECONDS);
+        assertThat(budget.getReserved()).isEqualTo(100);
+        largeReservation.close();
+        small.get(5, TimeUnit.SECONDS).close();
+        assertThat(budget.getReserved()).isZero();
+    }
+
+    @Test
+    void shouldGiveUpAtDeadline() throws Exception {
+        // Given
+        PayloadBudget.Reservation first = budget.reserve(100, deadline());
+
+        // When/Then
+        assertThatThrownBy(() -> budget.reserve(1, Deadline.after(Duration.ofMillis(100))))
+                .isInstanceOf(DeadlineExceededException.class);
+        first.close();
+        assertThat(budget.getReserved()).isZero();
+    }
+
+    @Test
+    void shouldReserveExpandedSizeWithoutJumpingQueue() throws Exception {
+        // Given: decoded payloads take four times their size
+        PayloadBudget expanding = new PayloadBudget(100, 4, new SimpleMeterRegistry());
+        PayloadBudget.Reservation first = expanding.tryReserve(20);
+
+        // When
+        PayloadBudget.Reservation tooLarge = expanding.tryReserve(10);
+        CompletableFuture<PayloadBudget.Reservation> waiting = CompletableFuture.supplyAsync(() -> {
+            try {
+                return expanding.reserve(10, deadline());
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        }, executor);
+        Thread.sleep(100);
+
+        // Then: a fitting payload does not overtake the waiting one, nothing is reserved for empty ones
+        assertThat(first).isNotNull();
+        assertThat(expanding.getReserved()).isEqualTo(80);
+        assertThat(tooLarge).isNull();
+        assertThat(expanding.tryReserve(1)).isNull();
+        assertThat(expanding.tryReserve(0)).isNotNull();
+        first.close();
+        waiting.get(5, TimeUnit.SECONDS).close();
+        assertThat(expanding.getReserved()).isZero();
+    }
+
+    private CompletableFuture<PayloadBudget.Reservation> reserveAsync(long bytes) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return budget.reserve(bytes, deadline());
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        }, executor);
+    }
+
+    private static Deadline deadline() {
+        return Deadline.after(Duration.ofSeconds(10));
+    }
+}
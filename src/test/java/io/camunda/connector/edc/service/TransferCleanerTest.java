@@ -0,0 +1,153 @@
+package io.camunda.connector.edc.service;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for the background termination of consumed transfers and abandoned negotiations
+ */
+class TransferCleanerTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final List<String> calls = new CopyOnWriteArrayList<>();
+    // Resource ID to the statuses the management API answers with, one per attempt; 204 once used up
+    private final Map<String, List<Integer>> statuses = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> attempts = new ConcurrentHashMap<>();
+    private HttpServer server;
+    private String managementUrl;
+    private TransferCleaner cleaner;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/management/", exchange -> {
+            String path = exchange.getRequestURI().getPath();
+            calls.add(exchange.getRequestMethod() + " " + path);
+            String id = path.split("/")[4];
+            int attempt = attempts.computeIfAbsent(id, k -> new AtomicInteger()).getAndIncrement();
+            List<Integer> planned = statuses.getOrDefault(id, List.of());
+            exchange.sendResponseHeaders(attempt < planned.size() ? planned.get(attempt) : 204, -1);
+            exchange.close();
+        });
+        server.start();
+        managementUrl = "http://127.0.0.1:" + server.getAddress().getPort() + "/management";
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (cleaner != null) {
+            cleaner.close();
+        }
+        server.stop(0);
+    }
+
+    @Test
+    void shouldTerminateQueuedResourcesAsOneBatch() throws Exception {
+        // Given
+        cleaner = cleaner(Duration.ofMillis(200));
+
+        // When
+        cleaner.enqueue(managementUrl, "transfer-1", null);
+        cleaner.enqueue(managementUrl, "transfer-2", null);
+        cleaner.enqueue(TransferCleaner.Resource.NEGOTIATION, managementUrl, "negotiation-1", "Cancelled", null);
+        boolean queuedBeforeInterval = cleaner.getBacklog() == 3 && calls.isEmpty();
+        awaitBacklogDrained();
+
+        // Then
+        assertThat(queuedBeforeInterval).isTrue();
+        assertThat(calls).containsExactlyInAnyOrder(
+                "POST /management/v3/transferprocesses/transfer-1/terminate",
+                "POST /management/v3/transferprocesses/transfer-2/terminate",
+                "POST /management/v3/contractnegotiations/negotiation-1/terminate");
+        assertThat(count("edc.connector.cleanup.transfers", "terminated")).isEqualTo(2);
+        assertThat(count("edc.connector.cleanup.negotiations", "terminated")).isEqualTo(1);
+    }
+
+    @Test
+    void shouldRetryFailedTerminationWithNextBatchAndGiveUpAfterThreeAttempts() throws Exception {
+        // Given
+        statuses.put("flaky", List.of(503));
+        statuses.put("broken", List.of(500, 500, 500));
+        cleaner = cleaner(Duration.ofMillis(20));
+
+        // When
+        cleaner.enqueue(managementUrl, "flaky", null);
+        cleaner.enqueue(managementUrl, "broken", null);
+        awaitBacklogDrained();
+
+        // Then
+        assertThat(attempts.get("flaky").get()).isEqualTo(2);
+        assertThat(attempts.get("broken").get()).isEqualTo(3);
+        assertThat(count("edc.connector.cleanup.transfers", "terminated")).isEqualTo(1);
+        assertThat(count("edc.connector.cleanup.transfers", "failed")).isEqualTo(1);
+    }
+
+    @Test
+    void shouldTreatConflictAsAlreadyTerminated() throws Exception {
+        // Given: the transfer already reached a final state
+        statuses.put("finished", List.of(409));
+        cleaner = cleaner(Duration.ofMillis(20));
+
+        // When
+        cleaner.enqueue(managementUrl, "finished", null);
+        awaitBacklogDrained();
+
+        // Then
+        assertThat(attempts.get("finished").get()).isEqualTo(1);
+        assertThat(count("edc.connector.cleanup.transfers", "terminated")).isEqualTo(1);
+        assertThat(count("edc.connector.cleanup.transfers", "failed")).isZero();
+    }
+
+    @Test
+    void shouldReportInstancesSeparatelyAndRemoveMetersOnClose() throws Exception {
+        // Given
+        cleaner = cleaner(Duration.ofHours(1));
+        TransferCleaner second = cleaner(Duration.ofHours(1));
+
+        // When
+        second.enqueue(managementUrl, "transfer-1", null);
+
+        // Then
+        assertThat(registry.find("edc.connector.cleanup.backlog").gauges())
+                .extracting(gauge -> gauge.value())
+                .containsExactlyInAnyOrder(0.0, 1.0);
+        second.close();
+        assertThat(registry.find("edc.connector.cleanup.backlog").gauges()).hasSize(1);
+    }
+
+    private TransferCleaner cleaner(Duration interval) {
+        HttpClient httpClient = HttpClient.newHttpClient();
+        return new TransferCleaner(httpClient, (url, body, auth) -> HttpRequest.newBuilder(URI.create(url))
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build(), 2, 100, interval, registry);
+    }
+
+    private void awaitBacklogDrained() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        do {
+            Thread.sleep(50);
+        } while (cleaner.getBacklog() > 0 && System.currentTimeMillis() < deadline);
+    }
+
+    private double count(String metric, String outcome) {
+        return registry.find(metric).tag("outcome", outcome).counters().stream()
+                .mapToDouble(counter -> counter.count())
+                .sum();
+    }
+}
@@ -0,0 +1,98 @@
+package io.camunda.connector.edc.service.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for the content-addressed storage of the result cache
+ */
+class ResultCacheTest {
+
+    private static final String HELLO_SHA256 = "2cf24dba5fb0a30e26e83b2ac5b9e29e1b161e5c1fa7425e73043362938b9824";
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void shouldDigestStoredPayload() throws Exception {
+        // Given
+        ResultCache cache = cache(1024, 1024);
+
+        // When
+        CachedPayload payload = cache.store("provider|asset-1", body("hello"), "text/plain", "\"v1\"", null);
+
+        // Then
+        assertThat(payload.getSha256()).isEqualTo(HELLO_SHA256);
+        assertThat(read(payload)).isEqualTo("hello");
+        cache.release(payload);
+    }
+
+    @Test
+    void shouldKeepIdenticalContentOnce() throws Exception {
+        // Given: file tier only
+        ResultCache cache = cache(0, 1024);
+        cache.release(cache.store("provider-a|asset-1", body("same content"), "text/plain", "\"a\"", null));
+
+        // When
+        cache.release(cache.store("provider-b|asset-2", body("same content"), "text/plain", "\"b\"", null));
+
+        // Then
+        assertThat(cache.getDiskBytes()).isEqualTo("same content".length());
+        assertThat(files()).isEqualTo(1);
+        CachedPayload cached = cache.get("provider-b|asset-2");
+        assertThat(read(cached)).isEqualTo("same content");
+        cache.release(cached);
+    }
+
+    @Test
+    void shouldDeleteContentWithLastReference() throws Exception {
+        // Given: room for one payload, both entries share it
+        ResultCache cache = cache(0, 12);
+        cache.release(cache.store("a", body("same content"), "text/plain", "\"a\"", null));
+        cache.release(cache.store("b", body("same content"), "text/plain", "\"b\"", null));
+        CachedPayload reading = cache.get("b");
+
+        // When: another payload evicts both entries while one is still being read
+        cache.release(cache.store("c", body("other bytes!"), "text/plain", "\"c\"", null));
+
+        // Then
+        assertThat(cache.get("a")).isNull();
+        assertThat(cache.get("b")).isNull();
+        assertThat(read(reading)).isEqualTo("same content");
+        cache.release(reading);
+        assertThat(files()).isEqualTo(1);
+        assertThat(cache.getDiskBytes()).isEqualTo(12);
+    }
+
+    private ResultCache cache(long maxMemoryBytes, long maxDiskBytes) {
+        return new ResultCache(directory, maxMemoryBytes, maxDiskBytes, maxMemoryBytes, 1024,
+                new SimpleMeterRegistry());
+    }
+
+    private long files() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.count();
+        }
+    }
+
+    private static InputStream body(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String read(CachedPayload payload) throws IOException {
+        try (InputStream in = payload.open()) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
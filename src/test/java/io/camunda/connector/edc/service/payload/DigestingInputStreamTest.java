@@ -0,0 +1,58 @@
+package io.camunda.connector.edc.service.payload;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for digesting payloads while they are read
+ */
+class DigestingInputStreamTest {
+
+    @Test
+    void shouldDrainSmallRemainderInShortReadsOnClose() throws Exception {
+        // Given: a body that returns a few bytes per read, like a slow data plane
+        byte[] content = new byte[10_000];
+        DigestingInputStream in = new DigestingInputStream(trickle(content, 16));
+        in.read(new byte[100]);
+
+        // When
+        in.close();
+
+        // Then: the remainder is counted by the bytes read, not by the buffer size
+        assertThat(in.getSha256()).isEqualTo(sha256(content));
+    }
+
+    @Test
+    void shouldLeaveDigestUnknownForLargeRemainder() throws Exception {
+        // Given
+        DigestingInputStream in = new DigestingInputStream(trickle(new byte[200_000], 8192));
+        in.read(new byte[100]);
+
+        // When
+        in.close();
+
+        // Then
+        assertThat(in.getSha256()).isNull();
+    }
+
+    private static InputStream trickle(byte[] content, int chunkSize) {
+        return new FilterInputStream(new ByteArrayInputStream(content)) {
+            @Override
+            public int read(byte[] buffer, int offset, int length) throws IOException {
+                return super.read(buffer, offset, Math.min(length, chunkSize));
+            }
+        };
+    }
+
+    private static String sha256(byte[] content) throws Exception {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+    }
+}
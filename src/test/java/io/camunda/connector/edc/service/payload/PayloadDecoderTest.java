@@ -0,0 +1,144 @@
+package io.camunda.connector.edc.service.payload;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.util.RawValue;
+import io.camunda.connector.edc.model.EdcConnectorRequest;
+import io.camunda.connector.edc.model.PayloadReference;
+import io.camunda.connector.edc.model.management.ManagementApiJson;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for decoding data plane payloads by Content-Type
+ */
+class PayloadDecoderTest {
+
+    private final PayloadDecoder decoder = new PayloadDecoder(ManagementApiJson.MAPPER);
+    private final EdcConnectorRequest request = new EdcConnectorRequest();
+
+    @TempDir
+    Path directory;
+
+    @AfterEach
+    void tearDown() {
+        System.clearProperty("edc.connector.payload.dir");
+    }
+
+    @Test
+    void shouldDecodeByContentType() throws Exception {
+        // When
+        Object json = decoder.decode(body("{\"a\":1}"), "application/vnd.api+json", request);
+        Object ndjson = decoder.decode(body("{\"a\":1}\n\n{\"a\":2}\n"), "application/x-ndjson", request);
+        Object csv = decoder.decode(body("id,name\r\n1,\"Doe, Jane\"\r\n2,\n"), "text/csv", request);
+        Object text = decoder.decode(body("<a/>"), "application/xml", request);
+        Object binary = decoder.decode(body("hello"), "application/octet-stream", request);
+        Object unknown = decoder.decode(body("not json"), null, request);
+
+        // Then
+        assertThat(json).isInstanceOf(JsonNode.class);
+        assertThat(((JsonNode) json).get("a").asInt()).isEqualTo(1);
+        assertThat((List<?>) ndjson).hasSize(2);
+        assertThat(csv).isEqualTo(List.of(
+                Map.of("id", "1", "name", "Doe, Jane"),
+                Map.of("id", "2", "name", "")));
+        assertThat(text).isEqualTo("<a/>");
+        assertThat(binary).isEqualTo("aGVsbG8=");
+        assertThat(unknown).isEqualTo("not json");
+    }
+
+    @Test
+    void shouldEnforceRecordLimits() {
+        // Given
+        request.setMaxRecords(2);
+        request.setMaxRecordSize(10);
+
+        // When/Then
+        assertThatThrownBy(() -> decoder.decode(body("{}\n{}\n{}\n"), "application/x-ndjson", request))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("2 records");
+        assertThatThrownBy(() -> decoder.decode(body("a\n1\n2\n3\n"), "text/csv", request))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("2 records");
+        assertThatThrownBy(() -> decoder.decode(body("{\"key\":\"long value\"}\n"), "application/x-ndjson", request))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("exceeds the limit");
+        assertThatThrownBy(() -> decoder.decode(body("a\nlong value!\n"), "text/csv", request))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("exceeds the limit");
+    }
+
+    @Test
+    void shouldDecodeDeclaredCharset() throws Exception {
+        // Given
+        Charset latin1 = StandardCharsets.ISO_8859_1;
+
+        // When
+        Object text = decoder.decode(body("Grüße", latin1), "text/plain; charset=\"ISO-8859-1\"", request);
+        Object csv = decoder.decode(body("name\nMüller\n", latin1), "text/csv;charset=iso-8859-1", request);
+        Object fallback = decoder.decode(body("Grüße"), "text/plain; charset=unknown-charset", request);
+
+        // Then
+        assertThat(text).isEqualTo("Grüße");
+        assertThat(csv).isEqualTo(List.of(Map.of("name", "Müller")));
+        assertThat(fallback).isEqualTo("Grüße");
+    }
+
+    @Test
+    void shouldPassRawJsonThroughVerbatim() throws Exception {
+        // Given
+        request.setJsonHandling("raw");
+        String document = "{ \"name\": \"Müller\",\n  \"tags\": [\"a\", \"€\"] }\n";
+
+        // When
+        Object raw = decoder.decode(body(document), "application/json", request);
+
+        // Then
+        assertThat(raw).isEqualTo(new RawValue(document));
+        assertThatThrownBy(() -> decoder.decode(body("{\"a\":1} {\"b\":2}"), "application/json", request))
+                .isInstanceOf(JsonParseException.class)
+                .hasMessageContaining("Unexpected content after the JSON document");
+        assertThatThrownBy(() -> decoder.decode(body(" "), "application/json", request))
+                .isInstanceOf(JsonParseException.class)
+                .hasMessageContaining("JSON payload is empty");
+    }
+
+    @Test
+    void shouldWriteBinaryFileForAssetIdWithPathCharacters() throws Exception {
+        // Given
+        System.setProperty("edc.connector.payload.dir", directory.toString());
+        request.setBinaryHandling("file");
+        request.setAssetId("urn:asset/../reports\\2024?*");
+
+        // When
+        PayloadReference reference = (PayloadReference) decoder.decode(body("hello"), "image/png", request);
+
+        // Then
+        Path file = Path.of(reference.getPath());
+        assertThat(file.getParent()).isEqualTo(directory);
+        assertThat(file.getFileName().toString()).startsWith("edc-urn_asset_.._reports_2024__-");
+        assertThat(Files.readString(file)).isEqualTo("hello");
+        assertThat(reference.getSize()).isEqualTo(5);
+    }
+
+    private static InputStream body(String content) {
+        return body(content, StandardCharsets.UTF_8);
+    }
+
+    private static InputStream body(String content, Charset charset) {
+        return new ByteArrayInputStream(content.getBytes(charset));
+    }
+}
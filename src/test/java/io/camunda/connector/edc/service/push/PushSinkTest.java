@@ -0,0 +1,179 @@
+package io.camunda.connector.edc.service.push;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for the embedded endpoint receiving pushed payloads
+ */
+class PushSinkTest {
+
+    private static final int MAX_BODY_BYTES = 16;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @TempDir
+    Path directory;
+
+    private PushSink sink;
+
+    @AfterEach
+    void tearDown() {
+        if (sink != null) {
+            sink.close();
+        }
+    }
+
+    @Test
+    void shouldStorePushedPayloadWithDigest() throws Exception {
+        // Given
+        PushSink.Delivery delivery = start().expect();
+
+        // When
+        int status = push(delivery, delivery.getToken(), HttpRequest.BodyPublishers.ofString("hello"));
+
+        // Then
+        PushSink.PushedPayload payload = delivery.getReceived().get(5, TimeUnit.SECONDS);
+        assertThat(status).isEqualTo(200);
+        assertThat(payload.file().getParent()).isEqualTo(directory);
+        assertThat(Files.readString(payload.file())).isEqualTo("hello");
+        assertThat(payload.size()).isEqualTo(5);
+        assertThat(payload.contentType()).isEqualTo("text/plain");
+        assertThat(payload.sha256()).isEqualTo("2cf24dba5fb0a30e26e83b2ac5b9e29e1b161e5c1fa7425e73043362938b9824");
+        assertThat(push(delivery, delivery.getToken(), HttpRequest.BodyPublishers.ofString("again"))).isEqualTo(409);
+    }
+
+    @Test
+    void shouldRejectUnknownDeliveryAndWrongToken() throws Exception {
+        // Given
+        PushSink.Delivery delivery = start().expect();
+        PushSink.Delivery closed = sink.expect();
+        closed.close();
+
+        // When/Then
+        assertThat(push(delivery, "Bearer wrong", HttpRequest.BodyPublishers.ofString("hello"))).isEqualTo(401);
+        assertThat(push(closed, closed.getToken(), HttpRequest.BodyPublishers.ofString("hello"))).isEqualTo(404);
+        assertThat(delivery.getReceived()).isNotDone();
+    }
+
+    @Test
+    void shouldRejectBodyOverLimitByContentLength() throws Exception {
+        // Given
+        PushSink.Delivery delivery = start().expect();
+
+        // When
+        int status = push(delivery, delivery.getToken(), HttpRequest.BodyPublishers.ofString("x".repeat(17)));
+
+        // Then
+        assertThat(status).isEqualTo(413);
+        assertThatThrownBy(() -> delivery.getReceived().get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasMessageContaining("exceeds the limit of 16 bytes");
+        assertThat(directory).isEmptyDirectory();
+    }
+
+    @Test
+    void shouldRejectChunkedBodyOverLimit() throws Exception {
+        // Given: no Content-Length, the size is only known while reading
+        PushSink.Delivery delivery = start().expect();
+        byte[] body = "x".repeat(64 * 1024).getBytes(StandardCharsets.UTF_8);
+
+        // When
+        int status = push(delivery, delivery.getToken(),
+                HttpRequest.BodyPublishers.ofInputStream(() -> new ByteArrayInputStream(body)));
+
+        // Then
+        assertThat(status).isEqualTo(413);
+        assertThat(delivery.getReceived()).isCompletedExceptionally();
+        assertThat(directory).isEmptyDirectory();
+    }
+
+    @Test
+    void shouldDeletePayloadNotTakenWhenClosed() throws Exception {
+        // Given
+        PushSink.Delivery taken = start().expect();
+        PushSink.Delivery abandoned = sink.expect();
+        push(taken, taken.getToken(), HttpRequest.BodyPublishers.ofString("hello"));
+        push(abandoned, abandoned.getToken(), HttpRequest.BodyPublishers.ofString("hello"));
+        Path takenFile = taken.take(5, TimeUnit.SECONDS).file();
+        Path abandonedFile = abandoned.getReceived().get(5, TimeUnit.SECONDS).file();
+
+        // When
+        taken.close();
+        abandoned.close();
+
+        // Then: the taken file belongs to the workflow now
+        assertThat(takenFile).exists();
+        assertThat(abandonedFile).doesNotExist();
+    }
+
+    @Test
+    void shouldDeletePartialPayloadOfDeliveryClosedWhileReceiving() throws Exception {
+        // Given: a chunked body that stalls after its first chunk
+        PushSink.Delivery delivery = start().expect();
+        try (Socket socket = new Socket("127.0.0.1", sink.getPort())) {
+            OutputStream out = socket.getOutputStream();
+            out.write(("POST " + URI.create(delivery.getUrl()).getPath() + " HTTP/1.1\r\n"
+                    + "Host: 127.0.0.1\r\nAuthorization: " + delivery.getToken() + "\r\n"
+                    + "Transfer-Encoding: chunked\r\n\r\n4\r\nabcd\r\n").getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+            for (int i = 0; i < 100 && isEmpty(directory); i++) {
+                Thread.sleep(20);
+            }
+
+            // When
+            delivery.close();
+            out.write("4\r\nefgh\r\n0\r\n\r\n".getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+
+            // Then
+            String statusLine = new BufferedReader(new InputStreamReader(socket.getInputStream(),
+                    StandardCharsets.US_ASCII)).readLine();
+            assertThat(statusLine).contains(" 410 ");
+        }
+        assertThat(directory).isEmptyDirectory();
+    }
+
+    private static boolean isEmpty(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.findAny().isEmpty();
+        }
+    }
+
+    private PushSink start() {
+        sink = new PushSink("127.0.0.1", 0, "http://127.0.0.1", directory, MAX_BODY_BYTES);
+        return sink;
+    }
+
+    private int push(PushSink.Delivery delivery, String token, HttpRequest.BodyPublisher body) throws Exception {
+        // The advertised URL has no port, the sink listens on an ephemeral one
+        URI url = URI.create(delivery.getUrl().replace("http://127.0.0.1", "http://127.0.0.1:" + sink.getPort()));
+        HttpRequest request = HttpRequest.newBuilder(url)
+                .header("Authorization", token)
+                .header("Content-Type", "text/plain")
+                .POST(body)
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}